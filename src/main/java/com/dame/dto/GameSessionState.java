@@ -0,0 +1,157 @@
+package com.dame.dto;
+
+import com.dame.engine.GameState;
+import com.dame.entity.OnlineGameSession;
+import com.dame.entity.OnlineGameStatus;
+import com.dame.entity.Player;
+
+/**
+ * Read model of an online game session: only the columns the game view shows,
+ * loaded by a projection query instead of the entity and its three players.
+ */
+public class GameSessionState {
+
+    private final Long sessionId;
+    private final Long whitePlayerId;
+    private final String whitePlayerUsername;
+    private final Long blackPlayerId;
+    private final String blackPlayerUsername;
+    private final OnlineGameStatus status;
+    private final String boardStateJson;
+    private final String currentTurn;
+    private final GameState gameState;
+    private final String multiJumpPositionJson;
+    private final int whiteWins;
+    private final int blackWins;
+    private final int gamesPlayed;
+    private final Long rematchRequestedById;
+
+    public GameSessionState(Long sessionId,
+                            Long whitePlayerId, String whitePlayerUsername,
+                            Long blackPlayerId, String blackPlayerUsername,
+                            OnlineGameStatus status, String boardStateJson, String currentTurn,
+                            GameState gameState, String multiJumpPositionJson,
+                            int whiteWins, int blackWins, int gamesPlayed,
+                            Long rematchRequestedById) {
+        this.sessionId = sessionId;
+        this.whitePlayerId = whitePlayerId;
+        this.whitePlayerUsername = whitePlayerUsername;
+        this.blackPlayerId = blackPlayerId;
+        this.blackPlayerUsername = blackPlayerUsername;
+        this.status = status;
+        this.boardStateJson = boardStateJson;
+        this.currentTurn = currentTurn;
+        this.gameState = gameState;
+        this.multiJumpPositionJson = multiJumpPositionJson;
+        this.whiteWins = whiteWins;
+        this.blackWins = blackWins;
+        this.gamesPlayed = gamesPlayed;
+        this.rematchRequestedById = rematchRequestedById;
+    }
+
+    /**
+     * Read model of a session already loaded (e.g. just changed by a move).
+     */
+    public static GameSessionState fromSession(OnlineGameSession session) {
+        Player white = session.getWhitePlayer();
+        Player black = session.getBlackPlayer();
+        Player rematchRequestedBy = session.getRematchRequestedBy();
+        return new GameSessionState(
+                session.getId(),
+                white != null ? white.getId() : null,
+                white != null ? white.getUsername() : null,
+                black != null ? black.getId() : null,
+                black != null ? black.getUsername() : null,
+                session.getStatus(),
+                session.getBoardStateJson(),
+                session.getCurrentTurn(),
+                session.getGameState(),
+                session.getMultiJumpPositionJson(),
+                session.getWhiteWins(),
+                session.getBlackWins(),
+                session.getGamesPlayed(),
+                rematchRequestedBy != null ? rematchRequestedBy.getId() : null
+        );
+    }
+
+    public Long getSessionId() {
+        return sessionId;
+    }
+
+    public Long getWhitePlayerId() {
+        return whitePlayerId;
+    }
+
+    public String getWhitePlayerUsername() {
+        return whitePlayerUsername;
+    }
+
+    public Long getBlackPlayerId() {
+        return blackPlayerId;
+    }
+
+    public String getBlackPlayerUsername() {
+        return blackPlayerUsername;
+    }
+
+    public OnlineGameStatus getStatus() {
+        return status;
+    }
+
+    public String getBoardStateJson() {
+        return boardStateJson;
+    }
+
+    public String getCurrentTurn() {
+        return currentTurn;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public String getMultiJumpPositionJson() {
+        return multiJumpPositionJson;
+    }
+
+    public int getWhiteWins() {
+        return whiteWins;
+    }
+
+    public int getBlackWins() {
+        return blackWins;
+    }
+
+    public int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public Long getRematchRequestedById() {
+        return rematchRequestedById;
+    }
+
+    public boolean hasPendingRematchRequest() {
+        return rematchRequestedById != null;
+    }
+
+    /**
+     * Gets the color assigned to a player in this session, or null for a spectator.
+     */
+    public com.dame.engine.Player getPlayerColor(Long playerId) {
+        if (playerId.equals(whitePlayerId)) {
+            return com.dame.engine.Player.WHITE;
+        }
+        if (playerId.equals(blackPlayerId)) {
+            return com.dame.engine.Player.BLACK;
+        }
+        return null;
+    }
+
+    /**
+     * Username of the player with the given color ("?" if the seat is empty).
+     */
+    public String getUsername(com.dame.engine.Player color) {
+        String username = color == com.dame.engine.Player.WHITE ? whitePlayerUsername : blackPlayerUsername;
+        return username != null ? username : "?";
+    }
+}
@@ -33,6 +33,7 @@ public class GameUpdate {
     private final int gamesPlayed;
     private final String message;
     private final MoveDTO lastMove;
+    private final OnlineGameSnapshot snapshot;
 
     private GameUpdate(Builder builder) {
         this.type = builder.type;
@@ -47,6 +48,7 @@ public class GameUpdate {
         this.gamesPlayed = builder.gamesPlayed;
         this.message = builder.message;
         this.lastMove = builder.lastMove;
+        this.snapshot = builder.snapshot;
     }
 
     public static Builder builder(UpdateType type, Long sessionId) {
@@ -101,6 +103,23 @@ public class GameUpdate {
         return lastMove;
     }
 
+    /**
+     * State of the game after this update, one instance shared by every listener;
+     * null for updates that do not change it (e.g. a player connecting).
+     */
+    public OnlineGameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Whether this update only carries the latest session state.
+     * A newer coalescible update makes an undelivered one redundant, so a
+     * lagging client can skip straight to the newest board.
+     */
+    public boolean isCoalescible() {
+        return type == UpdateType.MOVE_MADE || type == UpdateType.SESSION_UPDATED;
+    }
+
     public static class Builder {
         private final UpdateType type;
         private final Long sessionId;
@@ -114,6 +133,7 @@ public class GameUpdate {
         private int gamesPlayed;
         private String message;
         private MoveDTO lastMove;
+        private OnlineGameSnapshot snapshot;
 
         private Builder(UpdateType type, Long sessionId) {
             this.type = type;
@@ -170,6 +190,11 @@ public class GameUpdate {
             return this;
         }
 
+        public Builder snapshot(OnlineGameSnapshot snapshot) {
+            this.snapshot = snapshot;
+            return this;
+        }
+
         public GameUpdate build() {
             return new GameUpdate(this);
         }
@@ -0,0 +1,74 @@
+package com.dame.dto;
+
+import com.dame.entity.HeadToHead;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a player's record against one opponent, from the player's side.
+ */
+public class HeadToHeadDTO {
+
+    private final Long opponentId;
+    private final String opponentUsername;
+    private final int wins;
+    private final int losses;
+    private final int draws;
+    private final LocalDateTime lastPlayedAt;
+
+    public HeadToHeadDTO(Long opponentId, String opponentUsername,
+                         int wins, int losses, int draws, LocalDateTime lastPlayedAt) {
+        this.opponentId = opponentId;
+        this.opponentUsername = opponentUsername;
+        this.wins = wins;
+        this.losses = losses;
+        this.draws = draws;
+        this.lastPlayedAt = lastPlayedAt;
+    }
+
+    /**
+     * @param playerId the player whose side the record is seen from
+     */
+    public static HeadToHeadDTO fromRecord(HeadToHead record, Long playerId) {
+        return new HeadToHeadDTO(
+                record.getOpponentOf(playerId).getId(),
+                record.getOpponentOf(playerId).getUsername(),
+                record.getWinsFor(playerId),
+                record.getLossesFor(playerId),
+                record.getDraws(),
+                record.getLastPlayedAt()
+        );
+    }
+
+    public Long getOpponentId() {
+        return opponentId;
+    }
+
+    public String getOpponentUsername() {
+        return opponentUsername;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public LocalDateTime getLastPlayedAt() {
+        return lastPlayedAt;
+    }
+
+    public int getGamesPlayed() {
+        return wins + losses + draws;
+    }
+
+    public String getRecordDisplay() {
+        return wins + "W - " + losses + "L - " + draws + "D";
+    }
+}
@@ -4,21 +4,63 @@ import java.util.List;
 
 /**
  * DTO for real-time lobby updates broadcast to connected clients.
+ *
+ * <h2>Versioning</h2>
+ * Updates broadcast on a {@link Topic} are deltas stamped with that topic's
+ * version (1, 2, 3, ...). A client applies them in version order and, on a gap,
+ * asks the broadcaster for the missing range or reloads a snapshot of the topic.
+ * Updates sent to a single player are not versioned ({@link #getVersion()} is 0).
+ *
+ * <ul>
+ *   <li>PLAYER_ONLINE and PLAYER_STATUS_CHANGED carry the player's entry in {@link #getOnlinePlayers()}</li>
+ *   <li>PLAYER_OFFLINE carries only {@link #getPlayerId()}</li>
+ *   <li>SPECTATABLE_GAMES_CHANGED carries the added or changed games in {@link #getSpectatableGames()}</li>
+ *   <li>SPECTATABLE_GAME_REMOVED carries only {@link #getSessionId()} of the game that stopped being watchable</li>
+ *   <li>MATCHMAKING_QUEUE_CHANGED carries nothing: waiting players were matched or
+ *       expired, and clients re-read the queue size</li>
+ * </ul>
  */
 public class LobbyUpdate {
 
+    /**
+     * Lobby areas a client can subscribe to.
+     * Updates addressed to a single player bypass topics entirely.
+     */
+    public enum Topic {
+        PRESENCE,
+        MATCHMAKING,
+        CHALLENGES,
+        SPECTATABLE_GAMES
+    }
+
     public enum UpdateType {
-        PLAYER_ONLINE,
-        PLAYER_OFFLINE,
-        CHALLENGE_RECEIVED,
-        CHALLENGE_CANCELLED,
-        CHALLENGE_EXPIRED,
-        MATCHMAKING_STARTED,
-        MATCHMAKING_FOUND,
-        MATCHMAKING_CANCELLED,
-        GAME_STARTED,
-        SPECTATABLE_GAMES_CHANGED,
-        FULL_REFRESH
+        PLAYER_ONLINE(Topic.PRESENCE),
+        PLAYER_OFFLINE(Topic.PRESENCE),
+        PLAYER_STATUS_CHANGED(Topic.PRESENCE),
+        CHALLENGE_RECEIVED(Topic.CHALLENGES),
+        CHALLENGE_CANCELLED(Topic.CHALLENGES),
+        CHALLENGE_EXPIRED(Topic.CHALLENGES),
+        MATCHMAKING_STARTED(Topic.MATCHMAKING),
+        MATCHMAKING_FOUND(Topic.MATCHMAKING),
+        MATCHMAKING_CANCELLED(Topic.MATCHMAKING),
+        MATCHMAKING_QUEUE_CHANGED(Topic.MATCHMAKING),
+        GAME_STARTED(Topic.SPECTATABLE_GAMES),
+        SPECTATABLE_GAMES_CHANGED(Topic.SPECTATABLE_GAMES),
+        SPECTATABLE_GAME_REMOVED(Topic.SPECTATABLE_GAMES),
+        FULL_REFRESH(null);
+
+        private final Topic topic;
+
+        UpdateType(Topic topic) {
+            this.topic = topic;
+        }
+
+        /**
+         * @return the topic this update is broadcast on, or null if it concerns every topic
+         */
+        public Topic getTopic() {
+            return topic;
+        }
     }
 
     private final UpdateType type;
@@ -30,6 +72,7 @@ public class LobbyUpdate {
     private final List<OnlinePlayerDTO> onlinePlayers;
     private final List<SpectateGameDTO> spectatableGames;
     private final String message;
+    private final long version;
 
     private LobbyUpdate(Builder builder) {
         this.type = builder.type;
@@ -41,6 +84,27 @@ public class LobbyUpdate {
         this.onlinePlayers = builder.onlinePlayers;
         this.spectatableGames = builder.spectatableGames;
         this.message = builder.message;
+        this.version = 0;
+    }
+
+    private LobbyUpdate(LobbyUpdate source, long version) {
+        this.type = source.type;
+        this.playerId = source.playerId;
+        this.playerUsername = source.playerUsername;
+        this.challengeId = source.challengeId;
+        this.sessionId = source.sessionId;
+        this.sessionCode = source.sessionCode;
+        this.onlinePlayers = source.onlinePlayers;
+        this.spectatableGames = source.spectatableGames;
+        this.message = source.message;
+        this.version = version;
+    }
+
+    /**
+     * Copy of this update stamped with its topic version (set by the broadcaster).
+     */
+    public LobbyUpdate withVersion(long version) {
+        return new LobbyUpdate(this, version);
     }
 
     public static Builder builder(UpdateType type) {
@@ -51,6 +115,10 @@ public class LobbyUpdate {
         return type;
     }
 
+    public Topic getTopic() {
+        return type.getTopic();
+    }
+
     public Long getPlayerId() {
         return playerId;
     }
@@ -83,6 +151,13 @@ public class LobbyUpdate {
         return message;
     }
 
+    /**
+     * @return the topic version of this update, or 0 if it was sent to a single player
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public static class Builder {
         private final UpdateType type;
         private Long playerId;
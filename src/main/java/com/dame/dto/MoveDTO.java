@@ -46,12 +46,18 @@ public class MoveDTO {
     }
 
     /**
-     * Convert to engine Move (for validation, captures won't be set).
+     * Convert to engine Move. Captures are carried over so the engine can
+     * validate the exact capture path; an empty list matches any path.
      */
     public Move toMove() {
+        List<Position> capturePositions = captures == null
+                ? List.of()
+                : captures.stream().map(c -> new Position(c[0], c[1])).toList();
+
         return new Move(
                 new Position(startRow, startCol),
-                new Position(endRow, endCol)
+                new Position(endRow, endCol),
+                capturePositions
         );
     }
 
@@ -12,22 +12,25 @@ public class MoveResult {
     private final GameState gameState;
     private final String errorMessage;
     private final String multiJumpPositionJson;
+    private final OnlineGameSnapshot snapshot;
 
     private MoveResult(boolean success, boolean turnEnded, GameState gameState,
-                       String errorMessage, String multiJumpPositionJson) {
+                       String errorMessage, String multiJumpPositionJson, OnlineGameSnapshot snapshot) {
         this.success = success;
         this.turnEnded = turnEnded;
         this.gameState = gameState;
         this.errorMessage = errorMessage;
         this.multiJumpPositionJson = multiJumpPositionJson;
+        this.snapshot = snapshot;
     }
 
-    public static MoveResult success(boolean turnEnded, GameState gameState, String multiJumpPositionJson) {
-        return new MoveResult(true, turnEnded, gameState, null, multiJumpPositionJson);
+    public static MoveResult success(boolean turnEnded, OnlineGameSnapshot snapshot) {
+        return new MoveResult(true, turnEnded, snapshot.getGameState(), null,
+                snapshot.getSession().getMultiJumpPositionJson(), snapshot);
     }
 
     public static MoveResult failure(String errorMessage) {
-        return new MoveResult(false, false, null, errorMessage, null);
+        return new MoveResult(false, false, null, errorMessage, null, null);
     }
 
     public boolean isSuccess() {
@@ -49,4 +52,11 @@ public class MoveResult {
     public String getMultiJumpPositionJson() {
         return multiJumpPositionJson;
     }
+
+    /**
+     * State of the game after the move, or null if it failed.
+     */
+    public OnlineGameSnapshot getSnapshot() {
+        return snapshot;
+    }
 }
@@ -0,0 +1,96 @@
+package com.dame.dto;
+
+import com.dame.engine.BoardState;
+import com.dame.engine.GameLogic;
+import com.dame.engine.GameSnapshot;
+import com.dame.engine.GameState;
+import com.dame.engine.Move;
+import com.dame.engine.Player;
+import com.dame.engine.Position;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable state of an online game right after a change (move, forfeit, new round):
+ * everything the game view renders, so it needs no reload or board parse.
+ *
+ * <ul>
+ *   <li>{@link #getSession()}: players, scores and rematch request</li>
+ *   <li>{@link #getBoard()}: the position as a {@link BoardState} value</li>
+ *   <li>{@link #getLegalMoves(int, int)}: the moves of the player to move,
+ *       by starting square (only the jumping piece during a multi-jump;
+ *       none once the round is over)</li>
+ * </ul>
+ * The {@link Move} objects are shared and must not be modified.
+ */
+public class OnlineGameSnapshot {
+
+    private final GameSessionState session;
+    private final GameSnapshot game;
+    private final Map<Position, List<Move>> legalMoves;
+
+    private OnlineGameSnapshot(GameSessionState session, GameSnapshot game,
+                               Map<Position, List<Move>> legalMoves) {
+        this.session = session;
+        this.game = game;
+        this.legalMoves = legalMoves;
+    }
+
+    /**
+     * Capture a game after it has been changed and saved.
+     */
+    public static OnlineGameSnapshot of(GameSessionState session, GameLogic game) {
+        Map<Position, List<Move>> byStart = new HashMap<>();
+        for (Move move : game.getValidMoves()) {
+            byStart.computeIfAbsent(move.getStart(), start -> new ArrayList<>()).add(move);
+        }
+        byStart.replaceAll((start, moves) -> List.copyOf(moves));
+
+        return new OnlineGameSnapshot(session,
+                GameSnapshot.of(game.getBoard(), game.getCurrentPlayer(),
+                        game.getGameState(), game.getMultiJumpPosition()),
+                Map.copyOf(byStart));
+    }
+
+    public Long getSessionId() {
+        return session.getSessionId();
+    }
+
+    public GameSessionState getSession() {
+        return session;
+    }
+
+    public BoardState getBoard() {
+        return game.board();
+    }
+
+    public Player getCurrentPlayer() {
+        return game.currentPlayer();
+    }
+
+    public GameState getGameState() {
+        return game.gameState();
+    }
+
+    public boolean isGameOver() {
+        return game.gameState() != GameState.IN_PROGRESS;
+    }
+
+    public boolean isInMultiJump() {
+        return game.multiJumpPosition() != null;
+    }
+
+    public Position getMultiJumpPosition() {
+        return game.multiJumpPosition();
+    }
+
+    /**
+     * Legal moves of the piece on a square (empty if it has none or is not the mover's).
+     */
+    public List<Move> getLegalMoves(int row, int col) {
+        return legalMoves.getOrDefault(new Position(row, col), List.of());
+    }
+}
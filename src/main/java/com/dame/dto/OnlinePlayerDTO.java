@@ -46,6 +46,18 @@ public class OnlinePlayerDTO {
         return losses;
     }
 
+    public OnlinePlayerDTO withInGame(boolean inGame) {
+        return new OnlinePlayerDTO(id, username, inGame, inQueue, wins, losses);
+    }
+
+    public OnlinePlayerDTO withInQueue(boolean inQueue) {
+        return new OnlinePlayerDTO(id, username, inGame, inQueue, wins, losses);
+    }
+
+    public OnlinePlayerDTO withRecord(int wins, int losses) {
+        return new OnlinePlayerDTO(id, username, inGame, inQueue, wins, losses);
+    }
+
     public String getStatus() {
         if (inGame) {
             return "In Game";
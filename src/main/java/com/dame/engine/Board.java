@@ -1,5 +1,8 @@
 package com.dame.engine;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents the 8x8 game board holding all pieces.
  *
@@ -31,6 +34,9 @@ package com.dame.engine;
  * <ul>
  *   <li>Internally uses a {@code Piece[8][8]} 2D array</li>
  *   <li>null means empty square</li>
+ *   <li>One 64-bit occupancy mask per player (bit {@code row * 8 + col}), kept in
+ *       sync by {@link #set(int, int, Piece)}, so piece lookups and counts touch
+ *       only occupied squares instead of scanning all 64</li>
  *   <li>{@link #copy()} creates a deep copy (clones all Piece objects)</li>
  *   <li>Serialized to JSON by {@link BoardStateSerializer} for persistence</li>
  * </ul>
@@ -47,12 +53,16 @@ public class Board {
     /** The 2D array holding pieces. null = empty square */
     private final Piece[][] grid;
 
+    /** Occupied squares per player, indexed by {@link Player#ordinal()} */
+    private final long[] occupancy;
+
     /**
      * Creates an empty board (no pieces placed).
      * Call {@link #setupInitialPosition()} to place starting pieces.
      */
     public Board() {
         this.grid = new Piece[SIZE][SIZE];
+        this.occupancy = new long[Player.values().length];
     }
 
     public Piece get(int row, int col) {
@@ -68,6 +78,14 @@ public class Board {
 
     public void set(int row, int col, Piece piece) {
         if (isInside(row, col)) {
+            long bit = 1L << (row * SIZE + col);
+            Piece previous = grid[row][col];
+            if (previous != null) {
+                occupancy[previous.getOwner().ordinal()] &= ~bit;
+            }
+            if (piece != null) {
+                occupancy[piece.getOwner().ordinal()] |= bit;
+            }
             grid[row][col] = piece;
         }
     }
@@ -111,16 +129,7 @@ public class Board {
     }
 
     public int countPieces(Player player) {
-        int count = 0;
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                Piece p = get(r, c);
-                if (p != null && p.getOwner() == player) {
-                    count++;
-                }
-            }
-        }
-        return count;
+        return Long.bitCount(occupancy[player.ordinal()]);
     }
 
     /**
@@ -128,17 +137,37 @@ public class Board {
      */
     public int countKings(Player player) {
         int count = 0;
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                Piece p = get(r, c);
-                if (p != null && p.getOwner() == player && p.isKing()) {
-                    count++;
-                }
+        for (long mask = occupancy[player.ordinal()]; mask != 0; mask &= mask - 1) {
+            int square = Long.numberOfTrailingZeros(mask);
+            if (grid[square / SIZE][square % SIZE].isKing()) {
+                count++;
             }
         }
         return count;
     }
 
+    /**
+     * Returns the occupancy mask for a player: bit {@code row * 8 + col} is set
+     * when that square holds one of the player's pieces.
+     */
+    public long getOccupancy(Player player) {
+        return occupancy[player.ordinal()];
+    }
+
+    /**
+     * Returns the squares holding a player's pieces, in row-major order
+     * (the same order as scanning rows then columns).
+     */
+    public List<Position> getPiecePositions(Player player) {
+        long mask = occupancy[player.ordinal()];
+        List<Position> positions = new ArrayList<>(Long.bitCount(mask));
+        for (; mask != 0; mask &= mask - 1) {
+            int square = Long.numberOfTrailingZeros(mask);
+            positions.add(new Position(square / SIZE, square % SIZE));
+        }
+        return positions;
+    }
+
     /**
      * Count the number of men (non-king pieces) for a player.
      */
@@ -156,6 +185,7 @@ public class Board {
                 }
             }
         }
+        System.arraycopy(occupancy, 0, copy.occupancy, 0, occupancy.length);
         return copy;
     }
 
@@ -163,7 +193,7 @@ public class Board {
         // Clear the board
         for (int r = 0; r < SIZE; r++) {
             for (int c = 0; c < SIZE; c++) {
-                grid[r][c] = null;
+                set(r, c, null);
             }
         }
 
@@ -171,7 +201,7 @@ public class Board {
         for (int r = 0; r < 3; r++) {
             for (int c = 0; c < SIZE; c++) {
                 if (isDarkSquare(r, c)) {
-                    grid[r][c] = new Piece(Player.BLACK);
+                    set(r, c, new Piece(Player.BLACK));
                 }
             }
         }
@@ -180,7 +210,7 @@ public class Board {
         for (int r = 5; r < SIZE; r++) {
             for (int c = 0; c < SIZE; c++) {
                 if (isDarkSquare(r, c)) {
-                    grid[r][c] = new Piece(Player.WHITE);
+                    set(r, c, new Piece(Player.WHITE));
                 }
             }
         }
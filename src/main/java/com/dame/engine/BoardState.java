@@ -0,0 +1,163 @@
+package com.dame.engine;
+
+/**
+ * Immutable, compact value of a board position: three 64-bit masks.
+ * Used wherever many versions of a board are kept (undo history, replays,
+ * analysis) instead of deep-copying a {@link Board} for every ply.
+ *
+ * <h2>Encoding</h2>
+ * <pre>
+ *   bit index = row * 8 + col
+ *
+ *   white  → squares holding a WHITE piece
+ *   black  → squares holding a BLACK piece
+ *   kings  → squares holding a KING (of either colour)
+ * </pre>
+ * A whole position is 24 bytes, versus 64 array slots plus one object per
+ * piece for a {@link Board} copy.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * BoardState before = BoardState.of(board);     // capture the live board
+ * BoardState after  = before.withMove(move);     // derive the next ply
+ * Board replay      = after.toBoard();           // mutable board for play
+ * </pre>
+ *
+ * <h2>Under the Hood</h2>
+ * <ul>
+ *   <li>A record of primitives: deeply immutable, safe to share across threads
+ *       (e.g. one value read by every spectator)</li>
+ *   <li>{@link #withMove(Move)} is a handful of bit operations, no allocation
+ *       beyond the new record</li>
+ *   <li>equals/hashCode compare positions by value (usable as a map key)</li>
+ *   <li>{@link #changedSquares(BoardState)} diffs two positions in three XORs,
+ *       so a view can redraw only the squares a move touched</li>
+ * </ul>
+ *
+ * @param white squares occupied by WHITE
+ * @param black squares occupied by BLACK
+ * @param kings squares occupied by a king
+ *
+ * @see Board
+ * @see GameSnapshot
+ */
+public record BoardState(long white, long black, long kings) {
+
+    /** The standard starting position */
+    public static final BoardState INITIAL = initial();
+
+    /**
+     * Captures the current position of a mutable board.
+     *
+     * @param board the board to read
+     * @return the position as a value
+     */
+    public static BoardState of(Board board) {
+        long kings = 0L;
+        long occupied = board.getOccupancy(Player.WHITE) | board.getOccupancy(Player.BLACK);
+        for (long mask = occupied; mask != 0; mask &= mask - 1) {
+            int square = Long.numberOfTrailingZeros(mask);
+            if (board.get(square / Board.SIZE, square % Board.SIZE).isKing()) {
+                kings |= 1L << square;
+            }
+        }
+        return new BoardState(board.getOccupancy(Player.WHITE), board.getOccupancy(Player.BLACK), kings);
+    }
+
+    private static BoardState initial() {
+        Board board = new Board();
+        board.setupInitialPosition();
+        return of(board);
+    }
+
+    /**
+     * Builds a new mutable board holding this position.
+     *
+     * @return a fresh board (changes to it never affect this value)
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        for (long mask = white | black; mask != 0; mask &= mask - 1) {
+            int square = Long.numberOfTrailingZeros(mask);
+            Player owner = (white & (1L << square)) != 0 ? Player.WHITE : Player.BLACK;
+            PieceType type = (kings & (1L << square)) != 0 ? PieceType.KING : PieceType.MAN;
+            board.set(square / Board.SIZE, square % Board.SIZE, new Piece(owner, type));
+        }
+        return board;
+    }
+
+    /**
+     * Derives the position after a complete move.
+     * The piece moves from start to end, captured pieces are removed, and a man
+     * that finishes on the opponent's back row is promoted (same rule as
+     * {@link GameLogic}).
+     *
+     * @param move the move to apply (not validated against the rules)
+     * @return the resulting position
+     * @throws IllegalArgumentException if the start square is empty
+     */
+    public BoardState withMove(Move move) {
+        long from = bit(move.getStart());
+        long to = bit(move.getEnd());
+        if (((white | black) & from) == 0) {
+            throw new IllegalArgumentException("No piece at " + move.getStart());
+        }
+
+        long captured = 0L;
+        for (Position capture : move.getCaptures()) {
+            captured |= bit(capture);
+        }
+
+        boolean whiteMoving = (white & from) != 0;
+        boolean wasKing = (kings & from) != 0;
+
+        long newWhite = whiteMoving ? (white & ~from) | to : white & ~captured;
+        long newBlack = whiteMoving ? black & ~captured : (black & ~from) | to;
+        long newKings = kings & ~from & ~captured;
+
+        // White promotes at row 0, Black promotes at row 7
+        int promotionRow = whiteMoving ? 0 : Board.SIZE - 1;
+        if (wasKing || move.getEndRow() == promotionRow) {
+            newKings |= to;
+        }
+
+        return new BoardState(newWhite, newBlack, newKings);
+    }
+
+    /**
+     * @return the owner of the piece on a square, or null if empty
+     */
+    public Player ownerAt(int row, int col) {
+        long bit = 1L << (row * Board.SIZE + col);
+        if ((white & bit) != 0) {
+            return Player.WHITE;
+        }
+        return (black & bit) != 0 ? Player.BLACK : null;
+    }
+
+    /**
+     * @return true if the square holds a king
+     */
+    public boolean isKingAt(int row, int col) {
+        return (kings & (1L << (row * Board.SIZE + col))) != 0;
+    }
+
+    public int countPieces(Player player) {
+        return Long.bitCount(player == Player.WHITE ? white : black);
+    }
+
+    /**
+     * Squares whose content differs between two positions (a piece appeared,
+     * left, changed colour or was promoted), e.g. to redraw only those.
+     *
+     * @param other the position to compare with
+     * @return mask of the differing squares (bit index = row * 8 + col)
+     */
+    public long changedSquares(BoardState other) {
+        return (white ^ other.white) | (black ^ other.black) | (kings ^ other.kings);
+    }
+
+    private static long bit(Position pos) {
+        return 1L << (pos.row() * Board.SIZE + pos.col());
+    }
+}
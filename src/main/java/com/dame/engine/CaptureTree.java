@@ -0,0 +1,277 @@
+package com.dame.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prefix tree (trie) of every capture sequence available to a single piece.
+ * Each node is one hop: the square the piece lands on and the enemy it jumped.
+ *
+ * <h2>Why a Tree?</h2>
+ * Multi-jumps share prefixes. Expanding every sequence into its own flat
+ * {@link Move} copies the shared hops once per branch, and flying kings multiply
+ * branches by every landing square after each capture.
+ * <pre>
+ *   Flat list (3 moves, 7 hops stored):     Capture tree (4 hops stored):
+ *     a→b→c                                       root (a)
+ *     a→b→d                                        └── b
+ *     a→e                                          │   ├── c
+ *                                                  │   └── d
+ *                                                  └── e
+ * </pre>
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * CaptureTree tree = calculator.getCaptureTree(pos);
+ *
+ * // Validate a requested move by walking a single path:
+ * CaptureTree.Node hop = tree.find(move.getEnd(), move.getCaptures());
+ *
+ * // Step through hop by hop (UI):
+ * for (CaptureTree.Node next : hop.getChildren()) { ... }
+ *
+ * // Flat moves for existing callers:
+ * List&lt;Move&gt; moves = tree.toMoves();
+ * </pre>
+ *
+ * <h2>Under the Hood</h2>
+ * <ul>
+ *   <li>Built by {@link MoveCalculator} in one depth-first search</li>
+ *   <li>Each node links to its parent, so a path is never copied while searching</li>
+ *   <li>Leaves are complete sequences; inner nodes are partial ones that must continue</li>
+ *   <li>Child order matches search order, so {@link #toMoves()} is deterministic</li>
+ * </ul>
+ *
+ * @see MoveCalculator#getCaptureTree(Position)
+ * @see GameLogic#applyMove(Move)
+ */
+public class CaptureTree {
+
+    /** The starting square of the capturing piece (landing square of the root) */
+    private final Node root;
+
+    /**
+     * Creates an empty tree for a piece standing on {@code start}.
+     *
+     * @param start the position of the capturing piece
+     */
+    public CaptureTree(Position start) {
+        this.root = new Node(start, null, null);
+    }
+
+    /**
+     * @return the root node (the piece's current square, no capture)
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the starting square of the capturing piece
+     */
+    public Position getStart() {
+        return root.landing;
+    }
+
+    /**
+     * @return true if the piece has no capture available
+     */
+    public boolean isEmpty() {
+        return root.isLeaf();
+    }
+
+    /**
+     * Expands the tree into one flat {@link Move} per complete sequence.
+     *
+     * @return list of complete capture moves (empty if no captures)
+     */
+    public List<Move> toMoves() {
+        return root.toMoves();
+    }
+
+    /**
+     * Finds the hop that a requested move ends on.
+     * Complete sequences (leaves) are preferred over partial ones, so a
+     * full-sequence request never gets mistaken for a single hop.
+     *
+     * @param end      the square the piece should end on
+     * @param captures the captured squares in order, or empty to match any path
+     * @return the matching node, or null if no path ends on {@code end}
+     */
+    public Node find(Position end, List<Position> captures) {
+        return root.find(end, captures);
+    }
+
+    /**
+     * A single hop in a capture sequence.
+     */
+    public static class Node {
+
+        /** Square the piece lands on after this hop */
+        private final Position landing;
+
+        /** Enemy piece jumped on this hop (null for the root) */
+        private final Position captured;
+
+        /** Previous hop (null for the root) */
+        private final Node parent;
+
+        /** Number of captures from the root to this node */
+        private final int depth;
+
+        /** Possible next hops, in search order */
+        private final List<Node> children = new ArrayList<>(4);
+
+        private Node(Position landing, Position captured, Node parent) {
+            this.landing = landing;
+            this.captured = captured;
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        /**
+         * Appends a hop below this node (used during move calculation).
+         *
+         * @param landing  the square landed on
+         * @param captured the enemy piece jumped
+         * @return the new child node
+         */
+        Node addChild(Position landing, Position captured) {
+            Node child = new Node(landing, captured, this);
+            children.add(child);
+            return child;
+        }
+
+        public Position getLanding() {
+            return landing;
+        }
+
+        public Position getCaptured() {
+            return captured;
+        }
+
+        public Node getParent() {
+            return parent;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return unmodifiable view of the next possible hops
+         */
+        public List<Node> getChildren() {
+            return Collections.unmodifiableList(children);
+        }
+
+        /**
+         * @return true if the sequence is complete at this hop
+         */
+        public boolean isLeaf() {
+            return children.isEmpty();
+        }
+
+        /**
+         * Finds the next hop landing on a square.
+         * On a diagonal, a landing square identifies exactly one hop.
+         *
+         * @param landing the square to land on
+         * @return the matching child, or null
+         */
+        public Node child(Position landing) {
+            for (Node child : children) {
+                if (child.landing.equals(landing)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Finds a hop below this node that a requested move ends on.
+         * Complete sequences (leaves) are preferred over partial ones.
+         *
+         * @param end      the square the piece should end on
+         * @param captures the captured squares after this node, in order, or empty to match any path
+         * @return the matching descendant, or null if no path ends on {@code end}
+         */
+        public Node find(Position end, List<Position> captures) {
+            Node leaf = findBelow(this, end, captures, true);
+            return leaf != null ? leaf : findBelow(this, end, captures, false);
+        }
+
+        private Node findBelow(Node node, Position end, List<Position> captures, boolean leavesOnly) {
+            for (Node child : node.children) {
+                // Walk only the path described by the requested captures, when given
+                int hop = child.depth - depth - 1;
+                if (hop < captures.size() && !captures.get(hop).equals(child.captured)) {
+                    continue;
+                }
+                if (child.landing.equals(end) && hop + 1 >= captures.size()
+                        && (!leavesOnly || child.isLeaf())) {
+                    return child;
+                }
+                Node found = findBelow(child, end, captures, leavesOnly);
+                if (found != null) {
+                    return found;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the captured squares from the root down to this node, in order
+         */
+        public List<Position> getCaptures() {
+            Position[] path = new Position[depth];
+            for (Node n = this; n.parent != null; n = n.parent) {
+                path[n.depth - 1] = n.captured;
+            }
+            return List.of(path);
+        }
+
+        /**
+         * Builds the move from the root to this node.
+         *
+         * @return a move from the tree's start square to this landing square
+         */
+        public Move toMove() {
+            Node first = this;
+            while (first.parent != null) {
+                first = first.parent;
+            }
+            return new Move(first.landing, landing, getCaptures());
+        }
+
+        /**
+         * Expands the subtree below this node into flat moves that start here.
+         * Used to list continuations while a multi-jump is in progress.
+         *
+         * @return one move per complete sequence reachable from this node
+         */
+        public List<Move> toMoves() {
+            List<Move> moves = new ArrayList<>();
+            collectMoves(this, new ArrayList<>(), moves);
+            return moves;
+        }
+
+        private void collectMoves(Node node, List<Position> capturesSoFar, List<Move> moves) {
+            for (Node child : node.children) {
+                capturesSoFar.add(child.captured);
+                if (child.isLeaf()) {
+                    moves.add(new Move(landing, child.landing, capturesSoFar));
+                } else {
+                    collectMoves(child, capturesSoFar, moves);
+                }
+                capturesSoFar.remove(capturesSoFar.size() - 1);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return captured == null ? "root" + landing : "x" + captured + "->" + landing;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Deque;
  * <ul>
  *   <li>Uses {@link ArrayDeque} as stack (faster than Stack class)</li>
  *   <li>No limit on history depth (can undo all moves)</li>
+ *   <li>Each snapshot holds a 24-byte {@link BoardState}, not a board copy</li>
  *   <li>Cleared on game reset via {@link #clear()}</li>
  * </ul>
  *
@@ -26,18 +26,22 @@ import java.util.List;
  * <pre>
  * 1. User clicks piece → canSelect(row, col)
  * 2. UI highlights moves → getValidMovesFor(row, col)
- * 3. User clicks destination → applyMove(move)
+ * 3. User clicks destination → applyMove(move) / makeMove(move)
  * 4. Engine validates → updates board → checks promotion
  * 5. Multi-jump? → keep turn : endTurn()
  * 6. Check win conditions → updateGameState()
  * </pre>
  *
  * <h2>Multi-Jump Handling</h2>
- * When a capture leads to more available captures:
+ * Captures are validated against the piece's {@link CaptureTree}. A move may
+ * name a complete sequence (a leaf) or stop on an inner hop. In the latter case:
  * <ul>
  *   <li>{@code multiJumpPosition} tracks the jumping piece</li>
- *   <li>{@code applyMove()} returns false (turn not ended)</li>
- *   <li>Player must continue with that piece until no captures remain</li>
+ *   <li>{@code multiJumpHop} keeps its node in the capture tree, so the next hop
+ *       is validated against the already-generated sequences (no new search)</li>
+ *   <li>{@code makeMove()} returns {@link MoveOutcome#JUMP_CONTINUES}
+ *       ({@code applyMove()} returns false: turn not ended)</li>
+ *   <li>Player must continue with that piece until no captures remain, kings included</li>
  * </ul>
  *
  * <h2>Undo System</h2>
@@ -68,6 +72,14 @@ public class GameLogic {
      */
     private Position multiJumpPosition;
 
+    /**
+     * Capture-tree node the jumping piece is standing on during a multi-capture.
+     * Carried forward from the sequence generated before the first hop, so each
+     * further hop is a child lookup instead of a new capture search.
+     * null when not in a multi-jump, or not yet rebuilt after restore/undo.
+     */
+    private CaptureTree.Node multiJumpHop;
+
     /** Stack of previous states for undo functionality */
     private final GameHistory history;
 
@@ -119,7 +131,7 @@ public class GameLogic {
         }
 
         if (isInMultiJump()) {
-            return calculator.getCaptureMovesFrom(multiJumpPosition);
+            return currentJumpHop().toMoves();
         }
 
         return calculator.getValidMoves(currentPlayer);
@@ -139,7 +151,7 @@ public class GameLogic {
             if (multiJumpPosition.row() != row || multiJumpPosition.col() != col) {
                 return List.of(); // Can only move the jumping piece
             }
-            return calculator.getCaptureMovesFrom(multiJumpPosition);
+            return currentJumpHop().toMoves();
         }
 
         // Check if captures are mandatory
@@ -176,52 +188,97 @@ public class GameLogic {
 
     // ========== MOVE EXECUTION ==========
 
+    /**
+     * Applies a move if it is legal.
+     *
+     * @return true if the turn ended; false if the piece must keep jumping or
+     *         the move was rejected (use {@link #makeMove(Move)} to tell them apart)
+     */
     public boolean applyMove(Move move) {
+        return makeMove(move) == MoveOutcome.TURN_ENDED;
+    }
+
+    /**
+     * Applies a move if it is legal and reports what happened.
+     *
+     * @param move the move to make; a capture may name a whole sequence or
+     *             stop on an inner hop
+     * @return whether the move was rejected, applied with the jump continuing,
+     *         or applied and the turn ended
+     */
+    public MoveOutcome makeMove(Move move) {
         if (isGameOver()) {
-            return false;
+            return MoveOutcome.REJECTED;
         }
 
-        // Find the actual valid move that matches the requested move
-        List<Move> validMoves = isInMultiJump()
-                ? calculator.getCaptureMovesFrom(multiJumpPosition)
-                : getValidMovesFor(move.getStartRow(), move.getStartCol());
+        Piece piece = board.get(move.getStart());
+        if (piece == null || piece.getOwner() != currentPlayer) {
+            return MoveOutcome.REJECTED;
+        }
 
-        Move actualMove = validMoves.stream()
-                .filter(m -> m.getStart().equals(move.getStart()) && m.getEnd().equals(move.getEnd()))
-                .findFirst()
-                .orElse(null);
+        // Captures are validated by walking one path of the piece's capture tree
+        CaptureTree.Node from = null;
+        CaptureTree.Node hop = null;
+        if (isInMultiJump()) {
+            if (!multiJumpPosition.equals(move.getStart())) {
+                return MoveOutcome.REJECTED; // Can only move the jumping piece
+            }
+            from = currentJumpHop();
+        } else if (calculator.hasCapturesAvailable(currentPlayer)) {
+            from = calculator.getCaptureTree(move.getStart()).getRoot();
+        } else if (calculator.getMovesForPiece(move.getStartRow(), move.getStartCol(), piece)
+                .stream()
+                .noneMatch(m -> m.getEnd().equals(move.getEnd()))) {
+            return MoveOutcome.REJECTED;
+        }
 
-        if (actualMove == null) {
-            return false;
+        if (from != null) {
+            // A single hop is a direct child lookup; longer requests walk the subtree
+            hop = move.getCaptureCount() <= 1 ? from.child(move.getEnd()) : null;
+            if (hop == null || (move.isCapture() && !move.getCaptures().get(0).equals(hop.getCaptured()))) {
+                hop = from.find(move.getEnd(), move.getCaptures());
+            }
+            if (hop == null) {
+                return MoveOutcome.REJECTED;
+            }
         }
 
         // Save snapshot BEFORE executing the move for undo functionality
         history.push(GameSnapshot.of(board, currentPlayer, gameState, multiJumpPosition));
 
-        // Execute the move using the actual valid move (with correct captures)
-        Piece piece = board.get(actualMove.getStart());
-        board.movePiece(actualMove.getStart(), actualMove.getEnd());
-
-        // Remove captured pieces from the actual move
-        for (Position capture : actualMove.getCaptures()) {
-            board.remove(capture);
-        }
+        board.movePiece(move.getStart(), move.getEnd());
 
-        // Check for promotion
-        checkPromotion(piece, actualMove.getEnd());
+        // Remove the pieces jumped between the current hop and the landing hop
+        if (hop != null) {
+            for (CaptureTree.Node n = hop; n != from; n = n.getParent()) {
+                board.remove(n.getCaptured());
+            }
 
-        // Check for multi-jump continuation (only for men, kings can choose to stop)
-        if (actualMove.isCapture() && !piece.isKing()) {
-            List<Move> continuations = calculator.getCaptureMovesFrom(actualMove.getEnd());
-            if (!continuations.isEmpty()) {
-                multiJumpPosition = actualMove.getEnd();
-                return false; // Turn not ended
+            // Stopped on an inner hop: the piece must keep jumping
+            if (!hop.isLeaf()) {
+                multiJumpPosition = move.getEnd();
+                multiJumpHop = hop;
+                return MoveOutcome.JUMP_CONTINUES;
             }
         }
 
+        // Check for promotion (only once the whole sequence has landed)
+        checkPromotion(piece, move.getEnd());
+
         // Turn ends
         endTurn();
-        return true;
+        return MoveOutcome.TURN_ENDED;
+    }
+
+    /**
+     * Returns the capture-tree node of the piece mid-jump. Only rebuilt from the
+     * board when the game was restored or undone mid-jump.
+     */
+    private CaptureTree.Node currentJumpHop() {
+        if (multiJumpHop == null) {
+            multiJumpHop = calculator.getCaptureTree(multiJumpPosition).getRoot();
+        }
+        return multiJumpHop;
     }
 
     private void checkPromotion(Piece piece, Position pos) {
@@ -238,6 +295,7 @@ public class GameLogic {
 
     private void endTurn() {
         multiJumpPosition = null;
+        multiJumpHop = null;
         currentPlayer = currentPlayer.opponent();
         updateGameState();
     }
@@ -298,6 +356,7 @@ public class GameLogic {
         this.calculator = new MoveCalculator(board);
         this.gameState = GameState.IN_PROGRESS;
         this.multiJumpPosition = null;
+        this.multiJumpHop = null;
         this.history.clear();
     }
 
@@ -315,6 +374,7 @@ public class GameLogic {
         this.currentPlayer = currentPlayer;
         this.gameState = gameState;
         this.multiJumpPosition = multiJumpPosition;
+        this.multiJumpHop = null;
         this.calculator = new MoveCalculator(this.board);
         this.history.clear();
     }
@@ -340,10 +400,11 @@ public class GameLogic {
         }
 
         // Restore state from snapshot
-        this.board = snapshot.board().copy(); // Copy again to avoid sharing reference
+        this.board = snapshot.board().toBoard(); // Fresh mutable board from the stored value
         this.currentPlayer = snapshot.currentPlayer();
         this.gameState = snapshot.gameState();
         this.multiJumpPosition = snapshot.multiJumpPosition();
+        this.multiJumpHop = null;
         this.calculator = new MoveCalculator(board);
 
         return true;
@@ -2,21 +2,22 @@ package com.dame.engine;
 
 /**
  * Immutable snapshot of the complete game state for undo functionality.
- * Stores deep copies of the board and all game state variables.
+ * Stores the board as a compact {@link BoardState} value plus all game state variables.
  *
  * <h2>Captured State</h2>
  * <pre>
  * GameSnapshot {
- *   board            → deep copy of all pieces on the board
+ *   board            → 24-byte BoardState value of all pieces on the board
  *   currentPlayer    → whose turn it is (WHITE/BLACK)
  *   gameState        → IN_PROGRESS, WHITE_WINS, etc.
  *   multiJumpPosition → position of piece mid-jump, or null
  * }
  * </pre>
  *
- * <h2>Why Deep Copy?</h2>
- * The board is deep-copied to ensure the snapshot remains immutable.
- * Without this, changes to the live board would corrupt historical snapshots.
+ * <h2>Why a Value Instead of a Copy?</h2>
+ * The snapshot must not change when the live board does. A {@link BoardState}
+ * is immutable by construction, so no deep copy of the 8x8 grid and its pieces
+ * is needed per ply, and snapshots can be shared freely.
  *
  * <h2>Usage</h2>
  * <pre>
@@ -25,10 +26,10 @@ package com.dame.engine;
  * history.push(snap);
  *
  * // After undo:
- * this.board = snap.board().copy(); // copy again to avoid sharing
+ * this.board = snap.board().toBoard(); // fresh mutable board
  * </pre>
  *
- * @param board             deep copy of the board state
+ * @param board             value of the board position
  * @param currentPlayer     the player whose turn it is
  * @param gameState         the current game state
  * @param multiJumpPosition the position of a piece mid-jump, or null
@@ -37,18 +38,18 @@ package com.dame.engine;
  * @see GameLogic#undo()
  */
 public record GameSnapshot(
-        Board board,
+        BoardState board,
         Player currentPlayer,
         GameState gameState,
         Position multiJumpPosition) {
     /**
      * Creates a snapshot from the current game state.
-     * The board is deep-copied to ensure immutability.
+     * The board is captured as an immutable {@link BoardState}.
      */
     public static GameSnapshot of(Board board, Player currentPlayer,
             GameState gameState, Position multiJumpPosition) {
         return new GameSnapshot(
-                board.copy(),
+                BoardState.of(board),
                 currentPlayer,
                 gameState,
                 multiJumpPosition);
@@ -20,7 +20,7 @@ import java.util.List;
  * <h2>Algorithm Overview</h2>
  * <pre>
  * getValidMoves(player):
- *   1. Scan all squares for player's pieces
+ *   1. Look up the player's pieces from the board's occupancy index
  *   2. For each piece, calculate all possible moves
  *   3. Separate moves into captures vs simple moves
  *   4. If ANY captures exist → return ONLY captures (mandatory)
@@ -28,12 +28,12 @@ import java.util.List;
  * </pre>
  *
  * <h2>Capture Calculation (Recursive)</h2>
- * For multi-jump detection, the algorithm:
+ * For multi-jump detection, the algorithm builds a {@link CaptureTree}:
  * <ol>
- *   <li>Makes a capture on a board copy</li>
- *   <li>Recursively searches for more captures from landing position</li>
- *   <li>Tracks captured pieces to prevent re-capturing same piece</li>
- *   <li>Records complete capture sequence when no more captures available</li>
+ *   <li>Makes a capture in place (jumped piece removed from the board)</li>
+ *   <li>Adds the hop as a child node and recurses from the landing position</li>
+ *   <li>Unmakes the capture on the way back, so no board copies are made</li>
+ *   <li>A node with no children is a complete capture sequence</li>
  * </ol>
  *
  * <h2>Direction Vectors</h2>
@@ -86,20 +86,13 @@ public class MoveCalculator {
         List<Move> allMoves = new ArrayList<>();
         List<Move> captureMoves = new ArrayList<>();
 
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                Piece piece = board.get(r, c);
-                if (piece == null || piece.getOwner() != player) {
-                    continue;
-                }
-
-                List<Move> pieceMoves = getMovesForPiece(r, c, piece);
-                for (Move move : pieceMoves) {
-                    if (move.isCapture()) {
-                        captureMoves.add(move);
-                    } else {
-                        allMoves.add(move);
-                    }
+        for (Position pos : board.getPiecePositions(player)) {
+            List<Move> pieceMoves = getMovesForPiece(pos.row(), pos.col(), board.get(pos));
+            for (Move move : pieceMoves) {
+                if (move.isCapture()) {
+                    captureMoves.add(move);
+                } else {
+                    allMoves.add(move);
                 }
             }
         }
@@ -113,21 +106,14 @@ public class MoveCalculator {
             return new ArrayList<>();
         }
 
-        List<Move> moves = new ArrayList<>();
-
-        if (piece.isKing()) {
-            moves.addAll(getKingCaptures(row, col, piece));
-            if (moves.isEmpty()) {
-                moves.addAll(getKingSimpleMoves(row, col));
-            }
-        } else {
-            moves.addAll(getManCaptures(row, col, piece));
-            if (moves.isEmpty()) {
-                moves.addAll(getManSimpleMoves(row, col, piece));
-            }
+        CaptureTree tree = buildCaptureTree(row, col, piece);
+        if (!tree.isEmpty()) {
+            return tree.toMoves();
         }
 
-        return moves;
+        return piece.isKing()
+                ? getKingSimpleMoves(row, col)
+                : getManSimpleMoves(row, col, piece);
     }
 
     public List<Move> getMovesForPosition(Position pos) {
@@ -138,6 +124,42 @@ public class MoveCalculator {
         return getMovesForPiece(pos.row(), pos.col(), piece);
     }
 
+    /**
+     * Builds the capture tree for the piece on a square.
+     * Each root-to-leaf path is one complete capture sequence.
+     *
+     * @param pos the square of the capturing piece
+     * @return the capture tree (empty if the square is empty or no capture exists)
+     */
+    public CaptureTree getCaptureTree(Position pos) {
+        Piece piece = board.get(pos);
+        if (piece == null) {
+            return new CaptureTree(pos);
+        }
+        return buildCaptureTree(pos.row(), pos.col(), piece);
+    }
+
+    /**
+     * Runs the capture search in place on the board: each hop removes the jumped
+     * piece, recurses, then puts it back. The moving piece is lifted off its square
+     * for the whole search, so no board copy is needed per hop.
+     */
+    private CaptureTree buildCaptureTree(int row, int col, Piece piece) {
+        CaptureTree tree = new CaptureTree(new Position(row, col));
+        Piece lifted = board.get(row, col);
+        board.remove(row, col);
+        try {
+            if (piece.isKing()) {
+                buildKingCaptures(tree.getRoot(), piece);
+            } else {
+                buildManCaptures(tree.getRoot(), piece);
+            }
+        } finally {
+            board.set(row, col, lifted);
+        }
+        return tree;
+    }
+
     // ========== MAN SIMPLE MOVES ==========
 
     private List<Move> getManSimpleMoves(int row, int col, Piece piece) {
@@ -161,16 +183,9 @@ public class MoveCalculator {
     // ========== MAN CAPTURES ==========
     // Ghanaian rule: Men can capture backward
 
-    private List<Move> getManCaptures(int row, int col, Piece piece) {
-        List<Move> captures = new ArrayList<>();
-        findManCaptureSequences(row, col, piece, new ArrayList<>(), captures, board.copy());
-        return captures;
-    }
-
-    private void findManCaptureSequences(int row, int col, Piece piece,
-            List<Position> capturedSoFar, List<Move> allCaptures, Board boardState) {
-
-        boolean foundCapture = false;
+    private void buildManCaptures(CaptureTree.Node node, Piece piece) {
+        int row = node.getLanding().row();
+        int col = node.getLanding().col();
 
         // Men can capture in all four diagonal directions (Ghanaian rule)
         for (int[] dir : ALL_DIRECTIONS) {
@@ -179,71 +194,24 @@ public class MoveCalculator {
             int endRow = row + 2 * dir[0];
             int endCol = col + 2 * dir[1];
 
-            if (!boardState.isInside(endRow, endCol)) {
+            if (!board.isInside(endRow, endCol)) {
                 continue;
             }
 
-            Piece midPiece = boardState.get(midRow, midCol);
-            Position midPos = new Position(midRow, midCol);
+            Piece midPiece = board.get(midRow, midCol);
 
             // Check if there's an enemy piece to capture and landing square is empty
             if (midPiece != null &&
                     midPiece.getOwner() != piece.getOwner() &&
-                    !capturedSoFar.contains(midPos) &&
-                    boardState.isEmpty(endRow, endCol)) {
-
-                foundCapture = true;
-
-                // Make the capture on a copy of the board
-                Board nextBoard = boardState.copy();
-                nextBoard.remove(midRow, midCol);
-                nextBoard.movePiece(new Position(row, col), new Position(endRow, endCol));
+                    board.isEmpty(endRow, endCol)) {
 
-                List<Position> newCaptured = new ArrayList<>(capturedSoFar);
-                newCaptured.add(midPos);
-
-                // Recursively look for more captures (multi-jump)
-                findManCaptureSequences(endRow, endCol, piece, newCaptured, allCaptures, nextBoard);
+                // Make the capture, search deeper (multi-jump), then unmake it
+                board.remove(midRow, midCol);
+                CaptureTree.Node hop = node.addChild(new Position(endRow, endCol), new Position(midRow, midCol));
+                buildManCaptures(hop, piece);
+                board.set(midRow, midCol, midPiece);
             }
         }
-
-        // If no more captures found and we have captured at least one piece, record the
-        // move
-        if (!foundCapture && !capturedSoFar.isEmpty()) {
-            Position start = new Position(
-                    row - sumDirections(capturedSoFar, 0),
-                    col - sumDirections(capturedSoFar, 1));
-            // Recalculate start position from captures
-            Move move = new Move(calculateStartPosition(row, col, capturedSoFar),
-                    new Position(row, col), capturedSoFar);
-            allCaptures.add(move);
-        }
-    }
-
-    private Position calculateStartPosition(int endRow, int endCol, List<Position> captures) {
-        // Work backwards from the end position through all captures
-        int row = endRow;
-        int col = endCol;
-
-        for (int i = captures.size() - 1; i >= 0; i--) {
-            Position cap = captures.get(i);
-            // The piece jumped over this capture, so go back
-            int dRow = cap.row() - row;
-            int dCol = cap.col() - col;
-            // Normalize direction
-            dRow = Integer.signum(dRow);
-            dCol = Integer.signum(dCol);
-            // Go back one more step (start was one step before the captured piece)
-            row = cap.row() + dRow;
-            col = cap.col() + dCol;
-        }
-
-        return new Position(row, col);
-    }
-
-    private int sumDirections(List<Position> positions, int index) {
-        // Helper method - not actually used in final calculation
-        return 0;
     }
 
     // ========== KING SIMPLE MOVES ==========
@@ -270,55 +238,39 @@ public class MoveCalculator {
     // ========== KING CAPTURES ==========
     // Ghanaian rule: Flying kings can capture from distance
 
-    private List<Move> getKingCaptures(int row, int col, Piece piece) {
-        List<Move> captures = new ArrayList<>();
-        Position originalStart = new Position(row, col);
-        findKingCaptureSequences(row, col, piece, originalStart, new ArrayList<>(), captures, board.copy());
-        return captures;
-    }
-
-    private void findKingCaptureSequences(int row, int col, Piece piece, Position originalStart,
-            List<Position> capturedSoFar, List<Move> allCaptures, Board boardState) {
-
-        boolean foundCapture = false;
+    private void buildKingCaptures(CaptureTree.Node node, Piece piece) {
+        int row = node.getLanding().row();
+        int col = node.getLanding().col();
 
         for (int[] dir : ALL_DIRECTIONS) {
             int scanRow = row + dir[0];
             int scanCol = col + dir[1];
 
             // Scan along diagonal until we hit something or edge
-            while (boardState.isInside(scanRow, scanCol)) {
-                Piece scannedPiece = boardState.get(scanRow, scanCol);
+            while (board.isInside(scanRow, scanCol)) {
+                Piece scannedPiece = board.get(scanRow, scanCol);
 
                 if (scannedPiece != null) {
-                    Position enemyPos = new Position(scanRow, scanCol);
-
-                    // Found an enemy piece that hasn't been captured yet
-                    if (scannedPiece.getOwner() != piece.getOwner() &&
-                            !capturedSoFar.contains(enemyPos)) {
+                    // Found an enemy piece (captured ones are already off the board)
+                    if (scannedPiece.getOwner() != piece.getOwner()) {
+                        Position enemyPos = new Position(scanRow, scanCol);
+                        board.remove(scanRow, scanCol);
 
-                        // Check landing squares beyond the enemy
+                        // Every empty landing square beyond the enemy is its own branch
                         int landRow = scanRow + dir[0];
                         int landCol = scanCol + dir[1];
 
-                        while (boardState.isInside(landRow, landCol) &&
-                                boardState.isEmpty(landRow, landCol)) {
-
-                            foundCapture = true;
-
-                            Board nextBoard = boardState.copy();
-                            nextBoard.remove(scanRow, scanCol);
-                            nextBoard.movePiece(new Position(row, col), new Position(landRow, landCol));
-
-                            List<Position> newCaptured = new ArrayList<>(capturedSoFar);
-                            newCaptured.add(enemyPos);
+                        while (board.isInside(landRow, landCol) &&
+                                board.isEmpty(landRow, landCol)) {
 
-                            findKingCaptureSequences(landRow, landCol, piece, originalStart,
-                                    newCaptured, allCaptures, nextBoard);
+                            CaptureTree.Node hop = node.addChild(new Position(landRow, landCol), enemyPos);
+                            buildKingCaptures(hop, piece);
 
                             landRow += dir[0];
                             landCol += dir[1];
                         }
+
+                        board.set(scanRow, scanCol, scannedPiece);
                     }
                     // Stop scanning in this direction (blocked by any piece)
                     break;
@@ -328,45 +280,71 @@ public class MoveCalculator {
                 scanCol += dir[1];
             }
         }
-
-        if (!foundCapture && !capturedSoFar.isEmpty()) {
-            Move move = new Move(originalStart, new Position(row, col), capturedSoFar);
-            allCaptures.add(move);
-        }
     }
 
-    // calculateKingStartPosition removed - now passing originalStart through
-    // recursion
-
     // ========== UTILITY METHODS ==========
 
     public boolean hasValidMoves(Player player) {
-        return !getValidMoves(player).isEmpty();
+        for (Position pos : board.getPiecePositions(player)) {
+            Piece piece = board.get(pos);
+            if (canCapture(pos.row(), pos.col(), piece) || canStep(pos.row(), pos.col(), piece)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean hasCapturesAvailable(Player player) {
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                Piece piece = board.get(r, c);
-                if (piece != null && piece.getOwner() == player) {
-                    List<Move> moves = getMovesForPiece(r, c, piece);
-                    if (moves.stream().anyMatch(Move::isCapture)) {
-                        return true;
-                    }
-                }
+        for (Position pos : board.getPiecePositions(player)) {
+            if (canCapture(pos.row(), pos.col(), board.get(pos))) {
+                return true;
             }
         }
         return false;
     }
 
     public List<Move> getCaptureMovesFrom(Position pos) {
-        Piece piece = board.get(pos);
-        if (piece == null) {
-            return new ArrayList<>();
+        return getCaptureTree(pos).toMoves();
+    }
+
+    /**
+     * Checks only for a first hop. Answering "is there any capture?" never needs
+     * the full multi-jump search.
+     */
+    private boolean canCapture(int row, int col, Piece piece) {
+        for (int[] dir : ALL_DIRECTIONS) {
+            int scanRow = row + dir[0];
+            int scanCol = col + dir[1];
+
+            // Kings scan past empty squares; men look at the adjacent square only
+            if (piece.isKing()) {
+                while (board.isInside(scanRow, scanCol) && board.isEmpty(scanRow, scanCol)) {
+                    scanRow += dir[0];
+                    scanCol += dir[1];
+                }
+            }
+
+            Piece target = board.get(scanRow, scanCol);
+            int landRow = scanRow + dir[0];
+            int landCol = scanCol + dir[1];
+            if (target != null && target.getOwner() != piece.getOwner()
+                    && board.isInside(landRow, landCol) && board.isEmpty(landRow, landCol)) {
+                return true;
+            }
         }
-        return getMovesForPiece(pos.row(), pos.col(), piece)
-                .stream()
-                .filter(Move::isCapture)
-                .toList();
+        return false;
+    }
+
+    private boolean canStep(int row, int col, Piece piece) {
+        int[][] directions = piece.isKing()
+                ? ALL_DIRECTIONS
+                : piece.getOwner() == Player.WHITE ? MAN_DIRECTIONS_WHITE : MAN_DIRECTIONS_BLACK;
+
+        for (int[] dir : directions) {
+            if (board.isInside(row + dir[0], col + dir[1]) && board.isEmpty(row + dir[0], col + dir[1])) {
+                return true;
+            }
+        }
+        return false;
     }
 }
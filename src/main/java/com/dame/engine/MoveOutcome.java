@@ -0,0 +1,25 @@
+package com.dame.engine;
+
+/**
+ * What happened to a move passed to {@link GameLogic#makeMove(Move)}.
+ *
+ * <ul>
+ *   <li><b>REJECTED:</b> not a legal move; the game is unchanged</li>
+ *   <li><b>JUMP_CONTINUES:</b> a capture that stopped on an inner hop; the same
+ *       piece must keep jumping and the turn stays with the mover</li>
+ *   <li><b>TURN_ENDED:</b> the move is complete and the opponent is to move
+ *       (or the game is over)</li>
+ * </ul>
+ *
+ * @see GameLogic#makeMove(Move)
+ */
+public enum MoveOutcome {
+    /** The move is not legal; nothing was changed */
+    REJECTED,
+
+    /** The move was applied and the piece must continue jumping */
+    JUMP_CONTINUES,
+
+    /** The move was applied and the turn passed to the opponent */
+    TURN_ENDED
+}
@@ -30,7 +30,7 @@ package com.dame.engine;
  * <ul>
  *   <li>Owner is immutable (final) - pieces never change sides</li>
  *   <li>Type is mutable - can be promoted from MAN to KING</li>
- *   <li>{@link #copy()} creates a deep copy for board state snapshots</li>
+ *   <li>{@link #copy()} creates a deep copy for {@link Board#copy()}</li>
  *   <li>Stored in {@link Board}'s 2D grid array</li>
  * </ul>
  *
@@ -100,7 +100,7 @@ public class Piece {
 
     /**
      * Creates a deep copy of this piece.
-     * Used for creating board snapshots for undo functionality.
+     * Used by {@link Board#copy()}; undo snapshots use {@link BoardState} instead.
      *
      * @return a new Piece with the same owner and type
      */
@@ -8,13 +8,14 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "chat_messages", indexes = {
-    @Index(name = "idx_chat_session_id", columnList = "game_session_id"),
-    @Index(name = "idx_chat_created_at", columnList = "createdAt")
+    @Index(name = "idx_chat_session_created", columnList = "game_session_id, createdAt"),
+    @Index(name = "idx_chat_session_id", columnList = "game_session_id, id")
 })
 public class ChatMessage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_messages_seq")
+    @SequenceGenerator(name = "chat_messages_seq", sequenceName = "chat_messages_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 public class GameChallenge {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_challenges_seq")
+    @SequenceGenerator(name = "game_challenges_seq", sequenceName = "game_challenges_seq", allocationSize = 50)
     private Long id;
 
     /**
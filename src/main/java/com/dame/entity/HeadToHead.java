@@ -0,0 +1,151 @@
+package com.dame.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running record between two players, one row per pair.
+ * The player with the lower ID is always stored as player1, so a pair has
+ * exactly one row and can be found by a single unique-key lookup.
+ */
+@Entity
+@Table(name = "head_to_head", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_head_to_head_pair", columnNames = {"player1_id", "player2_id"})
+}, indexes = {
+    @Index(name = "idx_head_to_head_player2", columnList = "player2_id")
+})
+public class HeadToHead {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "head_to_head_seq")
+    @SequenceGenerator(name = "head_to_head_seq", sequenceName = "head_to_head_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The player with the lower ID
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "player1_id", nullable = false)
+    private Player player1;
+
+    /**
+     * The player with the higher ID
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "player2_id", nullable = false)
+    private Player player2;
+
+    @Column(nullable = false)
+    private int player1Wins = 0;
+
+    @Column(nullable = false)
+    private int player2Wins = 0;
+
+    @Column(nullable = false)
+    private int draws = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime lastPlayedAt;
+
+    public HeadToHead() {
+    }
+
+    /**
+     * Create an empty record for a pair, given in either order.
+     */
+    public HeadToHead(Player player, Player other) {
+        boolean playerFirst = player.getId() < other.getId();
+        this.player1 = playerFirst ? player : other;
+        this.player2 = playerFirst ? other : player;
+    }
+
+    /**
+     * Add one game to the record.
+     *
+     * @param winnerId the winner's ID, or null for a draw
+     * @param playedAt when the game was played
+     */
+    public void recordResult(Long winnerId, LocalDateTime playedAt) {
+        if (winnerId == null) {
+            draws++;
+        } else if (winnerId.equals(player1.getId())) {
+            player1Wins++;
+        } else {
+            player2Wins++;
+        }
+        if (lastPlayedAt == null || playedAt.isAfter(lastPlayedAt)) {
+            lastPlayedAt = playedAt;
+        }
+    }
+
+    public int getWinsFor(Long playerId) {
+        return playerId.equals(player1.getId()) ? player1Wins : player2Wins;
+    }
+
+    public int getLossesFor(Long playerId) {
+        return playerId.equals(player1.getId()) ? player2Wins : player1Wins;
+    }
+
+    public Player getOpponentOf(Long playerId) {
+        return playerId.equals(player1.getId()) ? player2 : player1;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Player getPlayer1() {
+        return player1;
+    }
+
+    public void setPlayer1(Player player1) {
+        this.player1 = player1;
+    }
+
+    public Player getPlayer2() {
+        return player2;
+    }
+
+    public void setPlayer2(Player player2) {
+        this.player2 = player2;
+    }
+
+    public int getPlayer1Wins() {
+        return player1Wins;
+    }
+
+    public void setPlayer1Wins(int player1Wins) {
+        this.player1Wins = player1Wins;
+    }
+
+    public int getPlayer2Wins() {
+        return player2Wins;
+    }
+
+    public void setPlayer2Wins(int player2Wins) {
+        this.player2Wins = player2Wins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public void setDraws(int draws) {
+        this.draws = draws;
+    }
+
+    public LocalDateTime getLastPlayedAt() {
+        return lastPlayedAt;
+    }
+
+    public void setLastPlayedAt(LocalDateTime lastPlayedAt) {
+        this.lastPlayedAt = lastPlayedAt;
+    }
+}
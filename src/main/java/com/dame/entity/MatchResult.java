@@ -9,13 +9,20 @@ import java.time.LocalDateTime;
 public class MatchResult {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_results_seq")
+    @SequenceGenerator(name = "match_results_seq", sequenceName = "match_results_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Winner, or for a draw the first of the two players
+     */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "winner_id")
     private Player winner;
 
+    /**
+     * Loser, or for a draw the second of the two players
+     */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "loser_id")
     private Player loser;
@@ -102,6 +109,10 @@ public class MatchResult {
         this.loserScore = loserScore;
     }
 
+    public boolean isDraw() {
+        return outcome == GameOutcome.DRAW;
+    }
+
     public LocalDateTime getPlayedAt() {
         return playedAt;
     }
@@ -1,6 +1,8 @@
 package com.dame.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 /**
@@ -8,13 +10,13 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "matchmaking_entries", indexes = {
-    @Index(name = "idx_matchmaking_active", columnList = "active"),
-    @Index(name = "idx_matchmaking_joined_at", columnList = "joinedAt")
+    @Index(name = "idx_matchmaking_active_joined_at", columnList = "active, joinedAt")
 })
 public class MatchmakingEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matchmaking_entries_seq")
+    @SequenceGenerator(name = "matchmaking_entries_seq", sequenceName = "matchmaking_entries_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -30,6 +32,13 @@ public class MatchmakingEntry {
     @Column(nullable = false)
     private LocalDateTime joinedAt;
 
+    /**
+     * The player's rating when they joined (pairing key, restored on recovery)
+     */
+    @Column(nullable = false)
+    @ColumnDefault("1500")
+    private int rating = PlayerStats.DEFAULT_RATING;
+
     /**
      * Whether this entry is still active (not matched or removed)
      */
@@ -56,6 +65,11 @@ public class MatchmakingEntry {
         this.joinedAt = LocalDateTime.now();
     }
 
+    public MatchmakingEntry(Player player, int rating) {
+        this(player);
+        this.rating = rating;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (joinedAt == null) {
@@ -89,6 +103,14 @@ public class MatchmakingEntry {
         this.joinedAt = joinedAt;
     }
 
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
+
     public boolean isActive() {
         return active;
     }
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class OnlineGameSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "online_game_sessions_seq")
+    @SequenceGenerator(name = "online_game_sessions_seq", sequenceName = "online_game_sessions_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -1,13 +1,18 @@
 package com.dame.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "player_stats")
 public class PlayerStats {
 
+    /** Rating of a player who has not played a rated game */
+    public static final int DEFAULT_RATING = 1500;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_stats_seq")
+    @SequenceGenerator(name = "player_stats_seq", sequenceName = "player_stats_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -32,6 +37,13 @@ public class PlayerStats {
     @Column(nullable = false)
     private int matchesPlayed = 0;
 
+    /**
+     * Elo skill rating, used for matchmaking and the leaderboard
+     */
+    @Column(nullable = false)
+    @ColumnDefault("1500")
+    private int rating = DEFAULT_RATING;
+
     public PlayerStats() {
     }
 
@@ -132,4 +144,12 @@ public class PlayerStats {
     public void setMatchesPlayed(int matchesPlayed) {
         this.matchesPlayed = matchesPlayed;
     }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public void setRating(int rating) {
+        this.rating = rating;
+    }
 }
@@ -50,6 +50,13 @@ public interface GameChallengeRepository extends JpaRepository<GameChallenge, Lo
             @Param("player1") Player player1,
             @Param("player2") Player player2);
 
+    /**
+     * Find the challenged players of pending challenges that {@link #expireChallenges} would expire.
+     */
+    @Query("SELECT DISTINCT c.challenged.id FROM GameChallenge c " +
+           "WHERE c.status = 'PENDING' AND c.expiresAt < :now")
+    List<Long> findChallengedIdsToExpire(@Param("now") LocalDateTime now);
+
     /**
      * Expire old pending challenges.
      */
@@ -0,0 +1,39 @@
+package com.dame.repository;
+
+import com.dame.entity.HeadToHead;
+import com.dame.entity.Player;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HeadToHeadRepository extends JpaRepository<HeadToHead, Long> {
+
+    @Query("SELECT h FROM HeadToHead h JOIN FETCH h.player1 JOIN FETCH h.player2 " +
+            "WHERE h.player1.id = :player1Id AND h.player2.id = :player2Id")
+    Optional<HeadToHead> findByPlayerIds(@Param("player1Id") Long player1Id, @Param("player2Id") Long player2Id);
+
+    /**
+     * Find the record of two players, given in either order.
+     */
+    default Optional<HeadToHead> findPair(Long playerId, Long otherId) {
+        return playerId < otherId
+                ? findByPlayerIds(playerId, otherId)
+                : findByPlayerIds(otherId, playerId);
+    }
+
+    /**
+     * A player's records, most recently played first. The IDs are a union so each
+     * side is read through its own index.
+     */
+    @Query("SELECT h FROM HeadToHead h JOIN FETCH h.player1 JOIN FETCH h.player2 " +
+            "WHERE h.id IN (SELECT r.id FROM HeadToHead r WHERE r.player1 = :player " +
+            "UNION ALL SELECT r.id FROM HeadToHead r WHERE r.player2 = :player) " +
+            "ORDER BY h.lastPlayedAt DESC")
+    List<HeadToHead> findByPlayer(@Param("player") Player player, Pageable pageable);
+}
@@ -1,31 +1,95 @@
 package com.dame.repository;
 
+import com.dame.entity.GameOutcome;
 import com.dame.entity.MatchResult;
 import com.dame.entity.Player;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MatchResultRepository extends JpaRepository<MatchResult, Long> {
 
-    @Query("SELECT m FROM MatchResult m WHERE m.winner = :player OR m.loser = :player ORDER BY m.playedAt DESC")
+    /**
+     * IDs of a player's results. A union rather than {@code winner OR loser}, so
+     * each side is read through its own index on every database.
+     */
+    String PLAYER_RESULT_IDS = "SELECT r.id FROM MatchResult r WHERE r.winner = :player " +
+            "UNION ALL SELECT r.id FROM MatchResult r WHERE r.loser = :player";
+
+    @Query("SELECT m FROM MatchResult m WHERE m.id IN (" + PLAYER_RESULT_IDS + ") ORDER BY m.playedAt DESC, m.id DESC")
     List<MatchResult> findByPlayer(@Param("player") Player player, Pageable pageable);
 
-    @Query("SELECT m FROM MatchResult m WHERE m.winner = :player OR m.loser = :player ORDER BY m.playedAt DESC")
-    List<MatchResult> findAllByPlayer(@Param("player") Player player);
+    /**
+     * First page of a player's history, newest first, with both players loaded.
+     */
+    @Query("SELECT m FROM MatchResult m LEFT JOIN FETCH m.winner LEFT JOIN FETCH m.loser " +
+            "WHERE m.id IN (" + PLAYER_RESULT_IDS + ") ORDER BY m.playedAt DESC, m.id DESC")
+    List<MatchResult> findPageByPlayer(@Param("player") Player player, Pageable pageable);
+
+    /**
+     * Next page of a player's history: results played before a given one
+     * (keyset pagination, so deep pages cost the same as the first).
+     */
+    @Query("SELECT m FROM MatchResult m LEFT JOIN FETCH m.winner LEFT JOIN FETCH m.loser " +
+            "WHERE m.id IN (" + PLAYER_RESULT_IDS + ") " +
+            "AND (m.playedAt < :playedAt OR (m.playedAt = :playedAt AND m.id < :id)) " +
+            "ORDER BY m.playedAt DESC, m.id DESC")
+    List<MatchResult> findPageByPlayerBefore(@Param("player") Player player,
+                                             @Param("playedAt") LocalDateTime playedAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
 
     List<MatchResult> findByWinnerOrderByPlayedAtDesc(Player winner);
 
     List<MatchResult> findByLoserOrderByPlayedAtDesc(Player loser);
 
-    @Query("SELECT COUNT(m) FROM MatchResult m WHERE m.winner = :player")
+    @Query("SELECT COUNT(m) FROM MatchResult m WHERE m.winner = :player AND m.outcome <> com.dame.entity.GameOutcome.DRAW")
     long countWinsByPlayer(@Param("player") Player player);
 
-    @Query("SELECT COUNT(m) FROM MatchResult m WHERE m.loser = :player")
+    @Query("SELECT COUNT(m) FROM MatchResult m WHERE m.loser = :player AND m.outcome <> com.dame.entity.GameOutcome.DRAW")
     long countLossesByPlayer(@Param("player") Player player);
+
+    /**
+     * All results with both players known, in the order they were played.
+     * The winner and loser columns are nullable; rows missing either are left
+     * out, so both IDs of every returned result are non-null.
+     * Must be consumed (and closed) inside a transaction; rows are fetched in chunks.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m.winner.id AS winnerId, m.loser.id AS loserId, m.outcome AS outcome, m.playedAt AS playedAt " +
+            "FROM MatchResult m WHERE m.winner IS NOT NULL AND m.loser IS NOT NULL ORDER BY m.playedAt, m.id")
+    Stream<RatedResult> streamRatedResults();
+
+    /**
+     * Results with both players known played since a given time, in the order they were played.
+     * Must be consumed (and closed) inside a transaction; rows are fetched in chunks.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT m.winner.id AS winnerId, m.loser.id AS loserId, m.outcome AS outcome, m.playedAt AS playedAt " +
+            "FROM MatchResult m WHERE m.winner IS NOT NULL AND m.loser IS NOT NULL AND m.playedAt >= :since " +
+            "ORDER BY m.playedAt, m.id")
+    Stream<RatedResult> streamRatedResultsSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Projection of a result for replay (for a draw, winner/loser are just the two players).
+     */
+    interface RatedResult {
+        Long getWinnerId();
+
+        Long getLoserId();
+
+        GameOutcome getOutcome();
+
+        LocalDateTime getPlayedAt();
+    }
 }
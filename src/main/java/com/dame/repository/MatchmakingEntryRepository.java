@@ -1,6 +1,7 @@
 package com.dame.repository;
 
 import com.dame.entity.MatchmakingEntry;
+import com.dame.entity.OnlineGameSession;
 import com.dame.entity.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -31,10 +32,14 @@ public interface MatchmakingEntryRepository extends JpaRepository<MatchmakingEnt
     List<MatchmakingEntry> findByActiveTrueOrderByJoinedAtAsc();
 
     /**
-     * Find first active entry that isn't the given player.
+     * Close a player's active entry as matched.
      */
-    @Query("SELECT e FROM MatchmakingEntry e WHERE e.active = true AND e.player <> :player ORDER BY e.joinedAt ASC")
-    List<MatchmakingEntry> findOtherActiveEntries(@Param("player") Player player);
+    @Modifying
+    @Query("UPDATE MatchmakingEntry e SET e.active = false, e.matchedSession = :session, e.matchedAt = :matchedAt " +
+           "WHERE e.player = :player AND e.active = true")
+    int markMatched(@Param("player") Player player,
+                    @Param("session") OnlineGameSession session,
+                    @Param("matchedAt") LocalDateTime matchedAt);
 
     /**
      * Deactivate old entries (cleanup).
@@ -1,5 +1,7 @@
 package com.dame.repository;
 
+import com.dame.dto.GameSessionState;
+import com.dame.engine.GameState;
 import com.dame.entity.OnlineGameSession;
 import com.dame.entity.OnlineGameStatus;
 import com.dame.entity.Player;
@@ -19,6 +21,17 @@ public interface OnlineGameSessionRepository extends JpaRepository<OnlineGameSes
      */
     Optional<OnlineGameSession> findBySessionCode(String sessionCode);
 
+    /**
+     * Read-only state of a session for display: two narrow joins for the
+     * usernames, no managed entities.
+     */
+    @Query("SELECT new com.dame.dto.GameSessionState(s.id, w.id, w.username, b.id, b.username, " +
+           "s.status, s.boardStateJson, s.currentTurn, s.gameState, s.multiJumpPositionJson, " +
+           "s.whiteWins, s.blackWins, s.gamesPlayed, s.rematchRequestedBy.id) " +
+           "FROM OnlineGameSession s LEFT JOIN s.whitePlayer w LEFT JOIN s.blackPlayer b " +
+           "WHERE s.id = :sessionId")
+    Optional<GameSessionState> findStateById(@Param("sessionId") Long sessionId);
+
     /**
      * Find all active sessions for a player (as white or black).
      */
@@ -30,21 +43,15 @@ public interface OnlineGameSessionRepository extends JpaRepository<OnlineGameSes
             @Param("statuses") List<OnlineGameStatus> statuses);
 
     /**
-     * Find all sessions a player is involved in.
-     */
-    @Query("SELECT s FROM OnlineGameSession s WHERE " +
-           "s.whitePlayer = :player OR s.blackPlayer = :player " +
-           "ORDER BY s.createdAt DESC")
-    List<OnlineGameSession> findByPlayer(@Param("player") Player player);
-
-    /**
-     * Find sessions available for spectating (in progress with both players).
+     * Find sessions available for spectating (in progress with both players,
+     * and a round being played rather than finished).
      */
     @Query("SELECT s FROM OnlineGameSession s WHERE " +
-           "s.status = :status " +
+           "s.status = :status AND s.gameState = :gameState " +
            "AND s.whitePlayer IS NOT NULL AND s.blackPlayer IS NOT NULL " +
            "ORDER BY s.lastMoveAt DESC")
-    List<OnlineGameSession> findSpectatable(@Param("status") OnlineGameStatus status);
+    List<OnlineGameSession> findSpectatable(@Param("status") OnlineGameStatus status,
+                                            @Param("gameState") GameState gameState);
 
     /**
      * Find sessions waiting for another player to join.
@@ -52,10 +59,11 @@ public interface OnlineGameSessionRepository extends JpaRepository<OnlineGameSes
     List<OnlineGameSession> findByStatusOrderByCreatedAtAsc(OnlineGameStatus status);
 
     /**
-     * Count active games for a player.
+     * Count a player's games with the given session status and round state.
      */
     @Query("SELECT COUNT(s) FROM OnlineGameSession s WHERE " +
            "(s.whitePlayer = :player OR s.blackPlayer = :player) " +
-           "AND s.status = :status")
-    long countByPlayerAndStatus(@Param("player") Player player, @Param("status") OnlineGameStatus status);
+           "AND s.status = :status AND s.gameState = :gameState")
+    long countByPlayerAndStatus(@Param("player") Player player, @Param("status") OnlineGameStatus status,
+                                @Param("gameState") GameState gameState);
 }
@@ -4,8 +4,10 @@ import com.dame.entity.Player;
 import com.dame.entity.PlayerStats;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +21,9 @@ public interface PlayerStatsRepository extends JpaRepository<PlayerStats, Long>
     @Query("SELECT ps FROM PlayerStats ps ORDER BY ps.totalWins DESC")
     List<PlayerStats> findTopByWins(int limit);
 
-    @Query("SELECT ps FROM PlayerStats ps WHERE ps.matchesPlayed > 0 ORDER BY ps.totalWins DESC")
-    List<PlayerStats> findAllOrderByWinsDesc();
+    @Query("SELECT ps FROM PlayerStats ps JOIN FETCH ps.player")
+    List<PlayerStats> findAllWithPlayer();
+
+    @Query("SELECT ps FROM PlayerStats ps JOIN FETCH ps.player WHERE ps.player.id IN :playerIds")
+    List<PlayerStats> findAllWithPlayerByPlayerIdIn(@Param("playerIds") Collection<Long> playerIds);
 }
@@ -1,6 +1,7 @@
 package com.dame.service;
 
 import com.dame.dto.LobbyUpdate;
+import com.dame.dto.SpectateGameDTO;
 import com.dame.entity.ChallengeStatus;
 import com.dame.entity.GameChallenge;
 import com.dame.entity.OnlineGameSession;
@@ -52,14 +53,14 @@ public class ChallengeService {
         challenge.setMessage(message);
         challenge = challengeRepository.save(challenge);
 
-        // Broadcast to lobby (specifically the challenged player will pick this up)
+        // Notify only the challenged player
         LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.CHALLENGE_RECEIVED)
                 .challengeId(challenge.getId())
                 .playerId(challenger.getId())
                 .playerUsername(challenger.getUsername())
                 .message(message != null ? message : challenger.getUsername() + " challenges you!")
                 .build();
-        lobbyBroadcaster.broadcast(update);
+        lobbyBroadcaster.sendToPlayer(challenged.getId(), update);
 
         return challenge;
     }
@@ -104,7 +105,7 @@ public class ChallengeService {
         challenge.setGameSession(session);
         challengeRepository.save(challenge);
 
-        // Broadcast game started
+        // Send the challenger into the game; the accepting player navigates itself
         LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.GAME_STARTED)
                 .sessionId(session.getId())
                 .sessionCode(session.getSessionCode())
@@ -112,7 +113,13 @@ public class ChallengeService {
                 .message(challenge.getChallenger().getUsername() + " vs " +
                         challenge.getChallenged().getUsername())
                 .build();
-        lobbyBroadcaster.broadcast(update);
+        lobbyBroadcaster.sendToPlayer(challenge.getChallenger().getId(), update);
+
+        // A new game is available to watch
+        lobbyBroadcaster.broadcast(LobbyUpdate.builder(LobbyUpdate.UpdateType.SPECTATABLE_GAMES_CHANGED)
+                .sessionId(session.getId())
+                .spectatableGames(List.of(SpectateGameDTO.fromSession(session, 0)))
+                .build());
 
         return session;
     }
@@ -150,7 +157,7 @@ public class ChallengeService {
                 .playerUsername(player.getUsername())
                 .message(player.getUsername() + " declined your challenge")
                 .build();
-        lobbyBroadcaster.broadcast(update);
+        lobbyBroadcaster.sendToPlayer(challenge.getChallenger().getId(), update);
     }
 
     /**
@@ -186,7 +193,7 @@ public class ChallengeService {
                 .playerUsername(player.getUsername())
                 .message(player.getUsername() + " cancelled their challenge")
                 .build();
-        lobbyBroadcaster.broadcast(update);
+        lobbyBroadcaster.sendToPlayer(challenge.getChallenged().getId(), update);
     }
 
     /**
@@ -211,13 +218,18 @@ public class ChallengeService {
     @Scheduled(fixedRate = 60000) // Every minute
     @Transactional
     public void expireChallenges() {
-        int expired = challengeRepository.expireChallenges(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> affectedPlayerIds = challengeRepository.findChallengedIdsToExpire(now);
+        int expired = challengeRepository.expireChallenges(now);
 
         if (expired > 0) {
+            // Only players holding an expired challenge need to refresh their list
             LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.CHALLENGE_EXPIRED)
                     .message(expired + " challenge(s) expired")
                     .build();
-            lobbyBroadcaster.broadcast(update);
+            for (Long playerId : affectedPlayerIds) {
+                lobbyBroadcaster.sendToPlayer(playerId, update);
+            }
         }
     }
 }
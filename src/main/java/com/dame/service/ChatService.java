@@ -12,7 +12,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Handles in-game chat functionality.
@@ -48,12 +47,12 @@ public class ChatService {
             content = content.substring(0, MAX_MESSAGE_LENGTH);
         }
 
-        Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
-        if (optSession.isEmpty()) {
+        if (!sessionRepository.existsById(sessionId)) {
             throw new IllegalArgumentException("Game session not found");
         }
 
-        OnlineGameSession session = optSession.get();
+        // The message only needs the session's ID, not the session and its players
+        OnlineGameSession session = sessionRepository.getReferenceById(sessionId);
 
         ChatMessage message = new ChatMessage(session, sender, content.trim());
         message = messageRepository.save(message);
@@ -70,12 +69,11 @@ public class ChatService {
      */
     @Transactional
     public ChatMessage sendSystemMessage(Long sessionId, Player sender, String content) {
-        Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
-        if (optSession.isEmpty()) {
+        if (!sessionRepository.existsById(sessionId)) {
             return null;
         }
 
-        OnlineGameSession session = optSession.get();
+        OnlineGameSession session = sessionRepository.getReferenceById(sessionId);
 
         ChatMessage message = ChatMessage.systemMessage(session, sender, content);
         message = messageRepository.save(message);
@@ -90,25 +88,15 @@ public class ChatService {
      * Get all messages for a session.
      */
     public List<ChatMessage> getMessages(Long sessionId) {
-        Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
-        if (optSession.isEmpty()) {
-            return List.of();
-        }
-
-        return messageRepository.findByGameSessionOrderByCreatedAtAsc(optSession.get());
+        return messageRepository.findByGameSessionIdOrderByCreatedAtAsc(sessionId);
     }
 
     /**
      * Get recent messages for a session.
      */
     public List<ChatMessage> getRecentMessages(Long sessionId, int limit) {
-        Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
-        if (optSession.isEmpty()) {
-            return List.of();
-        }
-
         return messageRepository.findRecentMessages(
-                optSession.get(),
+                sessionId,
                 PageRequest.of(0, Math.min(limit, RECENT_MESSAGES_LIMIT))
         );
     }
@@ -117,23 +105,13 @@ public class ChatService {
      * Get messages after a certain ID (for incremental loading).
      */
     public List<ChatMessage> getMessagesAfter(Long sessionId, Long lastMessageId) {
-        Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
-        if (optSession.isEmpty()) {
-            return List.of();
-        }
-
-        return messageRepository.findMessagesAfterId(optSession.get(), lastMessageId);
+        return messageRepository.findMessagesAfterId(sessionId, lastMessageId);
     }
 
     /**
      * Get message count for a session.
      */
     public long getMessageCount(Long sessionId) {
-        Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
-        if (optSession.isEmpty()) {
-            return 0;
-        }
-
-        return messageRepository.countByGameSession(optSession.get());
+        return messageRepository.countByGameSessionId(sessionId);
     }
 }
@@ -0,0 +1,52 @@
+package com.dame.service;
+
+/**
+ * Elo rating arithmetic, shared by the per-game update and the batch recompute
+ * in {@link PlayerStatsService} so both give identical ratings.
+ *
+ * <h2>Update Rule</h2>
+ * <pre>
+ *   expected = 1 / (1 + 10^((opponent - rating) / 400))
+ *   new      = rating + K × (score - expected)        score: win 1, draw ½, loss 0
+ *
+ *   1500 beats 1500 → +20 (provisional K 40)    1500 beats 1700 → +30
+ * </pre>
+ * K is 40 for a player's first {@value #PROVISIONAL_GAMES} games, so new players
+ * reach their level quickly, and 20 after that. Each side uses its own K, so a
+ * game between a new and an established player is not zero-sum.
+ */
+final class EloRating {
+
+    /** Games played before a player's rating counts as established */
+    static final int PROVISIONAL_GAMES = 30;
+
+    static final int PROVISIONAL_K = 40;
+
+    static final int ESTABLISHED_K = 20;
+
+    /** Ratings never drop below this */
+    static final int MIN_RATING = 100;
+
+    private EloRating() {
+    }
+
+    /**
+     * @return expected score (0..1) of a player against an opponent
+     */
+    static double expectedScore(int rating, int opponentRating) {
+        return 1.0 / (1.0 + Math.pow(10, (opponentRating - rating) / 400.0));
+    }
+
+    /**
+     * @param rating the player's rating before the game
+     * @param gamesPlayed games the player had played before this one
+     * @param opponentRating the opponent's rating before the game
+     * @param score 1 for a win, 0.5 for a draw, 0 for a loss
+     * @return the player's rating after the game
+     */
+    static int ratingAfter(int rating, int gamesPlayed, int opponentRating, double score) {
+        int k = gamesPlayed < PROVISIONAL_GAMES ? PROVISIONAL_K : ESTABLISHED_K;
+        long change = Math.round(k * (score - expectedScore(rating, opponentRating)));
+        return (int) Math.max(MIN_RATING, rating + change);
+    }
+}
@@ -0,0 +1,104 @@
+package com.dame.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for coarse deadlines on {@link System#nanoTime()}.
+ * Items are filed in the slot of their deadline's tick; advancing the wheel
+ * visits only the slots whose tick has passed, so expiry costs nothing for
+ * items that are not due.
+ *
+ * <h2>Lazy Deadlines</h2>
+ * A deadline that moves later (e.g. a presence heartbeat) does not touch the
+ * wheel. When the old slot comes due the visitor re-checks the item and
+ * {@link #schedule}s it again if it is still alive:
+ * <pre>
+ *   tick:   ... 41  42  43 ...  101
+ *   slot:        [A]              ← A filed at its original deadline
+ *   A heartbeats: only its timestamp changes
+ *   tick 42 → visitor sees A is not due → schedule(A, 101)
+ * </pre>
+ *
+ * <h2>Threading</h2>
+ * {@link #schedule} may be called from any thread; {@link #advance} must be
+ * called from a single thread at a time. An item scheduled concurrently with
+ * the advance of its slot is visited one rotation late.
+ *
+ * @param <T> the item type (compared by identity in practice)
+ */
+class ExpiryWheel<T> {
+
+    private final long tickNanos;
+    private final long origin;
+    private final Set<T>[] slots;
+
+    /** Last tick whose slot has been visited */
+    private volatile long processedTick;
+
+    /**
+     * @param tick slot granularity; items are visited up to one tick after their deadline
+     * @param horizon longest deadline expected; later ones are re-filed when their slot comes up
+     * @param nowNanos current {@link System#nanoTime()}
+     */
+    @SuppressWarnings("unchecked")
+    ExpiryWheel(Duration tick, Duration horizon, long nowNanos) {
+        this.tickNanos = tick.toNanos();
+        this.origin = nowNanos;
+        int slotCount = (int) (horizon.toNanos() / tickNanos) + 2;
+        this.slots = new Set[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * Files an item to be visited once its deadline has passed.
+     */
+    void schedule(T item, long deadlineNanos) {
+        long processed = processedTick;
+        long tick = Math.ceilDiv(deadlineNanos - origin, tickNanos);
+        // Never file into a slot already visited, and never more than one rotation ahead
+        tick = Math.max(tick, processed + 1);
+        tick = Math.min(tick, processed + slots.length - 1);
+        slots[slotIndex(tick)].add(item);
+    }
+
+    /**
+     * Visits and removes every item whose slot is due at {@code nowNanos}.
+     * The visitor may {@link #schedule} the item again.
+     */
+    void advance(long nowNanos, Consumer<T> visitor) {
+        long target = Math.floorDiv(nowNanos - origin, tickNanos);
+        // Behind by more than a rotation: every slot is visited once
+        long from = Math.max(processedTick + 1, target - slots.length + 1);
+
+        for (long tick = from; tick <= target; tick++) {
+            processedTick = tick;
+            Set<T> slot = slots[slotIndex(tick)];
+            for (Iterator<T> it = slot.iterator(); it.hasNext(); ) {
+                T item = it.next();
+                it.remove();
+                visitor.accept(item);
+            }
+        }
+    }
+
+    /**
+     * @return number of filed items (for debugging/monitoring)
+     */
+    int size() {
+        int size = 0;
+        for (Set<T> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private int slotIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+}
@@ -0,0 +1,28 @@
+package com.dame.service;
+
+import com.dame.entity.GameOutcome;
+
+import java.time.LocalDateTime;
+
+/**
+ * A finished game, waiting to be recorded by {@link GameResultRecorder}.
+ *
+ * @param winnerId the winner, or either player for a draw
+ * @param loserId the loser, or the other player for a draw
+ * @param outcome how the game ended
+ * @param winnerScore the winner's score
+ * @param loserScore the loser's score
+ * @param playedAt when the game ended
+ */
+public record GameResult(
+        Long winnerId,
+        Long loserId,
+        GameOutcome outcome,
+        int winnerScore,
+        int loserScore,
+        LocalDateTime playedAt
+) {
+    public boolean isDraw() {
+        return outcome == GameOutcome.DRAW;
+    }
+}
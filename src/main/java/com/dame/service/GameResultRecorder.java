@@ -0,0 +1,138 @@
+package com.dame.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records finished games off the game's own thread, in batches.
+ *
+ * <h2>Pipeline</h2>
+ * <pre>
+ *   game ends ──submit()──▶ [ queue ] ──worker──▶ PlayerStatsService.recordResults(batch)
+ *   (after commit)                       drains up to 200 results, one transaction
+ * </pre>
+ * <ul>
+ *   <li>Game end only enqueues the result, so a move that ends a game costs no
+ *       more than any other move</li>
+ *   <li>One worker (a virtual thread) takes everything queued, up to
+ *       {@value #MAX_BATCH} results, and records it in a single transaction: a
+ *       burst of game ends becomes a few large transactions instead of hundreds
+ *       of small ones. When idle, a single result is recorded at once</li>
+ *   <li>If a batch fails, its results are retried one by one, so one bad result
+ *       does not lose the others</li>
+ *   <li>Results still queued at shutdown are recorded before the worker stops</li>
+ * </ul>
+ *
+ * <h2>Metrics</h2>
+ * <ul>
+ *   <li>{@code dame.results.pending}: results waiting to be recorded</li>
+ *   <li>{@code dame.results.batch}: results per recorded batch</li>
+ *   <li>{@code dame.results.failed}: results that could not be recorded</li>
+ * </ul>
+ */
+@Service
+public class GameResultRecorder {
+
+    /** Most results recorded in one transaction */
+    static final int MAX_BATCH = 200;
+
+    /** How long shutdown waits for queued results to be recorded */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final PlayerStatsService statsService;
+    private final BlockingQueue<GameResult> pending = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSizes;
+    private final Counter failedResults;
+
+    private volatile boolean running = true;
+    private Thread worker;
+
+    public GameResultRecorder(PlayerStatsService statsService, MeterRegistry meterRegistry) {
+        this.statsService = statsService;
+        Gauge.builder("dame.results.pending", pending, BlockingQueue::size)
+                .description("Game results waiting to be recorded")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("dame.results.batch")
+                .description("Game results recorded per transaction")
+                .register(meterRegistry);
+        this.failedResults = Counter.builder("dame.results.failed")
+                .description("Game results that could not be recorded")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        worker = Thread.ofVirtual().name("game-result-recorder").start(this::drainLoop);
+    }
+
+    /**
+     * Queue a finished game for recording. Inside a transaction, the result is
+     * only queued once that transaction commits.
+     */
+    public void submit(GameResult result) {
+        TransactionCallbacks.afterCommit(() -> pending.offer(result));
+    }
+
+    /**
+     * Get count of results waiting to be recorded (for debugging/monitoring).
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(SHUTDOWN_TIMEOUT);
+    }
+
+    private void drainLoop() {
+        while (running || !pending.isEmpty()) {
+            GameResult first;
+            try {
+                first = pending.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+
+            // Whatever queued up while the last batch was being written goes in this one
+            List<GameResult> batch = new ArrayList<>();
+            batch.add(first);
+            pending.drainTo(batch, MAX_BATCH - 1);
+            record(batch);
+        }
+    }
+
+    private void record(List<GameResult> batch) {
+        try {
+            statsService.recordResults(batch);
+            batchSizes.record(batch.size());
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                failedResults.increment();
+                System.err.println("Error recording game result: " + e.getMessage());
+                return;
+            }
+            // The batch rolled back; find the bad result by recording one at a time
+            for (GameResult result : batch) {
+                record(List.of(result));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.dame.service;
+
+import com.dame.dto.HeadToHeadDTO;
+import com.dame.entity.GameOutcome;
+import com.dame.entity.HeadToHead;
+import com.dame.entity.Player;
+import com.dame.repository.HeadToHeadRepository;
+import com.dame.repository.MatchResultRepository;
+import com.dame.repository.MatchResultRepository.RatedResult;
+import com.dame.repository.PlayerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Head-to-head records between pairs of players.
+ *
+ * <h2>Pair Aggregate</h2>
+ * <ul>
+ *   <li>One {@link HeadToHead} row per pair, keyed by (lower ID, higher ID):
+ *       looking up two players' record is a single unique-key read, however
+ *       many games either has played</li>
+ *   <li>Updated with each batch of results recorded by {@link PlayerStatsService},
+ *       in the same transaction; each pair in the batch is read and written once</li>
+ *   <li>{@link #backfill()} rebuilds every row by streaming the match history;
+ *       it runs at startup when the table is empty but results exist</li>
+ * </ul>
+ */
+@Service
+public class HeadToHeadService {
+
+    private final HeadToHeadRepository headToHeadRepository;
+    private final MatchResultRepository matchResultRepository;
+    private final PlayerRepository playerRepository;
+
+    public HeadToHeadService(HeadToHeadRepository headToHeadRepository,
+                             MatchResultRepository matchResultRepository,
+                             PlayerRepository playerRepository) {
+        this.headToHeadRepository = headToHeadRepository;
+        this.matchResultRepository = matchResultRepository;
+        this.playerRepository = playerRepository;
+    }
+
+    /**
+     * Add a batch of games to the players' records, in order. Each pair is
+     * looked up once and saved once, so several games of a new pair in one
+     * batch add up in a single new row instead of each inserting its own.
+     */
+    @Transactional
+    public void recordResults(List<GameResult> results) {
+        Map<PairKey, HeadToHead> records = new HashMap<>();
+        for (GameResult result : results) {
+            Long winnerId = result.winnerId();
+            Long loserId = result.loserId();
+            HeadToHead record = records.computeIfAbsent(PairKey.of(winnerId, loserId), key ->
+                    headToHeadRepository.findPair(winnerId, loserId).orElseGet(() -> new HeadToHead(
+                            playerRepository.getReferenceById(winnerId),
+                            playerRepository.getReferenceById(loserId))));
+            record.recordResult(result.isDraw() ? null : winnerId, result.playedAt());
+        }
+        headToHeadRepository.saveAll(records.values());
+    }
+
+    /**
+     * Get a player's record against one opponent.
+     *
+     * @return the record from the player's side, or empty if they have never played
+     */
+    @Transactional(readOnly = true)
+    public Optional<HeadToHeadDTO> getRecord(Long playerId, Long opponentId) {
+        return headToHeadRepository.findPair(playerId, opponentId)
+                .map(record -> HeadToHeadDTO.fromRecord(record, playerId));
+    }
+
+    /**
+     * Get a player's records against their most recent opponents.
+     */
+    @Transactional(readOnly = true)
+    public List<HeadToHeadDTO> getRecentOpponents(Player player, int limit) {
+        return headToHeadRepository.findByPlayer(player, PageRequest.of(0, limit)).stream()
+                .map(record -> HeadToHeadDTO.fromRecord(record, player.getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Fill the table from existing history the first time it is deployed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (headToHeadRepository.count() == 0 && matchResultRepository.count() > 0) {
+            backfill();
+        }
+    }
+
+    /**
+     * Rebuild every pair's record from the match history. Results are
+     * streamed, so memory grows with the number of pairs, not games.
+     *
+     * @return number of pairs
+     */
+    @Transactional
+    public int backfill() {
+        Map<PairKey, HeadToHead> records = new HashMap<>();
+
+        try (Stream<RatedResult> results = matchResultRepository.streamRatedResults()) {
+            results.forEach(result -> {
+                // Never null: the query skips results missing either player
+                Long winnerId = result.getWinnerId();
+                Long loserId = result.getLoserId();
+                HeadToHead record = records.computeIfAbsent(PairKey.of(winnerId, loserId), key -> new HeadToHead(
+                        playerRepository.getReferenceById(winnerId),
+                        playerRepository.getReferenceById(loserId)));
+                record.recordResult(result.getOutcome() == GameOutcome.DRAW ? null : winnerId, result.getPlayedAt());
+            });
+        }
+
+        headToHeadRepository.deleteAllInBatch();
+        headToHeadRepository.saveAll(records.values());
+        return records.size();
+    }
+
+    private record PairKey(long low, long high) {
+        static PairKey of(long playerId, long otherId) {
+            return new PairKey(Math.min(playerId, otherId), Math.max(playerId, otherId));
+        }
+    }
+}
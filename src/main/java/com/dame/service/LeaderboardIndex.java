@@ -0,0 +1,272 @@
+package com.dame.service;
+
+import com.dame.entity.PlayerStats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory ranking of every player who has played a game, kept in leaderboard
+ * order (by default rating desc, wins desc, player ID) so rank lookups and pages
+ * need no database access.
+ *
+ * <h2>Order-Statistic Treap</h2>
+ * A binary search tree balanced by random priorities, where each node also
+ * stores the size of its subtree:
+ * <pre>
+ *              [1600|size 5]
+ *             /             \
+ *    [1700|size 2]      [1500|size 2]
+ *        /                      \
+ *   [1800|size 1]          [1400|size 1]
+ *
+ *   rank of 1500: left of root (2) + root (1) + left of 1500 (0) + 1 = 4
+ * </pre>
+ * <ul>
+ *   <li>{@link #rankOf}: descend to the player, adding up the sizes of the
+ *       subtrees passed on the left: O(log n)</li>
+ *   <li>{@link #page}: skip {@code offset} players using the sizes, then walk
+ *       in order: O(log n + k)</li>
+ *   <li>{@link #put}: remove the player's old entry and insert the new one: O(log n)</li>
+ * </ul>
+ * All methods synchronize on the index.
+ */
+class LeaderboardIndex {
+
+    static final Comparator<RankedPlayer> LEADERBOARD_ORDER = Comparator
+            .comparingInt(RankedPlayer::rating).reversed()
+            .thenComparing(Comparator.comparingInt(RankedPlayer::wins).reversed())
+            .thenComparingLong(RankedPlayer::playerId);
+
+    /** Ranking by results alone (time-windowed leaderboards): wins desc, draws desc, losses asc */
+    static final Comparator<RankedPlayer> RESULTS_ORDER = Comparator
+            .comparingInt(RankedPlayer::wins).reversed()
+            .thenComparing(Comparator.comparingInt(RankedPlayer::draws).reversed())
+            .thenComparingInt(RankedPlayer::losses)
+            .thenComparingLong(RankedPlayer::playerId);
+
+    /**
+     * Immutable copy of the stats shown on the leaderboard.
+     */
+    record RankedPlayer(
+            long playerId,
+            String username,
+            int rating,
+            int wins,
+            int losses,
+            int draws,
+            double winRate,
+            int currentStreak,
+            int bestStreak,
+            int matchesPlayed
+    ) {
+        static RankedPlayer from(PlayerStats stats) {
+            return new RankedPlayer(
+                    stats.getPlayer().getId(),
+                    stats.getPlayer().getUsername(),
+                    stats.getRating(),
+                    stats.getTotalWins(),
+                    stats.getTotalLosses(),
+                    stats.getTotalDraws(),
+                    stats.getWinRate(),
+                    stats.getCurrentWinStreak(),
+                    stats.getBestWinStreak(),
+                    stats.getMatchesPlayed());
+        }
+
+        boolean isRanked() {
+            return matchesPlayed > 0;
+        }
+    }
+
+    private static final class Node {
+        final RankedPlayer value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(RankedPlayer value) {
+            this.value = value;
+        }
+    }
+
+    /** Total order over entries; must end with the player ID so entries never tie */
+    private final Comparator<RankedPlayer> order;
+
+    private Node root;
+
+    /** Current entry of each ranked player, guarded by {@code this} */
+    private final Map<Long, RankedPlayer> byPlayer = new HashMap<>();
+
+    LeaderboardIndex() {
+        this(LEADERBOARD_ORDER);
+    }
+
+    LeaderboardIndex(Comparator<RankedPlayer> order) {
+        this.order = order;
+    }
+
+    /**
+     * Add or replace a player's entry. Players with no games are removed.
+     */
+    synchronized void put(RankedPlayer player) {
+        RankedPlayer old = byPlayer.remove(player.playerId());
+        if (old != null) {
+            root = delete(root, old, order);
+        }
+        if (player.isRanked()) {
+            byPlayer.put(player.playerId(), player);
+            Node[] parts = split(root, player, order);
+            root = merge(merge(parts[0], new Node(player)), parts[1]);
+        }
+    }
+
+    /**
+     * Replace the whole index.
+     */
+    synchronized void replaceAll(Collection<RankedPlayer> players) {
+        root = null;
+        byPlayer.clear();
+        players.forEach(this::put);
+    }
+
+    /**
+     * @return 1-based rank of the player, or -1 if unranked
+     */
+    synchronized int rankOf(Long playerId) {
+        RankedPlayer player = byPlayer.get(playerId);
+        if (player == null) {
+            return -1;
+        }
+
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = order.compare(player, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left);
+                if (cmp == 0) {
+                    return before + 1;
+                }
+                before++;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the player's current entry, or null if unranked
+     */
+    synchronized RankedPlayer get(Long playerId) {
+        return byPlayer.get(playerId);
+    }
+
+    /**
+     * @param offset number of top players to skip
+     * @param limit maximum number of players to return
+     * @return players in leaderboard order
+     */
+    synchronized List<RankedPlayer> page(int offset, int limit) {
+        List<RankedPlayer> page = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - offset)));
+        collect(root, offset, limit, page);
+        return page;
+    }
+
+    synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * In-order walk of a subtree, starting at its {@code offset}-th player.
+     */
+    private static void collect(Node node, int offset, int limit, List<RankedPlayer> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, out);
+        }
+        if (offset <= leftSize && out.size() < limit) {
+            out.add(node.value);
+        }
+        if (out.size() < limit) {
+            collect(node.right, Math.max(0, offset - leftSize - 1), limit, out);
+        }
+    }
+
+    /**
+     * Splits a subtree into players ordered before {@code key} and the rest.
+     */
+    private static Node[] split(Node node, RankedPlayer key, Comparator<RankedPlayer> order) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (order.compare(node.value, key) < 0) {
+            Node[] parts = split(node.right, key, order);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        } else {
+            Node[] parts = split(node.left, key, order);
+            node.left = parts[1];
+            update(node);
+            return new Node[]{parts[0], node};
+        }
+    }
+
+    /**
+     * Joins two subtrees where every player in {@code left} is ordered before {@code right}.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+
+    private static Node delete(Node node, RankedPlayer key, Comparator<RankedPlayer> order) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = order.compare(key, node.value);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, key, order);
+        } else {
+            node.right = delete(node.right, key, order);
+        }
+        update(node);
+        return node;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -1,69 +1,238 @@
 package com.dame.service;
 
+import com.dame.entity.GameOutcome;
 import com.dame.entity.MatchResult;
 import com.dame.entity.Player;
 import com.dame.entity.PlayerStats;
 import com.dame.repository.MatchResultRepository;
+import com.dame.repository.MatchResultRepository.RatedResult;
 import com.dame.repository.PlayerStatsRepository;
+import com.dame.service.LeaderboardIndex.RankedPlayer;
+import com.dame.service.RollingLeaderboards.Label;
+import com.dame.service.RollingLeaderboards.Tally;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+/**
+ * Player rankings: all-time by rating (ties broken by wins), and over the
+ * last day, week and month by results ({@link Window}).
+ *
+ * <h2>Ranked Index</h2>
+ * <ul>
+ *   <li>Rankings are served from an in-memory {@link LeaderboardIndex}: a rank
+ *       lookup is O(log n) and a top-N page O(log n + N), with no queries</li>
+ *   <li>Built from the database once at startup ({@link #rebuildIndex()})</li>
+ *   <li>Kept current by {@link PlayerStatsService}, which reports every stats
+ *       change; changes are applied once their transaction commits</li>
+ *   <li>Windowed rankings are kept in {@link RollingLeaderboards} (per-day buckets
+ *       rolled forward as days pass), rebuilt at startup from the last month of
+ *       results and fed each new result</li>
+ * </ul>
+ */
 @Service
 public class LeaderboardService {
 
+    private static final Tally WIN = new Tally(1, 0, 0);
+    private static final Tally LOSS = new Tally(0, 1, 0);
+    private static final Tally DRAW = new Tally(0, 0, 1);
+
     private final PlayerStatsRepository statsRepository;
     private final MatchResultRepository matchResultRepository;
 
+    private final LeaderboardIndex index = new LeaderboardIndex();
+    private final RollingLeaderboards rolling = new RollingLeaderboards(LocalDate.now());
+
+    /**
+     * Period a leaderboard covers.
+     */
+    public enum Window {
+        ALL_TIME(0, "All Time"),
+        DAY(1, "Today"),
+        WEEK(7, "This Week"),
+        MONTH(30, "This Month");
+
+        private final int days;
+        private final String label;
+
+        Window(int days, String label) {
+            this.days = days;
+            this.label = label;
+        }
+
+        /**
+         * @return number of days covered, ending today (0 for all time)
+         */
+        public int getDays() {
+            return days;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
     public LeaderboardService(PlayerStatsRepository statsRepository,
                               MatchResultRepository matchResultRepository) {
         this.statsRepository = statsRepository;
         this.matchResultRepository = matchResultRepository;
     }
 
+    /**
+     * Load every player's stats into the ranked index, and the last month of
+     * results into the windowed rankings.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        index.replaceAll(statsRepository.findAllWithPlayer().stream()
+                .map(RankedPlayer::from)
+                .collect(Collectors.toList()));
+
+        LocalDateTime since = LocalDate.now().minusDays(Window.MONTH.getDays() - 1).atStartOfDay();
+        try (Stream<RatedResult> results = matchResultRepository.streamRatedResultsSince(since)) {
+            results.forEach(result -> {
+                LocalDate day = result.getPlayedAt().toLocalDate();
+                boolean draw = result.getOutcome() == GameOutcome.DRAW;
+                recordWindowed(day, index.get(result.getWinnerId()), draw ? DRAW : WIN);
+                recordWindowed(day, index.get(result.getLoserId()), draw ? DRAW : LOSS);
+            });
+        }
+    }
+
     public List<LeaderboardEntry> getTopPlayers(int limit) {
-        List<PlayerStats> topStats = statsRepository.findAllOrderByWinsDesc();
-
-        return IntStream.range(0, Math.min(limit, topStats.size()))
-                .mapToObj(i -> {
-                    PlayerStats stats = topStats.get(i);
-                    return new LeaderboardEntry(
-                            i + 1, // rank
-                            stats.getPlayer().getUsername(),
-                            stats.getTotalWins(),
-                            stats.getTotalLosses(),
-                            stats.getTotalDraws(),
-                            stats.getWinRate(),
-                            stats.getCurrentWinStreak(),
-                            stats.getBestWinStreak(),
-                            stats.getMatchesPlayed()
-                    );
-                })
+        return getPlayers(0, limit);
+    }
+
+    /**
+     * Get a page of the rankings.
+     *
+     * @param offset number of top players to skip
+     * @param limit maximum number of players to return
+     */
+    public List<LeaderboardEntry> getPlayers(int offset, int limit) {
+        return getPlayers(Window.ALL_TIME, offset, limit);
+    }
+
+    /**
+     * Get a page of the rankings for a period.
+     *
+     * @param offset number of top players to skip
+     * @param limit maximum number of players to return
+     */
+    public List<LeaderboardEntry> getPlayers(Window window, int offset, int limit) {
+        List<RankedPlayer> page = window == Window.ALL_TIME
+                ? index.page(offset, limit)
+                : rolling.page(window, LocalDate.now(), offset, limit);
+
+        return IntStream.range(0, page.size())
+                .mapToObj(i -> LeaderboardEntry.of(offset + i + 1, page.get(i)))
                 .collect(Collectors.toList());
     }
 
     public int getPlayerRank(Player player) {
-        List<PlayerStats> allStats = statsRepository.findAllOrderByWinsDesc();
+        return index.rankOf(player.getId()); // -1 if not found in rankings
+    }
 
-        for (int i = 0; i < allStats.size(); i++) {
-            if (allStats.get(i).getPlayer().getId().equals(player.getId())) {
-                return i + 1;
-            }
+    public int getPlayerRank(Player player, Window window) {
+        if (window == Window.ALL_TIME) {
+            return getPlayerRank(player);
         }
+        return rolling.rankOf(window, LocalDate.now(), player.getId());
+    }
 
-        return -1; // Player not found in rankings
+    /**
+     * Get count of ranked players (those who have played a game).
+     */
+    public int getRankedCount() {
+        return index.size();
+    }
+
+    /**
+     * Get count of players who played in a period.
+     */
+    public int getRankedCount(Window window) {
+        if (window == Window.ALL_TIME) {
+            return getRankedCount();
+        }
+        return rolling.size(window, LocalDate.now());
     }
 
     public List<MatchResult> getRecentMatches(Player player, int limit) {
         return matchResultRepository.findByPlayer(player, PageRequest.of(0, limit));
     }
 
+    /**
+     * Get a page of a player's match history, newest first.
+     *
+     * @param after the last result of the previous page, or null for the first page
+     * @param limit maximum number of results to return
+     */
+    public List<MatchResult> getMatchHistory(Player player, MatchResult after, int limit) {
+        if (after == null) {
+            return matchResultRepository.findPageByPlayer(player, PageRequest.of(0, limit));
+        }
+        return matchResultRepository.findPageByPlayerBefore(
+                player, after.getPlayedAt(), after.getId(), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Re-rank a player whose stats changed.
+     */
+    void statsChanged(PlayerStats stats) {
+        RankedPlayer player = RankedPlayer.from(stats);
+        TransactionCallbacks.afterCommit(() -> index.put(player));
+    }
+
+    /**
+     * Add a game to the windowed rankings (call with both players' updated stats).
+     *
+     * @param first the winner, or either player for a draw
+     * @param second the loser, or the other player for a draw
+     * @param playedAt when the game was played; it counts on that day, even if
+     *                 it is recorded after midnight
+     */
+    void resultRecorded(PlayerStats first, PlayerStats second, GameOutcome outcome, LocalDateTime playedAt) {
+        RankedPlayer firstPlayer = RankedPlayer.from(first);
+        RankedPlayer secondPlayer = RankedPlayer.from(second);
+        boolean draw = outcome == GameOutcome.DRAW;
+        LocalDate day = playedAt.toLocalDate();
+        TransactionCallbacks.afterCommit(() -> {
+            recordWindowed(day, firstPlayer, draw ? DRAW : WIN);
+            recordWindowed(day, secondPlayer, draw ? DRAW : LOSS);
+        });
+    }
+
+    private void recordWindowed(LocalDate day, RankedPlayer player, Tally result) {
+        if (player != null) {
+            rolling.record(day, player.playerId(), new Label(player.username(), player.rating()), result);
+        }
+    }
+
+    /**
+     * Replace the rankings after every player's stats changed.
+     */
+    void allStatsChanged(Collection<PlayerStats> allStats) {
+        List<RankedPlayer> players = allStats.stream()
+                .map(RankedPlayer::from)
+                .collect(Collectors.toList());
+        TransactionCallbacks.afterCommit(() -> index.replaceAll(players));
+    }
+
     public record LeaderboardEntry(
             int rank,
             String username,
+            int rating,
             int wins,
             int losses,
             int draws,
@@ -72,5 +241,19 @@ public class LeaderboardService {
             int bestStreak,
             int matchesPlayed
     ) {
+        static LeaderboardEntry of(int rank, RankedPlayer player) {
+            return new LeaderboardEntry(
+                    rank,
+                    player.username(),
+                    player.rating(),
+                    player.wins(),
+                    player.losses(),
+                    player.draws(),
+                    player.winRate(),
+                    player.currentStreak(),
+                    player.bestStreak(),
+                    player.matchesPlayed()
+            );
+        }
     }
 }
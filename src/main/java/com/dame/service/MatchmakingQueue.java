@@ -0,0 +1,325 @@
+package com.dame.service;
+
+import com.dame.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * In-memory matchmaking queue: the source of truth for who is waiting.
+ * Database entries only mirror it so the queue can be rebuilt after a restart.
+ *
+ * <h2>Rating Windows</h2>
+ * Each waiting player accepts opponents within a rating window that widens
+ * the longer they wait:
+ * <pre>
+ *   window = min(100 + 10 × seconds waited, 800)
+ *
+ *   0s → ±100     30s → ±400     70s+ → ±800
+ * </pre>
+ * Two players are compatible when their rating gap fits <b>both</b> windows.
+ *
+ * <h2>Pairing</h2>
+ * <ul>
+ *   <li>{@link #joinOrMatch}: a joiner is paired at once with the closest-rated
+ *       compatible player, found by walking outward from the joiner's rating</li>
+ *   <li>{@link #pairAll}: a periodic batch pass over all waiting players in
+ *       rating order. Windows have widened since they joined, so new pairs may
+ *       now be possible</li>
+ * </ul>
+ * Windows differ, so the best partner is not always a neighbour: a player
+ * who just joined can sit between two who accept each other. The batch pass
+ * lets each player pair with any of the next {@link #LOOK_AHEAD} players in
+ * rating order, and picks by dynamic programming the set of pairs with the
+ * most matches and then the smallest total rating gap:
+ * <pre>
+ *   ratings: 1200  1260  1300  1900          (all windows ±100)
+ *   pairs:   (1200,1260) gap 60  or  (1260,1300) gap 40 → take the latter
+ *
+ *   ratings: 1000 (±800)  1150 (±100)  1500 (±800)
+ *   pairs:   (1000,1500) gap 500, across the player who just joined
+ * </pre>
+ * Pairs further apart than the look-ahead wait for a later pass, once the
+ * players between them have paired or widened their windows.
+ *
+ * <h2>Under the Hood</h2>
+ * <ul>
+ *   <li>Players are kept in a tree ordered by (rating, join time, player ID)
+ *       plus a map by player ID: join, leave and neighbour lookup are O(log n)</li>
+ *   <li>The batch pass is one O(n · 2^{@link #LOOK_AHEAD}) sweep over the
+ *       tree: a few thousand waiting players take about a millisecond</li>
+ *   <li>All methods synchronize on the queue, so two players joining at once
+ *       pair with each other rather than both waiting</li>
+ * </ul>
+ */
+class MatchmakingQueue {
+
+    /** Rating gap accepted by a player who just joined */
+    static final int INITIAL_WINDOW = 100;
+
+    /** Window growth per second waited */
+    static final int WIDENING_PER_SECOND = 10;
+
+    /** Widest window, reached after 70 seconds */
+    static final int MAX_WINDOW = 800;
+
+    /** How many of the next players in rating order the batch pass considers as partners */
+    static final int LOOK_AHEAD = 4;
+
+    private static final Comparator<QueuedPlayer> BY_RATING = Comparator
+            .comparingInt(QueuedPlayer::rating)
+            .thenComparingLong(QueuedPlayer::joinedAtNanos)
+            .thenComparingLong(QueuedPlayer::playerId);
+
+    /** Waiting players in rating order, guarded by {@code this} */
+    private final NavigableSet<QueuedPlayer> byRating = new TreeSet<>(BY_RATING);
+
+    /** Waiting players by player ID, guarded by {@code this} */
+    private final Map<Long, QueuedPlayer> byPlayer = new HashMap<>();
+
+    /**
+     * Outcome of {@link #joinOrMatch}.
+     *
+     * @param opponent the waiting player taken from the queue, or null if the joiner now waits
+     * @param alreadyQueued true if the joiner was already waiting (nothing changed)
+     */
+    record JoinResult(QueuedPlayer opponent, boolean alreadyQueued) {
+        boolean matched() {
+            return opponent != null;
+        }
+    }
+
+    /**
+     * A waiting player.
+     *
+     * @param player the player
+     * @param rating the player's rating when they joined
+     * @param joinedAtNanos {@link System#nanoTime()} when they joined
+     */
+    record QueuedPlayer(Player player, int rating, long joinedAtNanos) {
+        long playerId() {
+            return player.getId();
+        }
+
+        /**
+         * @return the rating gap this player accepts at the given time
+         */
+        int window(long nowNanos) {
+            long waitedSeconds = Math.max(0, (nowNanos - joinedAtNanos) / 1_000_000_000L);
+            return (int) Math.min(MAX_WINDOW, INITIAL_WINDOW + WIDENING_PER_SECOND * waitedSeconds);
+        }
+    }
+
+    /**
+     * Two players taken from the queue to play each other.
+     *
+     * @param first the player who waited longer
+     * @param second the other player
+     */
+    record Pairing(QueuedPlayer first, QueuedPlayer second) {
+    }
+
+    /**
+     * Pairs the joiner with the closest-rated compatible player, or queues them
+     * if nobody compatible waits.
+     */
+    synchronized JoinResult joinOrMatch(QueuedPlayer joiner, long nowNanos) {
+        if (byPlayer.containsKey(joiner.playerId())) {
+            return new JoinResult(null, true);
+        }
+
+        QueuedPlayer opponent = closestCompatible(joiner, nowNanos);
+        if (opponent != null) {
+            removeWaiting(opponent);
+            return new JoinResult(opponent, false);
+        }
+
+        addWaiting(joiner);
+        return new JoinResult(null, false);
+    }
+
+    /**
+     * Batch pass: removes and returns the largest set of compatible pairs, each
+     * at most {@link #LOOK_AHEAD} places apart in rating order, with the
+     * smallest total rating gap.
+     */
+    synchronized List<Pairing> pairAll(long nowNanos) {
+        int n = byRating.size();
+        if (n < 2) {
+            return List.of();
+        }
+
+        QueuedPlayer[] sorted = byRating.toArray(new QueuedPlayer[0]);
+        int[] window = new int[n];
+        for (int i = 0; i < n; i++) {
+            window[i] = sorted[i].window(nowNanos);
+        }
+
+        // State (i, taken): players i.. remain, bit k of taken set if player i+k
+        // already pairs with someone before i. Filled from the end of the queue.
+        int states = 1 << LOOK_AHEAD;
+        int[] pairs = new int[(n + 1) * states];
+        int[] gap = new int[(n + 1) * states];
+        // 0: player i waits (or is taken), k > 0: player i pairs with player i+k
+        byte[] partner = new byte[n * states];
+        int[] gapTo = new int[LOOK_AHEAD + 1];
+
+        for (int i = n - 1; i >= 0; i--) {
+            // Gap to each player ahead, or -1 if the two are not compatible
+            for (int k = 1; k <= LOOK_AHEAD; k++) {
+                gapTo[k] = -1;
+                if (i + k < n) {
+                    int pairGap = sorted[i + k].rating() - sorted[i].rating();
+                    if (pairGap <= window[i] && pairGap <= window[i + k]) {
+                        gapTo[k] = pairGap;
+                    }
+                }
+            }
+
+            for (int taken = 0; taken < states; taken++) {
+                int state = i * states + taken;
+                int next = (i + 1) * states + (taken >> 1);
+                pairs[state] = pairs[next];
+                gap[state] = gap[next];
+                if ((taken & 1) != 0) {
+                    continue;
+                }
+
+                for (int k = 1; k <= LOOK_AHEAD; k++) {
+                    if (gapTo[k] < 0 || (taken & (1 << k)) != 0) {
+                        continue;
+                    }
+                    int with = (i + 1) * states + ((taken | (1 << k)) >> 1);
+                    int withPairs = pairs[with] + 1;
+                    int withGap = gap[with] + gapTo[k];
+                    if (withPairs > pairs[state] || (withPairs == pairs[state] && withGap < gap[state])) {
+                        pairs[state] = withPairs;
+                        gap[state] = withGap;
+                        partner[state] = (byte) k;
+                    }
+                }
+            }
+        }
+
+        List<Pairing> result = new ArrayList<>(pairs[0]);
+        boolean[] paired = new boolean[n];
+        int taken = 0;
+        for (int i = 0; i < n; i++) {
+            int k = (taken & 1) == 0 ? partner[i * states + taken] : 0;
+            if (k > 0) {
+                QueuedPlayer a = sorted[i];
+                QueuedPlayer b = sorted[i + k];
+                paired[i] = true;
+                paired[i + k] = true;
+                result.add(a.joinedAtNanos() <= b.joinedAtNanos() ? new Pairing(a, b) : new Pairing(b, a));
+                taken |= 1 << k;
+            }
+            taken >>= 1;
+        }
+
+        // Remove in one ordered sweep (iterator removal needs no tree search)
+        Iterator<QueuedPlayer> it = byRating.iterator();
+        for (int i = 0; i < n; i++) {
+            QueuedPlayer player = it.next();
+            if (paired[i]) {
+                it.remove();
+                byPlayer.remove(player.playerId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Re-adds a player (e.g. after recovery, or when a match could not be created).
+     */
+    synchronized void requeue(QueuedPlayer player) {
+        if (!byPlayer.containsKey(player.playerId())) {
+            addWaiting(player);
+        }
+    }
+
+    synchronized Optional<QueuedPlayer> remove(Long playerId) {
+        QueuedPlayer player = byPlayer.get(playerId);
+        if (player != null) {
+            removeWaiting(player);
+        }
+        return Optional.ofNullable(player);
+    }
+
+    synchronized boolean contains(Long playerId) {
+        return byPlayer.containsKey(playerId);
+    }
+
+    synchronized int size() {
+        return byPlayer.size();
+    }
+
+    /**
+     * Removes players who joined before a cutoff.
+     *
+     * @return the removed players
+     */
+    synchronized List<QueuedPlayer> removeJoinedBefore(long cutoffNanos) {
+        List<QueuedPlayer> removed = new ArrayList<>();
+        for (Iterator<QueuedPlayer> it = byRating.iterator(); it.hasNext(); ) {
+            QueuedPlayer player = it.next();
+            if (player.joinedAtNanos() - cutoffNanos < 0) {
+                it.remove();
+                byPlayer.remove(player.playerId());
+                removed.add(player);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Walks outward from the joiner's rating on both sides, stopping once the
+     * gap exceeds the joiner's window or the best candidate found so far.
+     */
+    private QueuedPlayer closestCompatible(QueuedPlayer joiner, long nowNanos) {
+        int window = joiner.window(nowNanos);
+        QueuedPlayer best = null;
+        int bestGap = Integer.MAX_VALUE;
+
+        for (QueuedPlayer candidate : byRating.tailSet(joiner, false)) {
+            int gap = candidate.rating() - joiner.rating();
+            if (gap > window) {
+                break;
+            }
+            if (gap <= candidate.window(nowNanos)) {
+                best = candidate;
+                bestGap = gap;
+                break;
+            }
+        }
+
+        for (QueuedPlayer candidate : byRating.headSet(joiner, false).descendingSet()) {
+            int gap = joiner.rating() - candidate.rating();
+            if (gap > window || gap >= bestGap) {
+                break;
+            }
+            if (gap <= candidate.window(nowNanos)) {
+                return candidate;
+            }
+        }
+
+        return best;
+    }
+
+    private void addWaiting(QueuedPlayer player) {
+        byPlayer.put(player.playerId(), player);
+        byRating.add(player);
+    }
+
+    private void removeWaiting(QueuedPlayer player) {
+        byPlayer.remove(player.playerId());
+        byRating.remove(player);
+    }
+}
@@ -1,35 +1,107 @@
 package com.dame.service;
 
 import com.dame.dto.LobbyUpdate;
+import com.dame.dto.SpectateGameDTO;
 import com.dame.entity.MatchmakingEntry;
 import com.dame.entity.OnlineGameSession;
 import com.dame.entity.Player;
+import com.dame.entity.PlayerStats;
 import com.dame.repository.MatchmakingEntryRepository;
+import com.dame.repository.PlayerStatsRepository;
+import com.dame.service.MatchmakingQueue.JoinResult;
+import com.dame.service.MatchmakingQueue.Pairing;
+import com.dame.service.MatchmakingQueue.QueuedPlayer;
 import com.dame.service.broadcast.LobbyBroadcaster;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles auto-matchmaking queue for players seeking random opponents.
+ *
+ * <h2>Event-Driven Pairing</h2>
+ * <ul>
+ *   <li>The queue lives in memory ({@link MatchmakingQueue}); a joining player is
+ *       paired the moment a compatible opponent is waiting, no polling</li>
+ *   <li>Compatibility is by rating: each player's acceptable rating gap widens
+ *       with wait time, and {@link #pairWaitingPlayers()} runs a batch pairing
+ *       pass every second to pick up pairs that became possible</li>
+ *   <li>Both players are told directly (MATCHMAKING_FOUND to each); the joiner
+ *       also gets the session as the return value, while a player who was
+ *       waiting can pick it up later through {@link #checkForMatch}</li>
+ *   <li>{@link MatchmakingEntry} rows are written only so the queue can be
+ *       rebuilt after a restart ({@link #recoverQueue()})</li>
+ * </ul>
+ *
+ * <h2>Transactions</h2>
+ * The queue is changed while the transaction runs, so two players joining at
+ * once still see each other. Each change registers its undo, run if the
+ * transaction rolls back; presence flags and pending matches are only
+ * published once it commits.
  */
 @Service
 public class MatchmakingService {
 
+    /**
+     * How long a player may wait before being dropped from the queue.
+     */
+    private static final Duration MAX_WAIT = Duration.ofMinutes(30);
+
+    /**
+     * How long a match stays claimable through {@link #checkForMatch}.
+     */
+    private static final Duration MATCH_CLAIM_WINDOW = Duration.ofMinutes(1);
+
     private final MatchmakingEntryRepository entryRepository;
+    private final PlayerStatsRepository statsRepository;
     private final OnlineGameService gameService;
     private final LobbyBroadcaster lobbyBroadcaster;
+    private final OnlinePresenceService presenceService;
+
+    private final MatchmakingQueue queue = new MatchmakingQueue();
+
+    /**
+     * Matches not yet picked up by the player, by player ID.
+     */
+    private final Map<Long, PendingMatch> pendingMatches = new ConcurrentHashMap<>();
+
+    private record PendingMatch(Long sessionId, long matchedAtNanos) {
+    }
 
     public MatchmakingService(MatchmakingEntryRepository entryRepository,
+                              PlayerStatsRepository statsRepository,
                               OnlineGameService gameService,
-                              LobbyBroadcaster lobbyBroadcaster) {
+                              LobbyBroadcaster lobbyBroadcaster,
+                              OnlinePresenceService presenceService) {
         this.entryRepository = entryRepository;
+        this.statsRepository = statsRepository;
         this.gameService = gameService;
         this.lobbyBroadcaster = lobbyBroadcaster;
+        this.presenceService = presenceService;
+    }
+
+    /**
+     * Rebuild the in-memory queue from entries still active in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void recoverQueue() {
+        long now = System.nanoTime();
+        LocalDateTime wallNow = LocalDateTime.now();
+        for (MatchmakingEntry entry : entryRepository.findByActiveTrueOrderByJoinedAtAsc()) {
+            // Keep the original wait time so stale entries still expire on schedule
+            long waitedNanos = Duration.between(entry.getJoinedAt(), wallNow).toNanos();
+            queue.requeue(new QueuedPlayer(entry.getPlayer(), entry.getRating(), now - Math.max(0, waitedNanos)));
+        }
     }
 
     /**
@@ -38,23 +110,31 @@ public class MatchmakingService {
      */
     @Transactional
     public Optional<OnlineGameSession> joinQueue(Player player) {
-        // Check if already in queue
-        if (entryRepository.existsByPlayerAndActiveTrue(player)) {
+        int rating = statsRepository.findByPlayer(player)
+                .map(PlayerStats::getRating)
+                .orElse(PlayerStats.DEFAULT_RATING);
+        long now = System.nanoTime();
+        JoinResult result = queue.joinOrMatch(new QueuedPlayer(player, rating, now), now);
+
+        if (result.alreadyQueued()) {
             return Optional.empty();
         }
 
-        // Try to find a match immediately
-        List<MatchmakingEntry> otherEntries = entryRepository.findOtherActiveEntries(player);
-
-        if (!otherEntries.isEmpty()) {
-            // Match found! Create game
-            MatchmakingEntry opponent = otherEntries.get(0);
-            return Optional.of(createMatch(player, opponent.getPlayer(), opponent));
+        if (result.matched()) {
+            QueuedPlayer opponent = result.opponent();
+            // Don't lose the waiting player's place if the game is not created
+            TransactionCallbacks.onRollback(() -> queue.requeue(opponent));
+            // Opponent waited longer, so they take white; only they need to claim the match
+            OnlineGameSession session = createMatch(opponent.player(), player, List.of(opponent.player()));
+            publishQueueChanged();
+            return Optional.of(session);
         }
 
-        // No match found, join queue
-        MatchmakingEntry entry = new MatchmakingEntry(player);
+        // No match found, persist the entry for recovery
+        TransactionCallbacks.onRollback(() -> queue.remove(player.getId()));
+        MatchmakingEntry entry = new MatchmakingEntry(player, rating);
         entryRepository.save(entry);
+        TransactionCallbacks.afterCommit(() -> presenceService.setInQueue(player.getId(), true));
 
         // Broadcast that player is searching
         LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.MATCHMAKING_STARTED)
@@ -71,94 +151,147 @@ public class MatchmakingService {
      */
     @Transactional
     public void leaveQueue(Player player) {
-        Optional<MatchmakingEntry> entry = entryRepository.findByPlayerAndActiveTrue(player);
+        Optional<QueuedPlayer> removed = queue.remove(player.getId());
+        if (removed.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.onRollback(() -> queue.requeue(removed.get()));
 
-        if (entry.isPresent()) {
-            entry.get().setActive(false);
-            entryRepository.save(entry.get());
+        entryRepository.findByPlayerAndActiveTrue(player).ifPresent(entry -> {
+            entry.setActive(false);
+            entryRepository.save(entry);
+        });
+        TransactionCallbacks.afterCommit(() -> presenceService.setInQueue(player.getId(), false));
 
-            LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.MATCHMAKING_CANCELLED)
-                    .playerId(player.getId())
-                    .playerUsername(player.getUsername())
-                    .build();
-            lobbyBroadcaster.broadcast(update);
-        }
+        LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.MATCHMAKING_CANCELLED)
+                .playerId(player.getId())
+                .playerUsername(player.getUsername())
+                .build();
+        lobbyBroadcaster.broadcast(update);
     }
 
     /**
      * Check if a player is in the queue.
      */
     public boolean isInQueue(Player player) {
-        return entryRepository.existsByPlayerAndActiveTrue(player);
+        return queue.contains(player.getId());
     }
 
     /**
      * Get current queue size.
      */
     public long getQueueSize() {
-        return entryRepository.countByActiveTrue();
+        return queue.size();
     }
 
     /**
-     * Get a player's queue entry if it has been matched.
+     * Get the session of a recent match the player has not picked up yet
+     * (e.g. matched while their lobby view was detached).
      */
-    @Transactional
     public Optional<OnlineGameSession> checkForMatch(Player player) {
-        Optional<MatchmakingEntry> entry = entryRepository.findByPlayerAndActiveTrue(player);
+        PendingMatch match = pendingMatches.remove(player.getId());
+        if (match == null || System.nanoTime() - match.matchedAtNanos() > MATCH_CLAIM_WINDOW.toNanos()) {
+            return Optional.empty();
+        }
+        return gameService.findById(match.sessionId());
+    }
 
-        if (entry.isPresent() && entry.get().getMatchedSession() != null) {
-            return Optional.of(entry.get().getMatchedSession());
+    /**
+     * Batch pairing pass: windows widen while players wait, so players who
+     * could not be paired on joining may be compatible now.
+     */
+    @Scheduled(fixedRate = 1000) // Every second
+    @Transactional
+    public void pairWaitingPlayers() {
+        if (queue.size() < 2) {
+            return;
         }
 
-        return Optional.empty();
+        List<Pairing> pairings = queue.pairAll(System.nanoTime());
+        // The whole pass rolls back together, so every pair goes back into the queue
+        TransactionCallbacks.onRollback(() -> {
+            for (Pairing pairing : pairings) {
+                queue.requeue(pairing.first());
+                queue.requeue(pairing.second());
+            }
+        });
+
+        for (Pairing pairing : pairings) {
+            // Longer wait takes white; both were waiting, so either may claim the match
+            Player white = pairing.first().player();
+            Player black = pairing.second().player();
+            createMatch(white, black, List.of(white, black));
+        }
+        if (!pairings.isEmpty()) {
+            publishQueueChanged();
+        }
     }
 
     /**
-     * Periodic task to match players and cleanup stale entries.
+     * Periodic cleanup of players who waited too long and of unclaimed matches.
      */
-    @Scheduled(fixedRate = 5000) // Every 5 seconds
+    @Scheduled(fixedRate = 60000) // Every minute
     @Transactional
-    public void processQueue() {
-        List<MatchmakingEntry> activeEntries = entryRepository.findByActiveTrueOrderByJoinedAtAsc();
-
-        // Match pairs of players
-        while (activeEntries.size() >= 2) {
-            MatchmakingEntry player1Entry = activeEntries.remove(0);
-            MatchmakingEntry player2Entry = activeEntries.remove(0);
+    public void expireStaleEntries() {
+        long now = System.nanoTime();
 
-            createMatch(player1Entry.getPlayer(), player2Entry.getPlayer(),
-                    player1Entry, player2Entry);
+        List<QueuedPlayer> stale = queue.removeJoinedBefore(now - MAX_WAIT.toNanos());
+        TransactionCallbacks.onRollback(() -> stale.forEach(queue::requeue));
+        TransactionCallbacks.afterCommit(() ->
+                stale.forEach(player -> presenceService.setInQueue(player.playerId(), false)));
+        entryRepository.deactivateOldEntries(LocalDateTime.now().minus(MAX_WAIT));
+        if (!stale.isEmpty()) {
+            publishQueueChanged();
         }
 
-        // Cleanup entries older than 30 minutes
-        entryRepository.deactivateOldEntries(LocalDateTime.now().minusMinutes(30));
+        pendingMatches.values().removeIf(match ->
+                now - match.matchedAtNanos() > MATCH_CLAIM_WINDOW.toNanos());
     }
 
-    private OnlineGameSession createMatch(Player player1, Player player2,
-                                         MatchmakingEntry... entries) {
-        // Randomly assign colors (or based on who joined first)
-        Player white = player1;
-        Player black = player2;
-
+    /**
+     * @param waiting the matched players who were waiting in the queue; they
+     *                may have missed the notification and claim the match later
+     */
+    private OnlineGameSession createMatch(Player white, Player black, List<Player> waiting) {
         OnlineGameSession session = gameService.createSession(white, black);
 
-        // Update entries
+        // Close the persisted entries (only the waiting player normally has one)
         LocalDateTime now = LocalDateTime.now();
-        for (MatchmakingEntry entry : entries) {
-            entry.setActive(false);
-            entry.setMatchedSession(session);
-            entry.setMatchedAt(now);
-            entryRepository.save(entry);
+        for (Player player : List.of(white, black)) {
+            entryRepository.markMatched(player, session, now);
         }
 
-        // Broadcast match found
+        Long sessionId = session.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            for (Player player : List.of(white, black)) {
+                presenceService.setInQueue(player.getId(), false);
+            }
+            for (Player player : waiting) {
+                pendingMatches.put(player.getId(), new PendingMatch(sessionId, System.nanoTime()));
+            }
+        });
+
+        // Tell both players directly; everyone else only sees a new game to watch
         LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.MATCHMAKING_FOUND)
                 .sessionId(session.getId())
                 .sessionCode(session.getSessionCode())
                 .message(white.getUsername() + " vs " + black.getUsername())
                 .build();
-        lobbyBroadcaster.broadcast(update);
+        lobbyBroadcaster.sendToPlayer(white.getId(), update);
+        lobbyBroadcaster.sendToPlayer(black.getId(), update);
+
+        lobbyBroadcaster.broadcast(LobbyUpdate.builder(LobbyUpdate.UpdateType.SPECTATABLE_GAMES_CHANGED)
+                .sessionId(session.getId())
+                .spectatableGames(List.of(SpectateGameDTO.fromSession(session, 0)))
+                .build());
 
         return session;
     }
+
+    /**
+     * Tell searching players the queue shrank without anyone cancelling.
+     */
+    private void publishQueueChanged() {
+        lobbyBroadcaster.broadcast(LobbyUpdate.builder(LobbyUpdate.UpdateType.MATCHMAKING_QUEUE_CHANGED).build());
+    }
 }
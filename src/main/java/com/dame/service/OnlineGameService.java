@@ -1,19 +1,26 @@
 package com.dame.service;
 
+import com.dame.dto.GameSessionState;
 import com.dame.dto.GameUpdate;
+import com.dame.dto.LobbyUpdate;
 import com.dame.dto.MoveDTO;
 import com.dame.dto.MoveResult;
+import com.dame.dto.OnlineGameSnapshot;
+import com.dame.dto.SpectateGameDTO;
 import com.dame.engine.*;
+import com.dame.entity.GameOutcome;
 import com.dame.entity.OnlineGameSession;
 import com.dame.entity.OnlineGameStatus;
 import com.dame.entity.Player;
 import com.dame.repository.OnlineGameSessionRepository;
 import com.dame.service.broadcast.GameSessionBroadcaster;
+import com.dame.service.broadcast.LobbyBroadcaster;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,11 +32,20 @@ public class OnlineGameService {
 
     private final OnlineGameSessionRepository sessionRepository;
     private final GameSessionBroadcaster broadcaster;
+    private final LobbyBroadcaster lobbyBroadcaster;
+    private final OnlinePresenceService presenceService;
+    private final GameResultRecorder resultRecorder;
 
     public OnlineGameService(OnlineGameSessionRepository sessionRepository,
-            GameSessionBroadcaster broadcaster) {
+            GameSessionBroadcaster broadcaster,
+            LobbyBroadcaster lobbyBroadcaster,
+            OnlinePresenceService presenceService,
+            GameResultRecorder resultRecorder) {
         this.sessionRepository = sessionRepository;
         this.broadcaster = broadcaster;
+        this.lobbyBroadcaster = lobbyBroadcaster;
+        this.presenceService = presenceService;
+        this.resultRecorder = resultRecorder;
     }
 
     /**
@@ -50,7 +66,9 @@ public class OnlineGameService {
         board.setupInitialPosition();
         session.setBoardStateJson(BoardStateSerializer.serialize(board));
 
-        return sessionRepository.save(session);
+        OnlineGameSession saved = sessionRepository.save(session);
+        setPlayersInGame(saved, true);
+        return saved;
     }
 
     /**
@@ -60,6 +78,30 @@ public class OnlineGameService {
         return sessionRepository.findById(sessionId);
     }
 
+    /**
+     * Current state of a session for display, without loading the entity.
+     */
+    public Optional<GameSessionState> getState(Long sessionId) {
+        return sessionRepository.findStateById(sessionId);
+    }
+
+    /**
+     * Current state of a session with its position and legal moves, for a view
+     * opening the game. Watched sessions are served from the snapshot last
+     * broadcast to their viewers; otherwise it is loaded once and kept for them.
+     */
+    public Optional<OnlineGameSnapshot> getSnapshot(Long sessionId) {
+        Optional<OnlineGameSnapshot> latest = broadcaster.getLatestSnapshot(sessionId);
+        if (latest.isPresent()) {
+            return latest;
+        }
+
+        Optional<OnlineGameSnapshot> loaded = getState(sessionId)
+                .map(state -> OnlineGameSnapshot.of(state, reconstructGame(state)));
+        loaded.ifPresent(snapshot -> broadcaster.cacheSnapshot(sessionId, snapshot));
+        return loaded;
+    }
+
     /**
      * Find session by code.
      */
@@ -103,16 +145,20 @@ public class OnlineGameService {
             return MoveResult.failure("Game is not in progress");
         }
 
-        // Reconstruct game state
-        GameLogic game = reconstructGame(session);
+        // Start from the position last broadcast if it is still the row's;
+        // parse the stored board only if it is not
+        GameLogic game = broadcaster.getLatestSnapshot(sessionId)
+                .filter(latest -> isCurrent(latest, session))
+                .map(OnlineGameService::restoreGame)
+                .orElseGet(() -> reconstructGame(session));
 
         // Apply the move
         Move move = moveDto.toMove();
-        boolean turnEnded = game.applyMove(move);
-
-        if (!turnEnded && !game.isInMultiJump()) {
+        MoveOutcome outcome = game.makeMove(move);
+        if (outcome == MoveOutcome.REJECTED) {
             return MoveResult.failure("Invalid move");
         }
+        boolean turnEnded = outcome == MoveOutcome.TURN_ENDED;
 
         // Update session state
         session.setBoardStateJson(BoardStateSerializer.serialize(game.getBoard()));
@@ -126,11 +172,14 @@ public class OnlineGameService {
 
         // Check if game ended
         if (game.isGameOver()) {
-            handleGameEnd(session, game.getGameState());
+            handleGameEnd(session, game.getGameState(), false);
         }
 
         sessionRepository.save(session);
 
+        // One snapshot for the mover and every viewer
+        OnlineGameSnapshot snapshot = snapshotOf(session, game);
+
         // Broadcast update
         GameUpdate update = GameUpdate.builder(GameUpdate.UpdateType.MOVE_MADE, sessionId)
                 .boardStateJson(session.getBoardStateJson())
@@ -142,28 +191,31 @@ public class OnlineGameService {
                 .blackWins(session.getBlackWins())
                 .gamesPlayed(session.getGamesPlayed())
                 .lastMove(moveDto)
+                .snapshot(snapshot)
                 .build();
 
         broadcaster.broadcast(sessionId, update);
 
-        return MoveResult.success(turnEnded, game.getGameState(), session.getMultiJumpPositionJson());
+        return MoveResult.success(turnEnded, snapshot);
     }
 
     /**
      * Player forfeits the current round.
+     *
+     * @return the game after the forfeit, or empty if it was not allowed
      */
     @Transactional
-    public void forfeitRound(Long sessionId, Player player) {
+    public Optional<OnlineGameSnapshot> forfeitRound(Long sessionId, Player player) {
         Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
         if (optSession.isEmpty()) {
-            return;
+            return Optional.empty();
         }
 
         OnlineGameSession session = optSession.get();
         com.dame.engine.Player playerColor = session.getPlayerColor(player);
 
         if (playerColor == null || session.getStatus() != OnlineGameStatus.IN_PROGRESS) {
-            return;
+            return Optional.empty();
         }
 
         // Opponent wins this round
@@ -171,10 +223,12 @@ public class OnlineGameService {
                 ? GameState.BLACK_WINS
                 : GameState.WHITE_WINS;
 
-        handleGameEnd(session, result);
+        handleGameEnd(session, result, true);
         session.setGameState(result);
         sessionRepository.save(session);
 
+        OnlineGameSnapshot snapshot = snapshotOf(session, reconstructGame(session));
+
         // Broadcast update
         GameUpdate update = GameUpdate.builder(GameUpdate.UpdateType.PLAYER_FORFEITED, sessionId)
                 .gameState(result)
@@ -183,27 +237,31 @@ public class OnlineGameService {
                 .blackWins(session.getBlackWins())
                 .gamesPlayed(session.getGamesPlayed())
                 .message(player.getUsername() + " forfeited")
+                .snapshot(snapshot)
                 .build();
 
         broadcaster.broadcast(sessionId, update);
+
+        return Optional.of(snapshot);
     }
 
     /**
      * Start a new round in the same session.
+     *
+     * @return the game at the start of the new round, or empty if the session was not found
      */
     @Transactional
-    public void startNewRound(Long sessionId) {
+    public Optional<OnlineGameSnapshot> startNewRound(Long sessionId) {
         Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
         if (optSession.isEmpty()) {
-            return;
+            return Optional.empty();
         }
 
         OnlineGameSession session = optSession.get();
 
         // Reset board
-        Board board = new Board();
-        board.setupInitialPosition();
-        session.setBoardStateJson(BoardStateSerializer.serialize(board));
+        GameLogic game = new GameLogic();
+        session.setBoardStateJson(BoardStateSerializer.serialize(game.getBoard()));
         session.setCurrentTurn("WHITE");
         session.setGameState(GameState.IN_PROGRESS);
         session.setMultiJumpPositionJson(null);
@@ -211,6 +269,8 @@ public class OnlineGameService {
 
         sessionRepository.save(session);
 
+        OnlineGameSnapshot snapshot = snapshotOf(session, game);
+
         // Broadcast update
         GameUpdate update = GameUpdate.builder(GameUpdate.UpdateType.NEW_ROUND, sessionId)
                 .boardStateJson(session.getBoardStateJson())
@@ -221,9 +281,17 @@ public class OnlineGameService {
                 .blackWins(session.getBlackWins())
                 .gamesPlayed(session.getGamesPlayed())
                 .message("New round started")
+                .snapshot(snapshot)
                 .build();
 
         broadcaster.broadcast(sessionId, update);
+
+        setPlayersInGame(session, true);
+
+        // Watchable again until this round ends
+        publishSpectatable(session);
+
+        return Optional.of(snapshot);
     }
 
     /**
@@ -266,25 +334,63 @@ public class OnlineGameService {
      * Get games available for spectating.
      */
     public List<OnlineGameSession> getSpectatableGames() {
-        return sessionRepository.findSpectatable(OnlineGameStatus.IN_PROGRESS);
+        return sessionRepository.findSpectatable(OnlineGameStatus.IN_PROGRESS, GameState.IN_PROGRESS);
+    }
+
+    /**
+     * Reconstruct GameLogic from a session's read model.
+     */
+    public GameLogic reconstructGame(GameSessionState state) {
+        return restoreGame(state.getBoardStateJson(), state.getCurrentTurn(),
+                state.getGameState(), state.getMultiJumpPositionJson());
     }
 
     /**
-     * Reconstruct GameLogic from session state.
+     * Snapshot of a session that was just changed, built from the game already in memory.
      */
-    public GameLogic reconstructGame(OnlineGameSession session) {
+    private static OnlineGameSnapshot snapshotOf(OnlineGameSession session, GameLogic game) {
+        return OnlineGameSnapshot.of(GameSessionState.fromSession(session), game);
+    }
+
+    /**
+     * Whether a snapshot shows the position stored in the row: it was built
+     * from this version of the row if its stored board, turn, round state and
+     * multi-jump square are all unchanged.
+     */
+    private static boolean isCurrent(OnlineGameSnapshot snapshot, OnlineGameSession session) {
+        GameSessionState state = snapshot.getSession();
+        return Objects.equals(state.getBoardStateJson(), session.getBoardStateJson())
+                && Objects.equals(state.getCurrentTurn(), session.getCurrentTurn())
+                && state.getGameState() == session.getGameState()
+                && Objects.equals(state.getMultiJumpPositionJson(), session.getMultiJumpPositionJson());
+    }
+
+    private static GameLogic restoreGame(OnlineGameSnapshot snapshot) {
+        GameLogic game = new GameLogic();
+        game.restoreState(snapshot.getBoard().toBoard(), snapshot.getCurrentPlayer(),
+                snapshot.getGameState(), snapshot.getMultiJumpPosition());
+        return game;
+    }
+
+    private GameLogic reconstructGame(OnlineGameSession session) {
+        return restoreGame(session.getBoardStateJson(), session.getCurrentTurn(),
+                session.getGameState(), session.getMultiJumpPositionJson());
+    }
+
+    private static GameLogic restoreGame(String boardStateJson, String currentTurn,
+                                         GameState gameState, String multiJumpPositionJson) {
         GameLogic game = new GameLogic();
 
-        Board board = BoardStateSerializer.deserialize(session.getBoardStateJson());
-        com.dame.engine.Player currentPlayer = com.dame.engine.Player.valueOf(session.getCurrentTurn());
-        Position multiJumpPos = BoardStateSerializer.deserializePosition(session.getMultiJumpPositionJson());
+        Board board = BoardStateSerializer.deserialize(boardStateJson);
+        com.dame.engine.Player currentPlayer = com.dame.engine.Player.valueOf(currentTurn);
+        Position multiJumpPos = BoardStateSerializer.deserializePosition(multiJumpPositionJson);
 
-        game.restoreState(board, currentPlayer, session.getGameState(), multiJumpPos);
+        game.restoreState(board, currentPlayer, gameState, multiJumpPos);
 
         return game;
     }
 
-    private void handleGameEnd(OnlineGameSession session, GameState result) {
+    private void handleGameEnd(OnlineGameSession session, GameState result, boolean forfeit) {
         session.setGamesPlayed(session.getGamesPlayed() + 1);
 
         if (result == GameState.WHITE_WINS) {
@@ -293,8 +399,63 @@ public class OnlineGameService {
             session.setBlackWins(session.getBlackWins() + 1);
         }
 
+        // Stats are recorded in the background once this transaction commits
+        resultRecorder.submit(toGameResult(session, result, forfeit));
+
         // Keep session in progress for rematch capability
         // Only set to COMPLETED if player explicitly leaves
+
+        // Nothing to watch until a new round starts
+        setPlayersInGame(session, false);
+        publishSpectatableRemoved(session);
+    }
+
+    /**
+     * Show both players as playing a round or not, once the change is committed.
+     */
+    private void setPlayersInGame(OnlineGameSession session, boolean inGame) {
+        Long whiteId = session.getWhitePlayer().getId();
+        Long blackId = session.getBlackPlayer().getId();
+        TransactionCallbacks.afterCommit(() -> {
+            presenceService.setInGame(whiteId, inGame);
+            presenceService.setInGame(blackId, inGame);
+        });
+    }
+
+    /**
+     * Lobby clients keep the watch list locally; send them the game's current entry.
+     */
+    private void publishSpectatable(OnlineGameSession session) {
+        lobbyBroadcaster.broadcast(LobbyUpdate.builder(LobbyUpdate.UpdateType.SPECTATABLE_GAMES_CHANGED)
+                .sessionId(session.getId())
+                .spectatableGames(List.of(SpectateGameDTO.fromSession(session, 0)))
+                .build());
+    }
+
+    /**
+     * Tell lobby clients to drop the game from their watch list.
+     */
+    private void publishSpectatableRemoved(OnlineGameSession session) {
+        lobbyBroadcaster.broadcast(LobbyUpdate.builder(LobbyUpdate.UpdateType.SPECTATABLE_GAME_REMOVED)
+                .sessionId(session.getId())
+                .build());
+    }
+
+    /**
+     * Build the result of a finished round. Scores are the session's round
+     * wins after this round, from the winner's side.
+     */
+    private static GameResult toGameResult(OnlineGameSession session, GameState result, boolean forfeit) {
+        boolean blackWon = result == GameState.BLACK_WINS;
+        Player winner = blackWon ? session.getBlackPlayer() : session.getWhitePlayer();
+        Player loser = blackWon ? session.getWhitePlayer() : session.getBlackPlayer();
+        int winnerScore = blackWon ? session.getBlackWins() : session.getWhiteWins();
+        int loserScore = blackWon ? session.getWhiteWins() : session.getBlackWins();
+
+        GameOutcome outcome = result == GameState.DRAW ? GameOutcome.DRAW
+                : forfeit ? GameOutcome.FORFEIT
+                : GameOutcome.WIN;
+        return new GameResult(winner.getId(), loser.getId(), outcome, winnerScore, loserScore, LocalDateTime.now());
     }
 
     /**
@@ -339,6 +500,7 @@ public class OnlineGameService {
         // Broadcast to opponent
         GameUpdate update = GameUpdate.builder(GameUpdate.UpdateType.REMATCH_REQUESTED, sessionId)
                 .message(player.getUsername() + " wants a rematch!")
+                .snapshot(snapshotOf(session, game))
                 .build();
 
         broadcaster.broadcast(sessionId, update);
@@ -346,29 +508,31 @@ public class OnlineGameService {
 
     /**
      * Accept a pending rematch request.
+     *
+     * @return the game at the start of the new round, or empty if there was nothing to accept
      */
     @Transactional
-    public void acceptRematch(Long sessionId, Player player) {
+    public Optional<OnlineGameSnapshot> acceptRematch(Long sessionId, Player player) {
         Optional<OnlineGameSession> optSession = sessionRepository.findById(sessionId);
         if (optSession.isEmpty()) {
-            return;
+            return Optional.empty();
         }
 
         OnlineGameSession session = optSession.get();
 
         // Validate player is part of this game
         if (!session.hasPlayer(player)) {
-            return;
+            return Optional.empty();
         }
 
         // Check there's a pending request from the opponent
         if (!session.hasPendingRematchRequest()) {
-            return;
+            return Optional.empty();
         }
 
         // Can't accept your own request
         if (session.getRematchRequestedBy().getId().equals(player.getId())) {
-            return;
+            return Optional.empty();
         }
 
         // Clear the rematch request and start new round
@@ -376,7 +540,7 @@ public class OnlineGameService {
         sessionRepository.save(session);
 
         // Delegate to existing startNewRound logic
-        startNewRound(sessionId);
+        return startNewRound(sessionId);
     }
 
     /**
@@ -413,6 +577,7 @@ public class OnlineGameService {
         // Broadcast decline
         GameUpdate update = GameUpdate.builder(GameUpdate.UpdateType.REMATCH_DECLINED, sessionId)
                 .message(player.getUsername() + " declined the rematch")
+                .snapshot(snapshotOf(session, reconstructGame(session)))
                 .build();
 
         broadcaster.broadcast(sessionId, update);
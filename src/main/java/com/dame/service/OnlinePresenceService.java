@@ -2,60 +2,105 @@ package com.dame.service;
 
 import com.dame.dto.LobbyUpdate;
 import com.dame.dto.OnlinePlayerDTO;
+import com.dame.engine.GameState;
 import com.dame.entity.OnlineGameStatus;
 import com.dame.entity.Player;
+import com.dame.entity.PlayerStats;
 import com.dame.repository.MatchmakingEntryRepository;
 import com.dame.repository.OnlineGameSessionRepository;
+import com.dame.repository.PlayerStatsRepository;
 import com.dame.service.broadcast.LobbyBroadcaster;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * Tracks which players are currently online in the lobby.
  * Uses in-memory storage since presence is transient.
+ *
+ * <h2>Presence Index</h2>
+ * Each online player's list entry (in game, in queue, wins/losses) is kept
+ * ready-made in memory:
+ * <ul>
+ *   <li>Loaded from the database once, when the player comes online</li>
+ *   <li>Kept current by the services that change it: rounds starting
+ *       and ending ({@link #setInGame}), matchmaking ({@link #setInQueue}) and
+ *       stats recording ({@link #updateRecord})</li>
+ *   <li>Each change is published as a PLAYER_STATUS_CHANGED delta</li>
+ * </ul>
+ * Building the online players list is therefore a scan of this map with no queries.
+ *
+ * <h2>Expiry</h2>
+ * <ul>
+ *   <li>Activity is an atomic {@link System#nanoTime()} stamp; a heartbeat only updates it</li>
+ *   <li>Presences are filed in an {@link ExpiryWheel} by deadline; a sweep every
+ *       second visits only the due slot and broadcasts PLAYER_OFFLINE for players
+ *       who really timed out</li>
+ *   <li>Reads never clean up: the map only holds live players, so counts and
+ *       lookups are O(1)</li>
+ * </ul>
  */
 @Service
 public class OnlinePresenceService {
 
     /**
-     * Map of player ID to last activity timestamp.
+     * Map of player ID to presence (list entry and last activity).
      */
     private final Map<Long, PlayerPresence> onlinePlayers = new ConcurrentHashMap<>();
 
+    /**
+     * Presences by deadline, visited by {@link #expireStalePresence()}.
+     */
+    private final ExpiryWheel<PlayerPresence> expiryWheel =
+            new ExpiryWheel<>(Duration.ofSeconds(1), TIMEOUT, System.nanoTime());
+
     private final LobbyBroadcaster lobbyBroadcaster;
     private final OnlineGameSessionRepository sessionRepository;
     private final MatchmakingEntryRepository matchmakingRepository;
+    private final PlayerStatsRepository statsRepository;
 
     /**
      * How long before a player is considered offline (no heartbeat).
      */
-    private static final long TIMEOUT_SECONDS = 60;
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
 
     public OnlinePresenceService(LobbyBroadcaster lobbyBroadcaster,
                                  OnlineGameSessionRepository sessionRepository,
-                                 MatchmakingEntryRepository matchmakingRepository) {
+                                 MatchmakingEntryRepository matchmakingRepository,
+                                 PlayerStatsRepository statsRepository) {
         this.lobbyBroadcaster = lobbyBroadcaster;
         this.sessionRepository = sessionRepository;
         this.matchmakingRepository = matchmakingRepository;
+        this.statsRepository = statsRepository;
     }
 
     /**
      * Mark a player as online.
      */
     public void playerOnline(Player player) {
-        boolean wasOffline = !onlinePlayers.containsKey(player.getId());
+        PlayerPresence existing = onlinePlayers.get(player.getId());
+        if (existing != null) {
+            existing.touch();
+            return;
+        }
 
-        onlinePlayers.put(player.getId(), new PlayerPresence(player, LocalDateTime.now()));
+        PlayerPresence presence = new PlayerPresence(loadEntry(player));
+        if (onlinePlayers.putIfAbsent(player.getId(), presence) == null) {
+            expiryWheel.schedule(presence, presence.deadline());
 
-        if (wasOffline) {
+            // Carry the new list entry so clients can apply it without re-querying
             LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.PLAYER_ONLINE)
                     .playerId(player.getId())
                     .playerUsername(player.getUsername())
+                    .onlinePlayers(List.of(presence.entry))
                     .build();
             lobbyBroadcaster.broadcast(update);
         }
@@ -80,10 +125,35 @@ public class OnlinePresenceService {
     public void heartbeat(Player player) {
         PlayerPresence presence = onlinePlayers.get(player.getId());
         if (presence != null) {
-            presence.lastActivity = LocalDateTime.now();
-        } else {
-            playerOnline(player);
+            presence.touch();
+            // Still registered after the touch: the sweep will see the new stamp
+            if (onlinePlayers.get(player.getId()) == presence) {
+                return;
+            }
         }
+        playerOnline(player);
+    }
+
+    /**
+     * Record that a player started (or left) an active game.
+     * Ignored if the player is offline; their entry is reloaded when they return.
+     */
+    public void setInGame(Long playerId, boolean inGame) {
+        updateEntry(playerId, entry -> entry.withInGame(inGame));
+    }
+
+    /**
+     * Record that a player joined or left the matchmaking queue.
+     */
+    public void setInQueue(Long playerId, boolean inQueue) {
+        updateEntry(playerId, entry -> entry.withInQueue(inQueue));
+    }
+
+    /**
+     * Record a player's new win/loss totals.
+     */
+    public void updateRecord(Long playerId, int wins, int losses) {
+        updateEntry(playerId, entry -> entry.withRecord(wins, losses));
     }
 
     /**
@@ -91,27 +161,16 @@ public class OnlinePresenceService {
      */
     public boolean isOnline(Long playerId) {
         PlayerPresence presence = onlinePlayers.get(playerId);
-        if (presence == null) {
-            return false;
-        }
-
-        // Check if timed out
-        if (presence.lastActivity.plusSeconds(TIMEOUT_SECONDS).isBefore(LocalDateTime.now())) {
-            onlinePlayers.remove(playerId);
-            return false;
-        }
-
-        return true;
+        // Timed out but not swept yet (at most one tick) counts as offline
+        return presence != null && !presence.isExpired(System.nanoTime());
     }
 
     /**
      * Get list of all online players with their status.
      */
     public List<OnlinePlayerDTO> getOnlinePlayers() {
-        cleanupStalePresence();
-
         return onlinePlayers.values().stream()
-                .map(this::toDTO)
+                .map(presence -> presence.entry)
                 .collect(Collectors.toList());
     }
 
@@ -128,54 +187,92 @@ public class OnlinePresenceService {
      * Get count of online players.
      */
     public int getOnlineCount() {
-        cleanupStalePresence();
         return onlinePlayers.size();
     }
 
-    private OnlinePlayerDTO toDTO(PlayerPresence presence) {
-        Player player = presence.player;
+    /**
+     * Periodic sweep of the expiry wheel: players whose deadline passed go
+     * offline (with a PLAYER_OFFLINE broadcast), the rest are re-filed.
+     */
+    @Scheduled(fixedRate = 1000) // Every second
+    public void expireStalePresence() {
+        long now = System.nanoTime();
+        expiryWheel.advance(now, presence -> {
+            Long playerId = presence.entry.getId();
+            if (onlinePlayers.get(playerId) != presence) {
+                return; // Went offline or came back as a new presence
+            }
+            if (!presence.isExpired(now)) {
+                expiryWheel.schedule(presence, presence.deadline());
+                return;
+            }
+            if (onlinePlayers.remove(playerId, presence)) {
+                LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.PLAYER_OFFLINE)
+                        .playerId(playerId)
+                        .playerUsername(presence.entry.getUsername())
+                        .message("timed out")
+                        .build();
+                lobbyBroadcaster.broadcast(update);
+            }
+        });
+    }
 
-        // Check if player is in an active game
+    /**
+     * Builds a player's list entry from the database (once per login).
+     */
+    private OnlinePlayerDTO loadEntry(Player player) {
         boolean inGame = sessionRepository.countByPlayerAndStatus(
-                player, OnlineGameStatus.IN_PROGRESS) > 0;
-
-        // Check if player is in matchmaking queue
+                player, OnlineGameStatus.IN_PROGRESS, GameState.IN_PROGRESS) > 0;
         boolean inQueue = matchmakingRepository.existsByPlayerAndActiveTrue(player);
 
-        // Get stats
-        int wins = 0;
-        int losses = 0;
-        if (player.getStats() != null) {
-            wins = player.getStats().getTotalWins();
-            losses = player.getStats().getTotalLosses();
-        }
+        Optional<PlayerStats> stats = statsRepository.findByPlayer(player);
+        int wins = stats.map(PlayerStats::getTotalWins).orElse(0);
+        int losses = stats.map(PlayerStats::getTotalLosses).orElse(0);
 
-        return new OnlinePlayerDTO(
-                player.getId(),
-                player.getUsername(),
-                inGame,
-                inQueue,
-                wins,
-                losses
-        );
+        return new OnlinePlayerDTO(player.getId(), player.getUsername(), inGame, inQueue, wins, losses);
     }
 
-    private void cleanupStalePresence() {
-        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(TIMEOUT_SECONDS);
-        onlinePlayers.entrySet().removeIf(e ->
-                e.getValue().lastActivity.isBefore(cutoff));
+    private void updateEntry(Long playerId, UnaryOperator<OnlinePlayerDTO> change) {
+        PlayerPresence presence = onlinePlayers.computeIfPresent(playerId, (id, current) -> {
+            current.entry = change.apply(current.entry);
+            return current;
+        });
+        if (presence == null) {
+            return;
+        }
+
+        LobbyUpdate update = LobbyUpdate.builder(LobbyUpdate.UpdateType.PLAYER_STATUS_CHANGED)
+                .playerId(playerId)
+                .playerUsername(presence.entry.getUsername())
+                .onlinePlayers(List.of(presence.entry))
+                .build();
+        lobbyBroadcaster.broadcast(update);
     }
 
     /**
      * Internal class to track player presence.
      */
     private static class PlayerPresence {
-        final Player player;
-        LocalDateTime lastActivity;
+        /** Replaced (never mutated) on change, under the map's lock for this key */
+        volatile OnlinePlayerDTO entry;
+
+        /** {@link System#nanoTime()} of the last activity (monotonic, unaffected by clock changes) */
+        final AtomicLong lastActivityNanos = new AtomicLong(System.nanoTime());
+
+        PlayerPresence(OnlinePlayerDTO entry) {
+            this.entry = entry;
+        }
+
+        void touch() {
+            lastActivityNanos.set(System.nanoTime());
+        }
+
+        long deadline() {
+            return lastActivityNanos.get() + TIMEOUT.toNanos();
+        }
 
-        PlayerPresence(Player player, LocalDateTime lastActivity) {
-            this.player = player;
-            this.lastActivity = lastActivity;
+        boolean isExpired(long nowNanos) {
+            return nowNanos - deadline() > 0;
         }
     }
 }
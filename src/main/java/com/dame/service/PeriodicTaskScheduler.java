@@ -0,0 +1,152 @@
+package com.dame.service;
+
+import com.vaadin.flow.shared.Registration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One shared scheduler for per-user periodic work (e.g. lobby heartbeats).
+ * Replaces a {@code java.util.Timer} (and its platform thread) per view.
+ *
+ * <h2>Under the Hood</h2>
+ * <ul>
+ *   <li>A single timer thread only fires tasks; each run is handed to a
+ *       virtual thread, so a slow task never delays the others</li>
+ *   <li>Each task starts at a random offset within its period (jitter), so
+ *       a thousand views opened together do not all fire in the same tick</li>
+ *   <li>A run that is still in progress when the next one is due causes that
+ *       next run to be skipped rather than piling up</li>
+ * </ul>
+ *
+ * <h2>Metrics</h2>
+ * <ul>
+ *   <li>{@code dame.scheduler.lag}: time from a run's due time to its start</li>
+ *   <li>{@code dame.scheduler.tasks}: currently scheduled tasks</li>
+ *   <li>{@code dame.scheduler.skipped}: runs skipped because the previous one was still running</li>
+ * </ul>
+ */
+@Service
+public class PeriodicTaskScheduler {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "periodic-task-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Timer lagTimer;
+    private final AtomicInteger taskCount = new AtomicInteger();
+    private final Counter skippedRuns;
+
+    public PeriodicTaskScheduler(MeterRegistry meterRegistry) {
+        this.lagTimer = Timer.builder("dame.scheduler.lag")
+                .description("Delay between a periodic task's due time and its start")
+                .register(meterRegistry);
+        Gauge.builder("dame.scheduler.tasks", taskCount, AtomicInteger::get)
+                .description("Periodic tasks currently scheduled")
+                .register(meterRegistry);
+        this.skippedRuns = Counter.builder("dame.scheduler.skipped")
+                .description("Runs skipped because the previous run was still in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a task repeatedly, first after a random delay within one period.
+     *
+     * @param task the task; exceptions are logged and do not cancel it
+     * @param period time between runs
+     * @return a registration that cancels the task
+     */
+    public Registration scheduleWithJitter(Runnable task, Duration period) {
+        long periodNanos = period.toNanos();
+        long initialDelay = ThreadLocalRandom.current().nextLong(periodNanos);
+
+        PeriodicTask periodic = new PeriodicTask(task, periodNanos, System.nanoTime() + initialDelay);
+        ScheduledFuture<?> future = timer.scheduleAtFixedRate(
+                periodic::fire, initialDelay, periodNanos, TimeUnit.NANOSECONDS);
+        taskCount.incrementAndGet();
+
+        return () -> {
+            if (future.cancel(false)) {
+                taskCount.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * Get count of scheduled tasks (for debugging/monitoring).
+     */
+    public int getTaskCount() {
+        return taskCount.get();
+    }
+
+    /**
+     * Longest observed delay between a run's due time and its start (for debugging/monitoring).
+     */
+    public Duration getMaxLag() {
+        return Duration.ofNanos((long) lagTimer.max(TimeUnit.NANOSECONDS));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Tracks the due time of one task. {@link #fire} runs on the timer thread.
+     */
+    private final class PeriodicTask {
+
+        private final Runnable task;
+        private final long periodNanos;
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        /** Due time of the next run; only touched by the timer thread */
+        private long nextDueNanos;
+
+        PeriodicTask(Runnable task, long periodNanos, long firstDueNanos) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+            this.nextDueNanos = firstDueNanos;
+        }
+
+        void fire() {
+            long due = nextDueNanos;
+            nextDueNanos += periodNanos;
+
+            if (!running.compareAndSet(false, true)) {
+                skippedRuns.increment();
+                return;
+            }
+
+            workers.execute(() -> {
+                lagTimer.record(Math.max(0, System.nanoTime() - due), TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    // Log error but keep the schedule; the next run may succeed
+                    System.err.println("Error running periodic task: " + e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+}
@@ -5,72 +5,217 @@ import com.dame.entity.MatchResult;
 import com.dame.entity.Player;
 import com.dame.entity.PlayerStats;
 import com.dame.repository.MatchResultRepository;
+import com.dame.repository.MatchResultRepository.RatedResult;
+import com.dame.repository.PlayerRepository;
 import com.dame.repository.PlayerStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Records game results: win/loss/draw totals, streaks and ratings.
+ * Online games reach {@link #recordResults} in batches through {@link GameResultRecorder}.
+ *
+ * <h2>Ratings</h2>
+ * <ul>
+ *   <li>Each recorded game updates both players' {@link EloRating} at once, from
+ *       their ratings and games played before the game</li>
+ *   <li>{@link #recomputeRatings()} rebuilds every rating by replaying the
+ *       {@link MatchResult} history in the order it was played. It runs at
+ *       startup when {@code dame.ratings.recompute-on-startup} is set, e.g. once
+ *       after changing the K-factors</li>
+ *   <li>The replay is one sequential pass by design: every game's change
+ *       depends on both players' ratings after all earlier games, and the
+ *       players of an active site form one connected group, so there is no
+ *       independent part to run in parallel. The history is streamed in
+ *       chunks, so memory grows with the number of players, not games</li>
+ * </ul>
+ */
 @Service
 public class PlayerStatsService {
 
     private final PlayerStatsRepository statsRepository;
     private final MatchResultRepository matchResultRepository;
+    private final OnlinePresenceService presenceService;
+    private final LeaderboardService leaderboardService;
+    private final HeadToHeadService headToHeadService;
+    private final PlayerRepository playerRepository;
+    private final boolean recomputeOnStartup;
 
     public PlayerStatsService(PlayerStatsRepository statsRepository,
-                              MatchResultRepository matchResultRepository) {
+                              MatchResultRepository matchResultRepository,
+                              OnlinePresenceService presenceService,
+                              LeaderboardService leaderboardService,
+                              HeadToHeadService headToHeadService,
+                              PlayerRepository playerRepository,
+                              @Value("${dame.ratings.recompute-on-startup:false}") boolean recomputeOnStartup) {
         this.statsRepository = statsRepository;
         this.matchResultRepository = matchResultRepository;
+        this.presenceService = presenceService;
+        this.leaderboardService = leaderboardService;
+        this.headToHeadService = headToHeadService;
+        this.playerRepository = playerRepository;
+        this.recomputeOnStartup = recomputeOnStartup;
     }
 
     @Transactional
     public void recordWin(Player winner, Player loser, int winnerScore, int loserScore) {
-        // Update winner stats
-        PlayerStats winnerStats = getOrCreateStats(winner);
-        winnerStats.recordWin();
-        statsRepository.save(winnerStats);
-
-        // Update loser stats
-        PlayerStats loserStats = getOrCreateStats(loser);
-        loserStats.recordLoss();
-        statsRepository.save(loserStats);
-
-        // Save match result
-        MatchResult result = new MatchResult(winner, loser, GameOutcome.WIN, winnerScore, loserScore);
-        matchResultRepository.save(result);
+        recordResults(List.of(new GameResult(winner.getId(), loser.getId(), GameOutcome.WIN,
+                winnerScore, loserScore, LocalDateTime.now())));
     }
 
     @Transactional
     public void recordForfeit(Player winner, Player forfeiter, int winnerScore, int loserScore) {
-        // Update winner stats
-        PlayerStats winnerStats = getOrCreateStats(winner);
-        winnerStats.recordWin();
-        statsRepository.save(winnerStats);
-
-        // Update forfeiter stats
-        PlayerStats loserStats = getOrCreateStats(forfeiter);
-        loserStats.recordLoss();
-        statsRepository.save(loserStats);
-
-        // Save match result
-        MatchResult result = new MatchResult(winner, forfeiter, GameOutcome.FORFEIT, winnerScore, loserScore);
-        matchResultRepository.save(result);
+        recordResults(List.of(new GameResult(winner.getId(), forfeiter.getId(), GameOutcome.FORFEIT,
+                winnerScore, loserScore, LocalDateTime.now())));
     }
 
     @Transactional
     public void recordDraw(Player player1, Player player2) {
-        // Update both players' stats
-        PlayerStats stats1 = getOrCreateStats(player1);
-        stats1.recordDraw();
-        statsRepository.save(stats1);
-
-        PlayerStats stats2 = getOrCreateStats(player2);
-        stats2.recordDraw();
-        statsRepository.save(stats2);
-
-        // Save match result (no winner/loser for draw)
-        MatchResult result = new MatchResult(null, null, GameOutcome.DRAW, 0, 0);
-        matchResultRepository.save(result);
+        // For a draw, winner/loser are just the two players
+        recordResults(List.of(new GameResult(player1.getId(), player2.getId(), GameOutcome.DRAW,
+                0, 0, LocalDateTime.now())));
+    }
+
+    /**
+     * Record a batch of games in one transaction, in order. Both players' stats
+     * are loaded once for the whole batch (one query), and the stats updates
+     * and match results are written together at the end.
+     */
+    @Transactional
+    public void recordResults(List<GameResult> results) {
+        Map<Long, PlayerStats> statsByPlayer = loadStats(results);
+        List<MatchResult> matches = new ArrayList<>(results.size());
+
+        for (GameResult result : results) {
+            PlayerStats first = statsByPlayer.get(result.winnerId());
+            PlayerStats second = statsByPlayer.get(result.loserId());
+            updateRatings(first, second, result.isDraw() ? 0.5 : 1.0);
+
+            if (result.isDraw()) {
+                first.recordDraw();
+                second.recordDraw();
+            } else {
+                first.recordWin();
+                second.recordLoss();
+            }
+
+            leaderboardService.resultRecorded(first, second, result.outcome(), result.playedAt());
+
+            MatchResult match = new MatchResult(first.getPlayer(), second.getPlayer(), result.outcome(),
+                    result.winnerScore(), result.loserScore());
+            match.setPlayedAt(result.playedAt());
+            matches.add(match);
+        }
+
+        headToHeadService.recordResults(results);
+        statsRepository.saveAll(statsByPlayer.values());
+        matchResultRepository.saveAll(matches);
+
+        statsByPlayer.values().forEach(stats -> publishRecord(stats.getPlayer(), stats));
+    }
+
+    /**
+     * Stats of every player in a batch, creating any that are missing.
+     */
+    private Map<Long, PlayerStats> loadStats(List<GameResult> results) {
+        Set<Long> playerIds = new HashSet<>();
+        for (GameResult result : results) {
+            playerIds.add(result.winnerId());
+            playerIds.add(result.loserId());
+        }
+
+        Map<Long, PlayerStats> statsByPlayer = new HashMap<>();
+        for (PlayerStats stats : statsRepository.findAllWithPlayerByPlayerIdIn(playerIds)) {
+            statsByPlayer.put(stats.getPlayer().getId(), stats);
+        }
+
+        if (statsByPlayer.size() < playerIds.size()) {
+            Set<Long> missing = new HashSet<>(playerIds);
+            missing.removeAll(statsByPlayer.keySet());
+            for (Player player : playerRepository.findAllById(missing)) {
+                statsByPlayer.put(player.getId(), new PlayerStats(player));
+            }
+        }
+        return statsByPlayer;
+    }
+
+    /**
+     * Replay the match history at startup if the deployment asks for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recomputeRatingsIfRequested() {
+        if (recomputeOnStartup) {
+            recomputeRatings();
+        }
+    }
+
+    /**
+     * Recompute every player's rating from the full match history.
+     * Players with no rated games go back to {@link PlayerStats#DEFAULT_RATING}.
+     *
+     * @return number of players who have rated games
+     */
+    @Transactional
+    public int recomputeRatings() {
+        Map<Long, Replay> replays = new HashMap<>();
+
+        // Ratings depend on game order, so this is one sequential pass (see class docs)
+        try (Stream<RatedResult> results = matchResultRepository.streamRatedResults()) {
+            results.forEach(result -> {
+                Replay first = replays.computeIfAbsent(result.getWinnerId(), id -> new Replay());
+                Replay second = replays.computeIfAbsent(result.getLoserId(), id -> new Replay());
+                double firstScore = result.getOutcome() == GameOutcome.DRAW ? 0.5 : 1.0;
+
+                int firstRating = first.rating;
+                first.rating = EloRating.ratingAfter(first.rating, first.gamesPlayed, second.rating, firstScore);
+                second.rating = EloRating.ratingAfter(second.rating, second.gamesPlayed, firstRating, 1.0 - firstScore);
+                first.gamesPlayed++;
+                second.gamesPlayed++;
+            });
+        }
+
+        List<PlayerStats> allStats = statsRepository.findAllWithPlayer();
+        for (PlayerStats stats : allStats) {
+            Replay replay = replays.get(stats.getPlayer().getId());
+            stats.setRating(replay != null ? replay.rating : PlayerStats.DEFAULT_RATING);
+        }
+        leaderboardService.allStatsChanged(allStats);
+        return replays.size();
+    }
+
+    /**
+     * Apply one game's rating change to both players (call before the
+     * game is added to their totals).
+     *
+     * @param firstScore the first player's score: 1 win, 0.5 draw
+     */
+    private void updateRatings(PlayerStats first, PlayerStats second, double firstScore) {
+        int firstRating = first.getRating();
+        int secondRating = second.getRating();
+        first.setRating(EloRating.ratingAfter(firstRating, first.getMatchesPlayed(), secondRating, firstScore));
+        second.setRating(EloRating.ratingAfter(secondRating, second.getMatchesPlayed(), firstRating, 1.0 - firstScore));
+    }
+
+    /**
+     * Keep the lobby's online players list and the leaderboard in step with the new totals.
+     */
+    private void publishRecord(Player player, PlayerStats stats) {
+        presenceService.updateRecord(player.getId(), stats.getTotalWins(), stats.getTotalLosses());
+        leaderboardService.statsChanged(stats);
     }
 
     public Optional<PlayerStats> getStats(Player player) {
@@ -84,4 +229,12 @@ public class PlayerStatsService {
                     return statsRepository.save(stats);
                 });
     }
+
+    /**
+     * A player's rating while replaying history.
+     */
+    private static final class Replay {
+        int rating = PlayerStats.DEFAULT_RATING;
+        int gamesPlayed;
+    }
 }
@@ -0,0 +1,181 @@
+package com.dame.service;
+
+import com.dame.service.LeaderboardIndex.RankedPlayer;
+import com.dame.service.LeaderboardService.Window;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Time-windowed leaderboards (e.g. last 7 days), maintained incrementally from
+ * recorded results.
+ *
+ * <h2>Day Buckets</h2>
+ * Results are tallied per player in one bucket per day. Each window keeps a running
+ * total per player over its days, ranked in its own {@link LeaderboardIndex}:
+ * <pre>
+ *   days:    ... 10  11  12  13  14  15  16 | 17      (today = 17)
+ *   WEEK:            [11 ................ 17]
+ *   day 18:  subtract bucket 11 from WEEK, add new results to bucket 18
+ * </pre>
+ * <ul>
+ *   <li>Recording a result updates today's bucket and every window's total and
+ *       ranking for the two players: O(log n)</li>
+ *   <li>When the date changes, each window subtracts the buckets that fell out
+ *       of it; buckets older than the longest window are dropped</li>
+ *   <li>Rank lookups and pages are served by the window's index</li>
+ * </ul>
+ * Every method first rolls the windows forward to the given date. All methods
+ * synchronize on this object.
+ */
+class RollingLeaderboards {
+
+    /**
+     * Win/loss/draw counts.
+     */
+    record Tally(int wins, int losses, int draws) {
+        static final Tally EMPTY = new Tally(0, 0, 0);
+
+        Tally plus(Tally other) {
+            return new Tally(wins + other.wins, losses + other.losses, draws + other.draws);
+        }
+
+        Tally minus(Tally other) {
+            return new Tally(wins - other.wins, losses - other.losses, draws - other.draws);
+        }
+
+        int games() {
+            return wins + losses + draws;
+        }
+    }
+
+    /**
+     * Name and rating shown next to a player's windowed results.
+     */
+    record Label(String username, int rating) {
+    }
+
+    /**
+     * One window's running totals and ranking.
+     */
+    private static final class Board {
+        final int days;
+        final Map<Long, Tally> totals = new HashMap<>();
+        final LeaderboardIndex index = new LeaderboardIndex(LeaderboardIndex.RESULTS_ORDER);
+
+        Board(int days) {
+            this.days = days;
+        }
+    }
+
+    /** Results per player, by day; only days inside the longest window are kept */
+    private final TreeMap<LocalDate, Map<Long, Tally>> buckets = new TreeMap<>();
+
+    private final Map<Window, Board> boards = new EnumMap<>(Window.class);
+    private final Map<Long, Label> labels = new HashMap<>();
+
+    /** The longest window covers exactly the days still kept in buckets */
+    private final Board longest;
+
+    /** Newest day the windows cover */
+    private LocalDate today;
+
+    RollingLeaderboards(LocalDate today) {
+        this.today = today;
+        Board longestBoard = null;
+        for (Window window : Window.values()) {
+            if (window.getDays() > 0) {
+                Board board = new Board(window.getDays());
+                boards.put(window, board);
+                if (longestBoard == null || board.days > longestBoard.days) {
+                    longestBoard = board;
+                }
+            }
+        }
+        this.longest = longestBoard;
+    }
+
+    /**
+     * Add one player's result on a given day (today for live results; earlier days
+     * when rebuilding). Results older than the longest window are ignored.
+     */
+    synchronized void record(LocalDate day, long playerId, Label label, Tally result) {
+        advanceTo(day);
+        if (!day.isAfter(today.minusDays(longest.days))) {
+            return;
+        }
+
+        labels.put(playerId, label);
+        buckets.computeIfAbsent(day, d -> new HashMap<>()).merge(playerId, result, Tally::plus);
+        for (Board board : boards.values()) {
+            if (day.isAfter(today.minusDays(board.days))) {
+                addToBoard(board, playerId, result);
+            }
+        }
+    }
+
+    /**
+     * Roll the windows forward to a new date. Earlier dates are ignored.
+     */
+    synchronized void advanceTo(LocalDate newToday) {
+        if (!newToday.isAfter(today)) {
+            return;
+        }
+
+        for (Board board : boards.values()) {
+            // Days (today - days, newToday - days] leave this window
+            LocalDate from = today.minusDays(board.days);
+            LocalDate to = newToday.minusDays(board.days);
+            for (Map.Entry<LocalDate, Map<Long, Tally>> bucket
+                    : buckets.subMap(from, false, to, true).entrySet()) {
+                bucket.getValue().forEach((playerId, tally) -> subtractFromBoard(board, playerId, tally));
+            }
+        }
+
+        today = newToday;
+        buckets.headMap(today.minusDays(longest.days), true).clear();
+        labels.keySet().retainAll(longest.totals.keySet());
+    }
+
+    synchronized int rankOf(Window window, LocalDate now, Long playerId) {
+        advanceTo(now);
+        return boards.get(window).index.rankOf(playerId);
+    }
+
+    synchronized List<RankedPlayer> page(Window window, LocalDate now, int offset, int limit) {
+        advanceTo(now);
+        return boards.get(window).index.page(offset, limit);
+    }
+
+    synchronized int size(Window window, LocalDate now) {
+        advanceTo(now);
+        return boards.get(window).index.size();
+    }
+
+    private void addToBoard(Board board, long playerId, Tally result) {
+        Tally total = board.totals.merge(playerId, result, Tally::plus);
+        board.index.put(entry(playerId, total));
+    }
+
+    private void subtractFromBoard(Board board, long playerId, Tally result) {
+        Tally total = board.totals.getOrDefault(playerId, Tally.EMPTY).minus(result);
+        if (total.games() > 0) {
+            board.totals.put(playerId, total);
+        } else {
+            board.totals.remove(playerId);
+        }
+        board.index.put(entry(playerId, total)); // No games left removes the entry
+    }
+
+    private RankedPlayer entry(long playerId, Tally total) {
+        Label label = labels.get(playerId);
+        double winRate = total.games() == 0 ? 0.0 : (double) total.wins() / total.games() * 100;
+        return new RankedPlayer(playerId, label.username(), label.rating(),
+                total.wins(), total.losses(), total.draws(), winRate,
+                0, 0, total.games());
+    }
+}
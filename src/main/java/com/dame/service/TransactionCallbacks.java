@@ -0,0 +1,54 @@
+package com.dame.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ties in-memory state (queues, indexes, broadcasts) to the outcome of the
+ * surrounding database transaction, so other threads never see a change that
+ * is later rolled back.
+ * <ul>
+ *   <li>{@link #afterCommit}: publish a change only once it is committed</li>
+ *   <li>{@link #onRollback}: undo a change made ahead of the commit</li>
+ * </ul>
+ * Outside a transaction there is nothing to wait for: changes apply at once
+ * and are never undone.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Run an action once the surrounding transaction commits, or at once if
+     * there is none. Nothing runs if the transaction rolls back.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Run an undo action if the surrounding transaction does not commit.
+     */
+    public static void onRollback(Runnable undo) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undo.run();
+                    }
+                }
+            });
+        }
+    }
+}
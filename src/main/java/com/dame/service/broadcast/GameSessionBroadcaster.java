@@ -1,26 +1,61 @@
 package com.dame.service.broadcast;
 
 import com.dame.dto.GameUpdate;
+import com.dame.dto.OnlineGameSnapshot;
+import com.dame.service.TransactionCallbacks;
 import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
  * Broadcasts game updates to all connected clients viewing a game session.
  * Uses Vaadin Push to deliver real-time updates.
+ *
+ * <h2>Delivery</h2>
+ * <ul>
+ *   <li>Called inside a transaction, updates are published only after commit
+ *       (and dropped on rollback), so listeners never see uncommitted state</li>
+ *   <li>Each listener has its own bounded {@link ListenerQueue} drained on a
+ *       virtual thread; {@link #broadcast} only enqueues and returns</li>
+ *   <li>A slow UI falls behind alone: pending state updates are coalesced so it
+ *       only receives the latest board, while discrete events (forfeit, rematch,
+ *       new round, ...) are never dropped; the mover and the other viewers are unaffected</li>
+ *   <li>A UI with too many events pending is resynced: its backlog becomes one
+ *       SESSION_UPDATED carrying the latest snapshot</li>
+ * </ul>
+ *
+ * <h2>Shared Snapshots</h2>
+ * An update that changes the game carries an immutable {@link OnlineGameSnapshot},
+ * built once by the service and handed to every listener by reference, so a view
+ * renders it without a query or board parse however many spectators there are.
+ * The latest snapshot of each watched session is kept for views that open it
+ * later, and dropped when its last listener leaves.
  */
 @Component
 public class GameSessionBroadcaster {
 
+    /** Pending discrete events allowed per listener before it is resynced */
+    private static final int LISTENER_QUEUE_CAPACITY = 16;
+
     /**
-     * Map of session ID to set of listeners.
+     * Map of session ID to set of listener queues.
      */
-    private final Map<Long, Set<Consumer<GameUpdate>>> listeners = new ConcurrentHashMap<>();
+    private final Map<Long, Set<ListenerQueue<GameUpdate>>> listeners = new ConcurrentHashMap<>();
+
+    /** Latest snapshot of each session that has listeners */
+    private final Map<Long, OnlineGameSnapshot> latestSnapshots = new ConcurrentHashMap<>();
+
+    /** Runs listener drains; one cheap virtual thread per active drain */
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     /**
      * Register a listener for game updates on a specific session.
@@ -30,14 +65,17 @@ public class GameSessionBroadcaster {
      * @return a registration that can be used to unregister
      */
     public Registration register(Long sessionId, Consumer<GameUpdate> listener) {
-        listeners.computeIfAbsent(sessionId, k -> new CopyOnWriteArraySet<>()).add(listener);
+        ListenerQueue<GameUpdate> queue = new ListenerQueue<>(listener, LISTENER_QUEUE_CAPACITY,
+                deliveryExecutor, GameUpdate::isCoalescible, () -> resyncUpdate(sessionId));
+        listeners.computeIfAbsent(sessionId, k -> new CopyOnWriteArraySet<>()).add(queue);
 
         return () -> {
-            Set<Consumer<GameUpdate>> sessionListeners = listeners.get(sessionId);
+            Set<ListenerQueue<GameUpdate>> sessionListeners = listeners.get(sessionId);
             if (sessionListeners != null) {
-                sessionListeners.remove(listener);
+                sessionListeners.remove(queue);
                 if (sessionListeners.isEmpty()) {
                     listeners.remove(sessionId);
+                    latestSnapshots.remove(sessionId);
                 }
             }
         };
@@ -45,20 +83,54 @@ public class GameSessionBroadcaster {
 
     /**
      * Broadcast an update to all listeners of a session.
+     * Inside a transaction the update is held until after commit.
      *
      * @param sessionId the game session ID
      * @param update the update to broadcast
      */
     public void broadcast(Long sessionId, GameUpdate update) {
-        Set<Consumer<GameUpdate>> sessionListeners = listeners.get(sessionId);
+        TransactionCallbacks.afterCommit(() -> enqueue(sessionId, update));
+    }
+
+    /**
+     * Latest snapshot published for a session that has listeners.
+     */
+    public Optional<OnlineGameSnapshot> getLatestSnapshot(Long sessionId) {
+        return Optional.ofNullable(latestSnapshots.get(sessionId));
+    }
+
+    /**
+     * Keep a snapshot loaded from the database for the session's next viewers,
+     * unless a newer one has already been published.
+     */
+    public void cacheSnapshot(Long sessionId, OnlineGameSnapshot snapshot) {
+        storeSnapshot(sessionId, snapshot, false);
+    }
+
+    /**
+     * Store a snapshot only while the session has listeners; checked under the
+     * listener map's lock so it cannot outlive the last registration.
+     */
+    private void storeSnapshot(Long sessionId, OnlineGameSnapshot snapshot, boolean replace) {
+        listeners.computeIfPresent(sessionId, (id, sessionListeners) -> {
+            if (replace) {
+                latestSnapshots.put(id, snapshot);
+            } else {
+                latestSnapshots.putIfAbsent(id, snapshot);
+            }
+            return sessionListeners;
+        });
+    }
+
+    private void enqueue(Long sessionId, GameUpdate update) {
+        if (update.getSnapshot() != null) {
+            storeSnapshot(sessionId, update.getSnapshot(), true);
+        }
+
+        Set<ListenerQueue<GameUpdate>> sessionListeners = listeners.get(sessionId);
         if (sessionListeners != null) {
-            for (Consumer<GameUpdate> listener : sessionListeners) {
-                try {
-                    listener.accept(update);
-                } catch (Exception e) {
-                    // Log error but continue broadcasting to other listeners
-                    System.err.println("Error broadcasting to listener: " + e.getMessage());
-                }
+            for (ListenerQueue<GameUpdate> queue : sessionListeners) {
+                queue.offer(update);
             }
         }
     }
@@ -67,7 +139,7 @@ public class GameSessionBroadcaster {
      * Get count of listeners for a session (for debugging/monitoring).
      */
     public int getListenerCount(Long sessionId) {
-        Set<Consumer<GameUpdate>> sessionListeners = listeners.get(sessionId);
+        Set<ListenerQueue<GameUpdate>> sessionListeners = listeners.get(sessionId);
         return sessionListeners != null ? sessionListeners.size() : 0;
     }
 
@@ -75,7 +147,45 @@ public class GameSessionBroadcaster {
      * Check if a session has any listeners.
      */
     public boolean hasListeners(Long sessionId) {
-        Set<Consumer<GameUpdate>> sessionListeners = listeners.get(sessionId);
+        Set<ListenerQueue<GameUpdate>> sessionListeners = listeners.get(sessionId);
         return sessionListeners != null && !sessionListeners.isEmpty();
     }
+
+    /**
+     * State update sent in place of a lagging listener's backlog; carries the
+     * latest snapshot if one is held (the view reloads the session otherwise).
+     */
+    private GameUpdate resyncUpdate(Long sessionId) {
+        return GameUpdate.builder(GameUpdate.UpdateType.SESSION_UPDATED, sessionId)
+                .snapshot(latestSnapshots.get(sessionId))
+                .build();
+    }
+
+    /**
+     * Times a session's lagging listeners were resynced (for debugging/monitoring).
+     */
+    public long getResyncCount(Long sessionId) {
+        Set<ListenerQueue<GameUpdate>> sessionListeners = listeners.get(sessionId);
+        if (sessionListeners == null) {
+            return 0;
+        }
+        return sessionListeners.stream().mapToLong(ListenerQueue::getResyncCount).sum();
+    }
+
+    /**
+     * Total state updates skipped for a session's lagging listeners because a newer
+     * state replaced them (for debugging/monitoring).
+     */
+    public long getCoalescedCount(Long sessionId) {
+        Set<ListenerQueue<GameUpdate>> sessionListeners = listeners.get(sessionId);
+        if (sessionListeners == null) {
+            return 0;
+        }
+        return sessionListeners.stream().mapToLong(ListenerQueue::getCoalescedCount).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
 }
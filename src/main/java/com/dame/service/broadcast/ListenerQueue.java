@@ -0,0 +1,153 @@
+package com.dame.service.broadcast;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded mailbox for a single broadcast listener.
+ * Updates are queued here and delivered on a virtual thread, so a slow or
+ * stalled listener (e.g. a Vaadin UI waiting on push) never blocks the
+ * publisher or the other listeners.
+ *
+ * <h2>Delivery Rules</h2>
+ * <ul>
+ *   <li>Updates reach the listener in the order they were offered</li>
+ *   <li>At most one drain task runs per queue, so the listener is never called concurrently</li>
+ *   <li>A coalescible update (one that carries the complete latest state)
+ *       replaces any coalescible update still pending, so a lagging listener
+ *       gets only the newest state: at most one state update is ever pending</li>
+ *   <li>Other updates are discrete events (forfeit, rematch, challenge, ...) and
+ *       are never dropped individually</li>
+ *   <li>A listener with {@code capacity} events still pending is too far behind
+ *       to catch up one by one: its backlog is replaced by a single resync update
+ *       (from which it reloads its whole state), followed by the new update</li>
+ * </ul>
+ * <pre>
+ *   pending: [MOVE 1, FORFEIT, MOVE 2]   + MOVE 3
+ *   becomes: [FORFEIT, MOVE 3]
+ *
+ *   capacity 3, pending: [E1, E2, E3]    + E4
+ *   becomes: [RESYNC, E4]
+ * </pre>
+ *
+ * @param <T> the update type
+ */
+class ListenerQueue<T> {
+
+    private final Consumer<T> listener;
+    private final int capacity;
+    private final Executor executor;
+    private final Predicate<T> coalescible;
+    private final Supplier<T> resync;
+
+    /** Pending updates, guarded by {@code this} */
+    private final Deque<T> pending = new ArrayDeque<>();
+
+    /** Discrete (non-coalescible) updates in {@code pending}, guarded by {@code this} */
+    private int pendingEvents;
+
+    /** Whether a drain task is scheduled or running, guarded by {@code this} */
+    private boolean draining;
+
+    /** Times the backlog was replaced by a resync update, guarded by {@code this} */
+    private long resyncCount;
+
+    /** Updates replaced by a newer state before delivery, guarded by {@code this} */
+    private long coalescedCount;
+
+    /**
+     * @param resync builds the update that tells the listener to reload everything
+     */
+    ListenerQueue(Consumer<T> listener, int capacity, Executor executor, Supplier<T> resync) {
+        this(listener, capacity, executor, update -> false, resync);
+    }
+
+    ListenerQueue(Consumer<T> listener, int capacity, Executor executor,
+                  Predicate<T> coalescible, Supplier<T> resync) {
+        this.listener = listener;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.coalescible = coalescible;
+        this.resync = resync;
+    }
+
+    /**
+     * Queues an update and schedules delivery if no drain is in progress.
+     * Never blocks on the listener.
+     */
+    void offer(T update) {
+        boolean startDrain;
+        synchronized (this) {
+            if (coalescible.test(update)) {
+                // The new state supersedes any older state the listener has not seen yet
+                for (Iterator<T> it = pending.iterator(); it.hasNext(); ) {
+                    if (coalescible.test(it.next())) {
+                        it.remove();
+                        coalescedCount++;
+                    }
+                }
+            } else if (pendingEvents >= capacity) {
+                // Too far behind: reload everything instead of dropping an event
+                pending.clear();
+                pendingEvents = 0;
+                resyncCount++;
+                add(resync.get());
+            }
+            add(update);
+            startDrain = !draining;
+            draining = true;
+        }
+
+        if (startDrain) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /** Caller holds {@code this} */
+    private void add(T update) {
+        pending.addLast(update);
+        if (!coalescible.test(update)) {
+            pendingEvents++;
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            T next;
+            synchronized (this) {
+                next = pending.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                if (!coalescible.test(next)) {
+                    pendingEvents--;
+                }
+            }
+
+            try {
+                listener.accept(next);
+            } catch (Exception e) {
+                // Log error but keep draining; one bad update must not stall the queue
+                System.err.println("Error delivering update to listener: " + e.getMessage());
+            }
+        }
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    synchronized long getResyncCount() {
+        return resyncCount;
+    }
+
+    synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+}
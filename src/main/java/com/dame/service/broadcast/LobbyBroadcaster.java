@@ -1,48 +1,193 @@
 package com.dame.service.broadcast;
 
 import com.dame.dto.LobbyUpdate;
+import com.dame.dto.LobbyUpdate.Topic;
+import com.dame.service.TransactionCallbacks;
 import com.vaadin.flow.shared.Registration;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
- * Broadcasts lobby updates to all connected clients in the lobby.
+ * Routes lobby updates to the connected clients that care about them.
  * Updates include: online players, new challenges, matchmaking status, games to spectate.
+ *
+ * <h2>Routing</h2>
+ * <ul>
+ *   <li>{@link #broadcast} delivers only to listeners subscribed to the update's
+ *       {@link Topic} (e.g. presence changes reach views showing the players list)</li>
+ *   <li>{@link #sendToPlayer} delivers only to the views of one player
+ *       (e.g. a challenge reaches the challenged player, not the whole lobby)</li>
+ * </ul>
+ * Each update therefore costs work proportional to its audience, not to the
+ * number of lobby users.
+ *
+ * <h2>Versions</h2>
+ * Every topic broadcast is stamped with the next version of its topic and kept
+ * in a short history. A client that sees a version gap (e.g. two broadcasts
+ * reached its queue out of order) calls {@link #getUpdatesSince} for the missing range, or reloads the
+ * topic if the range is no longer in history:
+ * <pre>
+ *   seen 41, got 44  →  getUpdatesSince(topic, 41)  →  [42, 43, 44]
+ *   seen 41, history starts at 120  →  empty  →  reload snapshot at getVersion(topic)
+ * </pre>
+ *
+ * <h2>Delivery</h2>
+ * Same as {@link GameSessionBroadcaster}: published after commit when called
+ * inside a transaction, and queued per listener so a slow UI never blocks the sender.
+ * Updates are never dropped one by one; a UI too far behind gets a single
+ * FULL_REFRESH in place of its backlog and reloads every topic.
  */
 @Component
 public class LobbyBroadcaster {
 
+    /** Pending updates allowed per listener before it is sent a full refresh instead */
+    private static final int LISTENER_QUEUE_CAPACITY = 32;
+
+    /** Broadcasts kept per topic for clients catching up after a gap */
+    private static final int HISTORY_SIZE = 256;
+
+    /**
+     * Listener queues by subscribed topic. The map itself is never modified after construction.
+     */
+    private final Map<Topic, Set<ListenerQueue<LobbyUpdate>>> topicListeners = new EnumMap<>(Topic.class);
+
+    /**
+     * Listener queues by player ID (a player may have several lobby tabs open).
+     */
+    private final Map<Long, Set<ListenerQueue<LobbyUpdate>>> playerListeners = new ConcurrentHashMap<>();
+
     /**
-     * Set of all lobby listeners.
+     * Version sequence and recent history by topic. The map itself is never modified after construction.
      */
-    private final Set<Consumer<LobbyUpdate>> listeners = new CopyOnWriteArraySet<>();
+    private final Map<Topic, TopicLog> topicLogs = new EnumMap<>(Topic.class);
+
+    /** Runs listener drains; one cheap virtual thread per active drain */
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LobbyBroadcaster() {
+        for (Topic topic : Topic.values()) {
+            topicListeners.put(topic, new CopyOnWriteArraySet<>());
+            topicLogs.put(topic, new TopicLog());
+        }
+    }
 
     /**
-     * Register a listener for lobby updates.
+     * Register a player's lobby view.
      *
+     * @param playerId the player who owns the view; receives updates sent to this player
+     * @param topics the topics whose broadcasts the view wants
      * @param listener the callback to invoke on updates
      * @return a registration that can be used to unregister
      */
-    public Registration register(Consumer<LobbyUpdate> listener) {
-        listeners.add(listener);
-        return () -> listeners.remove(listener);
+    public Registration register(Long playerId, Set<Topic> topics, Consumer<LobbyUpdate> listener) {
+        ListenerQueue<LobbyUpdate> queue = new ListenerQueue<>(listener, LISTENER_QUEUE_CAPACITY, deliveryExecutor,
+                () -> LobbyUpdate.builder(LobbyUpdate.UpdateType.FULL_REFRESH).build());
+        playerListeners.computeIfAbsent(playerId, k -> new CopyOnWriteArraySet<>()).add(queue);
+        for (Topic topic : topics) {
+            topicListeners.get(topic).add(queue);
+        }
+
+        return () -> {
+            for (Topic topic : topics) {
+                topicListeners.get(topic).remove(queue);
+            }
+            Set<ListenerQueue<LobbyUpdate>> views = playerListeners.get(playerId);
+            if (views != null) {
+                views.remove(queue);
+                if (views.isEmpty()) {
+                    playerListeners.remove(playerId);
+                }
+            }
+        };
     }
 
     /**
-     * Broadcast an update to all lobby listeners.
+     * Subscribe to topic broadcasts only, e.g. an area a view shows only for a
+     * while. Updates sent to a player do not reach this listener.
+     *
+     * @param topics the topics whose broadcasts the listener wants
+     * @param listener the callback to invoke on updates
+     * @return a registration that can be used to unsubscribe
+     */
+    public Registration subscribe(Set<Topic> topics, Consumer<LobbyUpdate> listener) {
+        ListenerQueue<LobbyUpdate> queue = new ListenerQueue<>(listener, LISTENER_QUEUE_CAPACITY, deliveryExecutor,
+                () -> LobbyUpdate.builder(LobbyUpdate.UpdateType.FULL_REFRESH).build());
+        for (Topic topic : topics) {
+            topicListeners.get(topic).add(queue);
+        }
+
+        return () -> {
+            for (Topic topic : topics) {
+                topicListeners.get(topic).remove(queue);
+            }
+        };
+    }
+
+    /**
+     * Broadcast an update to every listener subscribed to its topic, stamped
+     * with the topic's next version.
+     * Updates without a topic (full refresh) go to all listeners unversioned.
      *
      * @param update the update to broadcast
      */
     public void broadcast(LobbyUpdate update) {
-        for (Consumer<LobbyUpdate> listener : listeners) {
-            try {
-                listener.accept(update);
-            } catch (Exception e) {
-                // Log error but continue broadcasting to other listeners
-                System.err.println("Error broadcasting lobby update: " + e.getMessage());
+        TransactionCallbacks.afterCommit(() -> {
+            Topic topic = update.getTopic();
+            if (topic != null) {
+                offerAll(topicListeners.get(topic), topicLogs.get(topic).append(update));
+            } else {
+                playerListeners.values().forEach(views -> offerAll(views, update));
+            }
+        });
+    }
+
+    /**
+     * Current version of a topic. A snapshot loaded after reading this version
+     * includes every update up to it.
+     */
+    public long getVersion(Topic topic) {
+        return topicLogs.get(topic).getVersion();
+    }
+
+    /**
+     * Broadcasts on a topic newer than a given version, in version order.
+     *
+     * @param topic the topic
+     * @param version the last version the client applied
+     * @return the missed updates, or empty if they are no longer in history
+     *         (the client must reload a snapshot instead)
+     */
+    public Optional<List<LobbyUpdate>> getUpdatesSince(Topic topic, long version) {
+        return topicLogs.get(topic).since(version);
+    }
+
+    /**
+     * Send an update only to the lobby views of one player.
+     *
+     * @param playerId the recipient
+     * @param update the update to send
+     */
+    public void sendToPlayer(Long playerId, LobbyUpdate update) {
+        TransactionCallbacks.afterCommit(() -> offerAll(playerListeners.get(playerId), update));
+    }
+
+    private static void offerAll(Set<ListenerQueue<LobbyUpdate>> queues, LobbyUpdate update) {
+        if (queues != null) {
+            for (ListenerQueue<LobbyUpdate> queue : queues) {
+                queue.offer(update);
             }
         }
     }
@@ -51,6 +196,54 @@ public class LobbyBroadcaster {
      * Get count of listeners (for debugging/monitoring).
      */
     public int getListenerCount() {
-        return listeners.size();
+        return playerListeners.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Get count of listeners subscribed to a topic (for debugging/monitoring).
+     */
+    public int getListenerCount(Topic topic) {
+        return topicListeners.get(topic).size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Version counter and bounded history of one topic.
+     * Stamping and recording happen under one lock, so any version in history
+     * is preceded by all lower versions.
+     */
+    private static final class TopicLog {
+
+        private final Deque<LobbyUpdate> history = new ArrayDeque<>();
+        private long version;
+
+        synchronized LobbyUpdate append(LobbyUpdate update) {
+            LobbyUpdate versioned = update.withVersion(++version);
+            history.addLast(versioned);
+            if (history.size() > HISTORY_SIZE) {
+                history.pollFirst();
+            }
+            return versioned;
+        }
+
+        synchronized long getVersion() {
+            return version;
+        }
+
+        synchronized Optional<List<LobbyUpdate>> since(long seen) {
+            if (seen >= version) {
+                return Optional.of(List.of());
+            }
+            if (history.isEmpty() || history.peekFirst().getVersion() > seen + 1) {
+                return Optional.empty();
+            }
+            return Optional.of(history.stream()
+                    .filter(u -> u.getVersion() > seen)
+                    .toList());
+        }
     }
 }
@@ -68,28 +68,41 @@ public class BoardSquare extends Div {
     }
 
     public void setPiece(Piece piece) {
+        if (piece == null) {
+            setPiece(null, false);
+        } else {
+            setPiece(piece.getOwner(), piece.getType() == PieceType.KING);
+        }
+    }
+
+    /**
+     * Show a piece given by owner and type, e.g. from a {@link com.dame.engine.BoardState}.
+     *
+     * @param owner the piece's owner, or null for an empty square
+     */
+    public void setPiece(Player owner, boolean king) {
         // Remove existing piece display
         removeClassName("white-piece");
         removeClassName("black-piece");
         removeClassName("king-piece");
         getElement().removeAttribute("data-piece");
 
-        if (piece == null) {
+        if (owner == null) {
             return;
         }
 
         // Add piece classes
-        if (piece.getOwner() == Player.WHITE) {
+        if (owner == Player.WHITE) {
             addClassName("white-piece");
         } else {
             addClassName("black-piece");
         }
 
-        if (piece.getType() == PieceType.KING) {
+        if (king) {
             addClassName("king-piece");
         }
 
-        getElement().setAttribute("data-piece", piece.getOwner().name().toLowerCase());
+        getElement().setAttribute("data-piece", owner.name().toLowerCase());
     }
 
     public void setHighlighted(boolean highlighted) {
@@ -1,10 +1,10 @@
 package com.dame.ui;
 
 import com.dame.engine.Board;
+import com.dame.engine.BoardState;
 import com.dame.engine.GameState;
 import com.dame.engine.MatchScore;
 import com.dame.engine.Move;
-import com.dame.engine.Piece;
 import com.dame.engine.Player;
 import com.dame.engine.Position;
 import com.dame.service.DameService;
@@ -60,6 +60,8 @@ import java.util.List;
  *   <li>Uses {@link DameService} for all game logic</li>
  *   <li>Board is 8x8 grid of {@link BoardSquare} components</li>
  *   <li>CSS classes control piece appearance and highlights</li>
+ *   <li>Only squares whose piece or highlight changed are updated, so a move
+ *       pushes a handful of class changes instead of all 64 squares</li>
  *   <li>{@code @PermitAll} - no authentication required</li>
  * </ul>
  *
@@ -85,6 +87,9 @@ public class BoardView extends VerticalLayout {
     private BoardSquare selectedSquare;
     private List<Move> currentValidMoves;
 
+    /** Position currently drawn on the squares; null before the first render */
+    private BoardState renderedBoard;
+
     public BoardView(DameService gameService) {
         this.gameService = gameService;
 
@@ -308,10 +313,10 @@ public class BoardView extends VerticalLayout {
             selectedSquare = null;
         }
 
-        // Clear all highlights
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                squares[r][c].clearHighlights();
+        // Only the targets of the selected piece are highlighted
+        if (currentValidMoves != null) {
+            for (Move move : currentValidMoves) {
+                squares[move.getEndRow()][move.getEndCol()].setHighlighted(false);
             }
         }
 
@@ -319,15 +324,17 @@ public class BoardView extends VerticalLayout {
     }
 
     private void refreshBoard() {
-        Board board = gameService.getBoard();
-
-        // Update pieces on all squares
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.get(row, col);
-                squares[row][col].setPiece(piece);
-            }
+        BoardState board = BoardState.of(gameService.getBoard());
+
+        // Redraw only the squares whose piece changed since the last render
+        long changed = renderedBoard == null ? -1L : renderedBoard.changedSquares(board);
+        for (long mask = changed; mask != 0; mask &= mask - 1) {
+            int square = Long.numberOfTrailingZeros(mask);
+            int row = square / Board.SIZE;
+            int col = square % Board.SIZE;
+            squares[row][col].setPiece(board.ownerAt(row, col), board.isKingAt(row, col));
         }
+        renderedBoard = board;
 
         // Update match score display
         updateMatchDisplay();
@@ -2,17 +2,23 @@ package com.dame.ui;
 
 import com.dame.service.LeaderboardService;
 import com.dame.service.LeaderboardService.LeaderboardEntry;
+import com.dame.service.LeaderboardService.Window;
 import com.dame.service.PlayerService;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.GridVariant;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.tabs.Tab;
+import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import jakarta.annotation.security.PermitAll;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Route(value = "leaderboard", layout = MainLayout.class)
 @PageTitle("Leaderboard | Checkers")
@@ -22,6 +28,10 @@ public class LeaderboardView extends VerticalLayout {
     private final LeaderboardService leaderboardService;
     private final PlayerService playerService;
     private final Grid<LeaderboardEntry> grid;
+    private final Span rankInfo = new Span();
+    private final List<Grid.Column<LeaderboardEntry>> allTimeColumns = new ArrayList<>();
+
+    private Window window = Window.ALL_TIME;
 
     public LeaderboardView(LeaderboardService leaderboardService, PlayerService playerService) {
         this.leaderboardService = leaderboardService;
@@ -31,39 +41,58 @@ public class LeaderboardView extends VerticalLayout {
         setSizeFull();
         setPadding(true);
 
-        H2 title = new H2("Leaderboard - Top 50 Players");
+        H2 title = new H2("Leaderboard");
         title.addClassName("leaderboard-title");
 
+        Tabs windowTabs = createWindowTabs();
+
         // Show current player's rank
-        Span rankInfo = createRankInfo();
+        rankInfo.addClassName("rank-info");
 
         grid = createGrid();
 
-        add(title, rankInfo, grid);
+        add(title, windowTabs, rankInfo, grid);
+        expand(grid);
 
-        loadLeaderboard();
+        showWindow(Window.ALL_TIME);
     }
 
-    private Span createRankInfo() {
-        Span rankInfo = new Span();
-        rankInfo.addClassName("rank-info");
+    private Tabs createWindowTabs() {
+        Map<Tab, Window> windows = new LinkedHashMap<>();
+        for (Window w : Window.values()) {
+            windows.put(new Tab(w.getLabel()), w);
+        }
 
+        Tabs tabs = new Tabs(windows.keySet().toArray(new Tab[0]));
+        tabs.addSelectedChangeListener(event -> showWindow(windows.get(event.getSelectedTab())));
+        return tabs;
+    }
+
+    private void showWindow(Window selected) {
+        window = selected;
+        // Streaks and rating only make sense all-time; windows rank by results
+        allTimeColumns.forEach(column -> column.setVisible(selected == Window.ALL_TIME));
+        updateRankInfo();
+        loadLeaderboard();
+    }
+
+    private void updateRankInfo() {
         playerService.getCurrentPlayer().ifPresent(player -> {
-            int rank = leaderboardService.getPlayerRank(player);
+            int rank = leaderboardService.getPlayerRank(player, window);
             if (rank > 0) {
                 rankInfo.setText("Your rank: #" + rank);
-            } else {
+            } else if (window == Window.ALL_TIME) {
                 rankInfo.setText("Play some games to appear on the leaderboard!");
+            } else {
+                rankInfo.setText("Play a game to appear on this leaderboard!");
             }
         });
-
-        return rankInfo;
     }
 
     private Grid<LeaderboardEntry> createGrid() {
         Grid<LeaderboardEntry> grid = new Grid<>(LeaderboardEntry.class, false);
         grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES, GridVariant.LUMO_COMPACT);
-        grid.setAllRowsVisible(true);
+        grid.setSizeFull();
 
         grid.addColumn(LeaderboardEntry::rank)
                 .setHeader("Rank")
@@ -74,6 +103,11 @@ public class LeaderboardView extends VerticalLayout {
                 .setHeader("Player")
                 .setFlexGrow(1);
 
+        allTimeColumns.add(grid.addColumn(LeaderboardEntry::rating)
+                .setHeader("Rating")
+                .setWidth("90px")
+                .setFlexGrow(0));
+
         grid.addColumn(LeaderboardEntry::wins)
                 .setHeader("Wins")
                 .setWidth("80px")
@@ -89,15 +123,15 @@ public class LeaderboardView extends VerticalLayout {
                 .setWidth("100px")
                 .setFlexGrow(0);
 
-        grid.addColumn(LeaderboardEntry::currentStreak)
+        allTimeColumns.add(grid.addColumn(LeaderboardEntry::currentStreak)
                 .setHeader("Streak")
                 .setWidth("80px")
-                .setFlexGrow(0);
+                .setFlexGrow(0));
 
-        grid.addColumn(LeaderboardEntry::bestStreak)
+        allTimeColumns.add(grid.addColumn(LeaderboardEntry::bestStreak)
                 .setHeader("Best")
                 .setWidth("80px")
-                .setFlexGrow(0);
+                .setFlexGrow(0));
 
         grid.addColumn(LeaderboardEntry::matchesPlayed)
                 .setHeader("Games")
@@ -105,18 +139,21 @@ public class LeaderboardView extends VerticalLayout {
                 .setFlexGrow(0);
 
         // Highlight current player's row
-        grid.setClassNameGenerator(entry -> {
-            String currentUsername = playerService.getCurrentPlayer()
-                    .map(p -> p.getUsername())
-                    .orElse("");
-            return entry.username().equals(currentUsername) ? "current-player-row" : "";
-        });
+        String currentUsername = playerService.getCurrentPlayer()
+                .map(p -> p.getUsername())
+                .orElse("");
+        grid.setClassNameGenerator(entry ->
+                entry.username().equals(currentUsername) ? "current-player-row" : "");
 
         return grid;
     }
 
+    /**
+     * Rows are fetched page by page as the user scrolls.
+     */
     private void loadLeaderboard() {
-        List<LeaderboardEntry> entries = leaderboardService.getTopPlayers(50);
-        grid.setItems(entries);
+        grid.setItems(
+                query -> leaderboardService.getPlayers(window, query.getOffset(), query.getLimit()).stream(),
+                query -> leaderboardService.getRankedCount(window));
     }
 }
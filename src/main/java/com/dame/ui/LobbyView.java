@@ -30,11 +30,16 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.shared.Registration;
-import java.util.Timer;
-import java.util.TimerTask;
 import jakarta.annotation.security.PermitAll;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Route(value = "lobby", layout = MainLayout.class)
@@ -42,12 +47,16 @@ import java.util.Optional;
 @PermitAll
 public class LobbyView extends VerticalLayout {
 
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(30);
+
     private final PlayerService playerService;
     private final OnlinePresenceService presenceService;
     private final ChallengeService challengeService;
     private final MatchmakingService matchmakingService;
     private final OnlineGameService gameService;
     private final LobbyBroadcaster lobbyBroadcaster;
+    private final PeriodicTaskScheduler scheduler;
+    private final HeadToHeadService headToHeadService;
 
     private Grid<OnlinePlayerDTO> playersGrid;
     private Grid<SpectateGameDTO> gamesGrid;
@@ -55,22 +64,35 @@ public class LobbyView extends VerticalLayout {
     private Button findMatchBtn;
     private Span queueStatus;
     private Registration broadcastRegistration;
-    private Timer heartbeatTimer;
+    /** Queue changes, followed only while the player is searching */
+    private Registration matchmakingRegistration;
+    private Registration heartbeatRegistration;
 
     private Player currentPlayer;
 
+    /** Local copies of the lobby lists, kept current by applying versioned deltas */
+    private final Map<Long, OnlinePlayerDTO> onlinePlayers = new LinkedHashMap<>();
+    private final Map<Long, SpectateGameDTO> spectatableGames = new LinkedHashMap<>();
+
+    /** Last applied version per subscribed topic */
+    private final Map<LobbyUpdate.Topic, Long> topicVersions = new EnumMap<>(LobbyUpdate.Topic.class);
+
     public LobbyView(PlayerService playerService,
             OnlinePresenceService presenceService,
             ChallengeService challengeService,
             MatchmakingService matchmakingService,
             OnlineGameService gameService,
-            LobbyBroadcaster lobbyBroadcaster) {
+            LobbyBroadcaster lobbyBroadcaster,
+            PeriodicTaskScheduler scheduler,
+            HeadToHeadService headToHeadService) {
         this.playerService = playerService;
         this.presenceService = presenceService;
         this.challengeService = challengeService;
         this.matchmakingService = matchmakingService;
         this.gameService = gameService;
         this.lobbyBroadcaster = lobbyBroadcaster;
+        this.scheduler = scheduler;
+        this.headToHeadService = headToHeadService;
 
         setSizeFull();
         setPadding(true);
@@ -184,6 +206,11 @@ public class LobbyView extends VerticalLayout {
         Dialog dialog = new Dialog();
         dialog.setHeaderTitle("Challenge " + player.getUsername());
 
+        Span record = new Span(headToHeadService.getRecord(currentPlayer.getId(), player.getId())
+                .map(h2h -> "Your record: " + h2h.getRecordDisplay())
+                .orElse("You haven't played " + player.getUsername() + " yet"));
+        record.addClassName("head-to-head");
+
         TextField messageField = new TextField("Message (optional)");
         messageField.setWidth("100%");
         messageField.setPlaceholder("Let's play!");
@@ -207,7 +234,10 @@ public class LobbyView extends VerticalLayout {
 
         Button cancelBtn = new Button("Cancel", e -> dialog.close());
 
-        dialog.add(messageField);
+        VerticalLayout content = new VerticalLayout(record, messageField);
+        content.setPadding(false);
+
+        dialog.add(content);
         dialog.getFooter().add(cancelBtn, sendBtn);
         dialog.open();
     }
@@ -255,10 +285,31 @@ public class LobbyView extends VerticalLayout {
         findMatchBtn.removeThemeVariants(ButtonVariant.LUMO_PRIMARY, ButtonVariant.LUMO_ERROR);
         findMatchBtn.addThemeVariants(inQueue ? ButtonVariant.LUMO_ERROR : ButtonVariant.LUMO_PRIMARY);
 
+        followQueue(inQueue);
         long queueSize = matchmakingService.getQueueSize();
         queueStatus.setText(inQueue ? "Searching... (" + queueSize + " in queue)" : "");
     }
 
+    /**
+     * Subscribes to matchmaking broadcasts while searching, so the queue size
+     * stays current, and unsubscribes once the search ends.
+     */
+    private void followQueue(boolean inQueue) {
+        if (inQueue && matchmakingRegistration == null) {
+            LobbyUpdate.Topic topic = LobbyUpdate.Topic.MATCHMAKING;
+            getUI().ifPresent(ui -> {
+                // Read before the queue size, so changes while subscribing still arrive as newer
+                topicVersions.put(topic, lobbyBroadcaster.getVersion(topic));
+                matchmakingRegistration = lobbyBroadcaster.subscribe(EnumSet.of(topic),
+                        update -> ui.access(() -> handleLobbyUpdate(update)));
+            });
+        } else if (!inQueue && matchmakingRegistration != null) {
+            matchmakingRegistration.remove();
+            matchmakingRegistration = null;
+            topicVersions.remove(LobbyUpdate.Topic.MATCHMAKING);
+        }
+    }
+
     private Div createChallengesPanel() {
         Div panel = new Div();
         panel.addClassName("challenges-panel");
@@ -351,22 +402,54 @@ public class LobbyView extends VerticalLayout {
     }
 
     private void refreshData() {
-        // Refresh players list
-        List<OnlinePlayerDTO> players = presenceService.getOnlinePlayersExcept(currentPlayer.getId());
-        playersGrid.setItems(players);
-
-        // Refresh challenges
+        loadSnapshot(LobbyUpdate.Topic.PRESENCE);
         refreshChallengesPanel();
+        loadSnapshot(LobbyUpdate.Topic.SPECTATABLE_GAMES);
+        updateMatchmakingUI();
+    }
 
-        // Refresh spectatable games
-        List<OnlineGameSession> sessions = gameService.getSpectatableGames();
-        List<SpectateGameDTO> games = sessions.stream()
-                .map(s -> SpectateGameDTO.fromSession(s, 0)) // TODO: get actual spectator count
-                .toList();
-        gamesGrid.setItems(games);
+    /**
+     * Reloads one topic's list from the services. The version is read first, so
+     * updates published while loading are newer and still get applied.
+     */
+    private void loadSnapshot(LobbyUpdate.Topic topic) {
+        topicVersions.put(topic, lobbyBroadcaster.getVersion(topic));
+        switch (topic) {
+            case PRESENCE -> refreshPlayers();
+            case SPECTATABLE_GAMES -> refreshGames();
+            case MATCHMAKING -> updateMatchmakingUI();
+            default -> {
+                // Not shown in this view
+            }
+        }
+    }
 
-        // Update matchmaking
-        updateMatchmakingUI();
+    private void refreshPlayers() {
+        onlinePlayers.clear();
+        for (OnlinePlayerDTO player : presenceService.getOnlinePlayersExcept(currentPlayer.getId())) {
+            onlinePlayers.put(player.getId(), player);
+        }
+        renderPlayers();
+    }
+
+    private void refreshGames() {
+        spectatableGames.clear();
+        for (OnlineGameSession session : gameService.getSpectatableGames()) {
+            // TODO: get actual spectator count
+            spectatableGames.put(session.getId(), SpectateGameDTO.fromSession(session, 0));
+        }
+        renderGames();
+    }
+
+    private void renderPlayers() {
+        playersGrid.setItems(new ArrayList<>(onlinePlayers.values()));
+    }
+
+    private void renderGames() {
+        List<SpectateGameDTO> games = new ArrayList<>(spectatableGames.values());
+        games.sort(Comparator.comparing(SpectateGameDTO::getLastMoveAt,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        gamesGrid.setItems(games);
     }
 
     @Override
@@ -378,30 +461,24 @@ public class LobbyView extends VerticalLayout {
             presenceService.playerOnline(currentPlayer);
         }
 
-        // Register for lobby updates
+        // Register for updates addressed to us, plus the lobby areas this view shows
         UI ui = attachEvent.getUI();
-        broadcastRegistration = lobbyBroadcaster.register(update -> {
-            ui.access(() -> handleLobbyUpdate(update));
-        });
+        if (currentPlayer != null) {
+            broadcastRegistration = lobbyBroadcaster.register(currentPlayer.getId(),
+                    EnumSet.of(LobbyUpdate.Topic.PRESENCE, LobbyUpdate.Topic.SPECTATABLE_GAMES),
+                    update -> ui.access(() -> handleLobbyUpdate(update)));
+        }
 
         // Initial data load AFTER registering online (fixes race condition)
-        refreshData();
+        if (currentPlayer != null) {
+            refreshData();
+        }
 
-        // Start heartbeat timer to keep presence alive (30 second interval)
+        // Keep presence alive on the shared scheduler (30 second interval, jittered start)
         if (currentPlayer != null) {
-            heartbeatTimer = new Timer(true); // daemon thread
-            heartbeatTimer.scheduleAtFixedRate(new TimerTask() {
-                @Override
-                public void run() {
-                    try {
-                        presenceService.heartbeat(currentPlayer);
-                        // Also refresh data periodically to catch any missed updates
-                        ui.access(() -> refreshData());
-                    } catch (Exception e) {
-                        // UI might be detached, timer will be cancelled in onDetach
-                    }
-                }
-            }, 30000, 30000); // 30 seconds interval
+            Player player = currentPlayer;
+            heartbeatRegistration = scheduler.scheduleWithJitter(
+                    () -> presenceService.heartbeat(player), HEARTBEAT_INTERVAL);
         }
 
         // Check for pending match
@@ -417,15 +494,21 @@ public class LobbyView extends VerticalLayout {
     protected void onDetach(DetachEvent detachEvent) {
         super.onDetach(detachEvent);
 
-        // Cancel heartbeat timer
-        if (heartbeatTimer != null) {
-            heartbeatTimer.cancel();
-            heartbeatTimer = null;
+        // Cancel heartbeat
+        if (heartbeatRegistration != null) {
+            heartbeatRegistration.remove();
+            heartbeatRegistration = null;
         }
 
         // Unregister from broadcasts
         if (broadcastRegistration != null) {
             broadcastRegistration.remove();
+            broadcastRegistration = null;
+        }
+        if (matchmakingRegistration != null) {
+            matchmakingRegistration.remove();
+            matchmakingRegistration = null;
+            topicVersions.remove(LobbyUpdate.Topic.MATCHMAKING);
         }
 
         // Mark player as offline
@@ -434,53 +517,108 @@ public class LobbyView extends VerticalLayout {
         }
     }
 
+    /**
+     * Handles an update routed to this view: either a versioned broadcast on a
+     * subscribed topic or an update addressed to the current player.
+     */
     private void handleLobbyUpdate(LobbyUpdate update) {
+        LobbyUpdate.Topic topic = update.getTopic();
+        if (topic == null || update.getVersion() == 0) {
+            applyUpdate(update);
+            return;
+        }
+
+        Long seen = topicVersions.get(topic);
+        if (seen == null) {
+            return; // Unsubscribed while the update was queued
+        }
+        if (update.getVersion() <= seen) {
+            return; // Already applied while catching up
+        }
+        if (update.getVersion() > seen + 1) {
+            catchUp(topic, seen);
+            return;
+        }
+        applyUpdate(update);
+        topicVersions.put(topic, update.getVersion());
+    }
+
+    /**
+     * Fills a version gap from the broadcaster's history, or reloads the topic
+     * if the gap is too old.
+     */
+    private void catchUp(LobbyUpdate.Topic topic, long seen) {
+        Optional<List<LobbyUpdate>> missed = lobbyBroadcaster.getUpdatesSince(topic, seen);
+        if (missed.isEmpty()) {
+            loadSnapshot(topic);
+            return;
+        }
+        for (LobbyUpdate update : missed.get()) {
+            applyUpdate(update);
+            topicVersions.put(topic, update.getVersion());
+        }
+    }
+
+    private void applyUpdate(LobbyUpdate update) {
         switch (update.getType()) {
-            case PLAYER_ONLINE, PLAYER_OFFLINE, FULL_REFRESH -> {
-                refreshData();
+            case PLAYER_ONLINE, PLAYER_STATUS_CHANGED -> {
+                if (update.getOnlinePlayers() != null) {
+                    for (OnlinePlayerDTO player : update.getOnlinePlayers()) {
+                        if (!player.getId().equals(currentPlayer.getId())) {
+                            onlinePlayers.put(player.getId(), player);
+                        }
+                    }
+                }
+                renderPlayers();
+            }
+            case PLAYER_OFFLINE -> {
+                onlinePlayers.remove(update.getPlayerId());
+                renderPlayers();
             }
+            case FULL_REFRESH -> refreshData();
             case CHALLENGE_RECEIVED -> {
-                // Check if this challenge is for us
-                if (currentPlayer != null) {
-                    refreshChallengesPanel();
-                    Notification.show("New challenge from " + update.getPlayerUsername())
-                            .addThemeVariants(NotificationVariant.LUMO_PRIMARY);
-                }
+                refreshChallengesPanel();
+                Notification.show("New challenge from " + update.getPlayerUsername())
+                        .addThemeVariants(NotificationVariant.LUMO_PRIMARY);
             }
             case CHALLENGE_CANCELLED, CHALLENGE_EXPIRED -> {
                 refreshChallengesPanel();
+                if (update.getType() == LobbyUpdate.UpdateType.CHALLENGE_CANCELLED) {
+                    Notification.show(update.getMessage());
+                }
             }
+            case MATCHMAKING_STARTED, MATCHMAKING_CANCELLED, MATCHMAKING_QUEUE_CHANGED -> updateMatchmakingUI();
             case MATCHMAKING_FOUND -> {
-                // Check if we're matched
-                Optional<OnlineGameSession> match = matchmakingService.checkForMatch(currentPlayer);
-                match.ifPresent(session -> {
-                    Notification.show("Match found!")
-                            .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
-                    getUI().ifPresent(ui -> ui.navigate("online-game/" + session.getId()));
-                });
+                // Sent only to the two matched players
+                Notification.show("Match found!")
+                        .addThemeVariants(NotificationVariant.LUMO_SUCCESS);
+                navigateToGame(update.getSessionId());
             }
             case GAME_STARTED -> {
-                // Check if this game involves us
-                if (update.getSessionId() != null) {
-                    gameService.findById(update.getSessionId()).ifPresent(session -> {
-                        if (session.hasPlayer(currentPlayer)) {
-                            getUI().ifPresent(ui -> ui.navigate("online-game/" + session.getId()));
-                        }
-                    });
-                }
-                // Refresh spectatable games
-                refreshData();
+                // Sent only to the challenger when their challenge is accepted
+                navigateToGame(update.getSessionId());
             }
             case SPECTATABLE_GAMES_CHANGED -> {
-                List<OnlineGameSession> sessions = gameService.getSpectatableGames();
-                List<SpectateGameDTO> games = sessions.stream()
-                        .map(s -> SpectateGameDTO.fromSession(s, 0))
-                        .toList();
-                gamesGrid.setItems(games);
+                if (update.getSpectatableGames() != null) {
+                    for (SpectateGameDTO game : update.getSpectatableGames()) {
+                        spectatableGames.put(game.getSessionId(), game);
+                    }
+                }
+                renderGames();
+            }
+            case SPECTATABLE_GAME_REMOVED -> {
+                spectatableGames.remove(update.getSessionId());
+                renderGames();
             }
             default -> {
                 // Ignore other updates
             }
         }
     }
+
+    private void navigateToGame(Long sessionId) {
+        if (sessionId != null) {
+            getUI().ifPresent(ui -> ui.navigate("online-game/" + sessionId));
+        }
+    }
 }
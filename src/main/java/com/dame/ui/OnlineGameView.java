@@ -1,13 +1,13 @@
 package com.dame.ui;
 
 import com.dame.dto.ChatUpdate;
+import com.dame.dto.GameSessionState;
 import com.dame.dto.GameUpdate;
 import com.dame.dto.MoveDTO;
 import com.dame.dto.MoveResult;
+import com.dame.dto.OnlineGameSnapshot;
 import com.dame.engine.*;
 import com.dame.entity.ChatMessage;
-import com.dame.entity.OnlineGameSession;
-import com.dame.entity.OnlineGameStatus;
 import com.dame.entity.Player;
 import com.dame.service.ChatService;
 import com.dame.service.OnlineGameService;
@@ -68,11 +68,14 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
     private BoardSquare selectedSquare;
     private List<Move> currentValidMoves;
 
-    private OnlineGameSession session;
+    /** Position currently drawn on the squares; null until the grid is first drawn */
+    private BoardState renderedBoard;
+
+    /** The game as last changed; replaced wholesale, never modified */
+    private OnlineGameSnapshot snapshot;
     private Player currentPlayer;
     private com.dame.engine.Player myColor;
     private boolean isSpectator;
-    private GameLogic gameLogic;
 
     private Registration gameRegistration;
     private Registration chatRegistration;
@@ -114,25 +117,22 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
         }
 
         // Load session
-        Optional<OnlineGameSession> optSession = gameService.findById(sessionId);
-        if (optSession.isEmpty()) {
+        Optional<OnlineGameSnapshot> optSnapshot = gameService.getSnapshot(sessionId);
+        if (optSnapshot.isEmpty()) {
             Notification.show("Game session not found")
                     .addThemeVariants(NotificationVariant.LUMO_ERROR);
             event.rerouteTo("lobby");
             return;
         }
 
-        session = optSession.get();
+        snapshot = optSnapshot.get();
 
         // Determine if player is participant or spectator
-        myColor = session.getPlayerColor(currentPlayer);
+        myColor = snapshot.getSession().getPlayerColor(currentPlayer.getId());
         if (myColor == null) {
             isSpectator = true;
         }
 
-        // Reconstruct game state
-        gameLogic = gameService.reconstructGame(session);
-
         buildUI();
         refreshBoard();
     }
@@ -182,8 +182,8 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
         playerInfo.setAlignItems(FlexComponent.Alignment.CENTER);
         playerInfo.setSpacing(true);
 
-        String whiteName = session.getWhitePlayer() != null ? session.getWhitePlayer().getUsername() : "?";
-        String blackName = session.getBlackPlayer() != null ? session.getBlackPlayer().getUsername() : "?";
+        String whiteName = snapshot.getSession().getUsername(com.dame.engine.Player.WHITE);
+        String blackName = snapshot.getSession().getUsername(com.dame.engine.Player.BLACK);
 
         opponentLabel = new Span(whiteName + " vs " + blackName);
         opponentLabel.addClassName("opponent-label");
@@ -252,6 +252,7 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
 
         Div grid = new Div();
         grid.addClassName("board-grid");
+        renderedBoard = null;
 
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
@@ -314,7 +315,7 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
     }
 
     private void loadChatHistory() {
-        List<ChatMessage> messages = chatService.getMessages(session.getId());
+        List<ChatMessage> messages = chatService.getMessages(snapshot.getSessionId());
         for (ChatMessage msg : messages) {
             addChatMessage(msg);
         }
@@ -384,7 +385,7 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
         }
 
         try {
-            chatService.sendMessage(session.getId(), currentPlayer, content);
+            chatService.sendMessage(snapshot.getSessionId(), currentPlayer, content);
             chatInput.clear();
         } catch (Exception e) {
             Notification.show("Failed to send message")
@@ -398,13 +399,12 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
         }
 
         // Check if it's my turn
-        com.dame.engine.Player currentTurn = com.dame.engine.Player.valueOf(session.getCurrentTurn());
-        if (currentTurn != myColor) {
+        if (snapshot.getCurrentPlayer() != myColor) {
             Notification.show("It's not your turn");
             return;
         }
 
-        if (gameLogic.isGameOver()) {
+        if (snapshot.isGameOver()) {
             return;
         }
 
@@ -431,25 +431,16 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
     }
 
     private boolean canSelect(int row, int col) {
-        Piece piece = gameLogic.getBoard().get(row, col);
-        if (piece == null || piece.getOwner() != myColor) {
-            return false;
-        }
-
-        // Check if in multi-jump
-        if (gameLogic.isInMultiJump()) {
-            Position jumpPos = gameLogic.getMultiJumpPosition();
-            return jumpPos.row() == row && jumpPos.col() == col;
-        }
-
-        return !gameLogic.getValidMovesFor(row, col).isEmpty();
+        // Legal moves only start from the mover's pieces (only the jumping piece mid-jump)
+        return snapshot.getBoard().ownerAt(row, col) == myColor
+                && !snapshot.getLegalMoves(row, col).isEmpty();
     }
 
     private void selectSquare(BoardSquare square) {
         selectedSquare = square;
         square.setSelected(true);
 
-        currentValidMoves = gameLogic.getValidMovesFor(square.getRow(), square.getCol());
+        currentValidMoves = snapshot.getLegalMoves(square.getRow(), square.getCol());
         for (Move move : currentValidMoves) {
             squares[move.getEndRow()][move.getEndCol()].setHighlighted(true);
         }
@@ -469,7 +460,7 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
         MoveDTO moveDto = MoveDTO.fromMove(selectedMove);
 
         // Apply move via service
-        MoveResult result = gameService.applyMove(session.getId(), currentPlayer, moveDto);
+        MoveResult result = gameService.applyMove(snapshot.getSessionId(), currentPlayer, moveDto);
 
         if (!result.isSuccess()) {
             Notification.show(result.getErrorMessage())
@@ -478,16 +469,15 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
             return;
         }
 
-        // Reload session and game state
-        session = gameService.findById(session.getId()).orElse(session);
-        gameLogic = gameService.reconstructGame(session);
+        // The result carries the game after the move; no reload needed
+        snapshot = result.getSnapshot();
 
         clearSelection();
         refreshBoard();
 
         // Auto-select if multi-jump continues
-        if (!result.isTurnEnded() && gameLogic.isInMultiJump()) {
-            Position jumpPos = gameLogic.getMultiJumpPosition();
+        if (!result.isTurnEnded() && snapshot.isInMultiJump()) {
+            Position jumpPos = snapshot.getMultiJumpPosition();
             selectSquare(squares[jumpPos.row()][jumpPos.col()]);
         }
     }
@@ -498,9 +488,10 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
             selectedSquare = null;
         }
 
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                squares[r][c].clearHighlights();
+        // Only the targets of the selected piece are highlighted
+        if (currentValidMoves != null) {
+            for (Move move : currentValidMoves) {
+                squares[move.getEndRow()][move.getEndCol()].setHighlighted(false);
             }
         }
 
@@ -508,14 +499,17 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
     }
 
     private void refreshBoard() {
-        Board board = gameLogic.getBoard();
+        BoardState board = snapshot.getBoard();
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.get(row, col);
-                squares[row][col].setPiece(piece);
-            }
+        // Redraw only the squares whose piece changed since the last render
+        long changed = renderedBoard == null ? -1L : renderedBoard.changedSquares(board);
+        for (long mask = changed; mask != 0; mask &= mask - 1) {
+            int square = Long.numberOfTrailingZeros(mask);
+            int row = square / Board.SIZE;
+            int col = square % Board.SIZE;
+            squares[row][col].setPiece(board.ownerAt(row, col), board.isKingAt(row, col));
         }
+        renderedBoard = board;
 
         updateScore();
         updateStatus();
@@ -523,19 +517,20 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
     }
 
     private void updateScore() {
-        scoreLabel.setText("Score: " + session.getWhiteWins() + " - " + session.getBlackWins() +
-                " (Game " + (session.getGamesPlayed() + 1) + ")");
+        GameSessionState state = snapshot.getSession();
+        scoreLabel.setText("Score: " + state.getWhiteWins() + " - " + state.getBlackWins() +
+                " (Game " + (state.getGamesPlayed() + 1) + ")");
     }
 
     private void updateStatus() {
-        GameState state = gameLogic.getGameState();
+        GameSessionState state = snapshot.getSession();
+        GameState gameState = snapshot.getGameState();
 
-        if (state == GameState.IN_PROGRESS) {
-            com.dame.engine.Player turn = com.dame.engine.Player.valueOf(session.getCurrentTurn());
-            String turnName = turn == com.dame.engine.Player.WHITE ? session.getWhitePlayer().getUsername()
-                    : session.getBlackPlayer().getUsername();
+        if (gameState == GameState.IN_PROGRESS) {
+            com.dame.engine.Player turn = snapshot.getCurrentPlayer();
+            String turnName = state.getUsername(turn);
 
-            if (gameLogic.isInMultiJump()) {
+            if (snapshot.isInMultiJump()) {
                 statusLabel.setText(turnName + " must continue jumping");
             } else {
                 statusLabel.setText(turnName + "'s turn");
@@ -547,63 +542,70 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
                 statusLabel.removeClassName("your-turn");
             }
         } else {
-            String winner = state == GameState.WHITE_WINS ? session.getWhitePlayer().getUsername()
-                    : session.getBlackPlayer().getUsername();
+            String winner = state.getUsername(
+                    gameState == GameState.WHITE_WINS ? com.dame.engine.Player.WHITE : com.dame.engine.Player.BLACK);
             statusLabel.setText(winner + " wins this round!");
             statusLabel.addClassName("game-over");
         }
     }
 
     private void forfeitRound() {
-        gameService.forfeitRound(session.getId(), currentPlayer);
-        session = gameService.findById(session.getId()).orElse(session);
-        gameLogic = gameService.reconstructGame(session);
-        refreshBoard();
+        gameService.forfeitRound(snapshot.getSessionId(), currentPlayer).ifPresent(this::showSnapshot);
     }
 
     private void startNewRound() {
-        gameService.startNewRound(session.getId());
-        session = gameService.findById(session.getId()).orElse(session);
-        gameLogic = gameService.reconstructGame(session);
-        refreshBoard();
+        gameService.startNewRound(snapshot.getSessionId()).ifPresent(this::showSnapshot);
     }
 
     private void requestRematch() {
-        gameService.requestRematch(session.getId(), currentPlayer);
-        session = gameService.findById(session.getId()).orElse(session);
+        gameService.requestRematch(snapshot.getSessionId(), currentPlayer);
+        reloadSnapshot();
         updateRematchUI();
     }
 
     private void acceptRematch() {
-        gameService.acceptRematch(session.getId(), currentPlayer);
-        session = gameService.findById(session.getId()).orElse(session);
-        gameLogic = gameService.reconstructGame(session);
-        refreshBoard();
+        gameService.acceptRematch(snapshot.getSessionId(), currentPlayer).ifPresent(this::showSnapshot);
     }
 
     private void declineRematch() {
-        gameService.declineRematch(session.getId(), currentPlayer);
-        session = gameService.findById(session.getId()).orElse(session);
+        gameService.declineRematch(snapshot.getSessionId(), currentPlayer);
+        reloadSnapshot();
         updateRematchUI();
         Notification.show("Rematch declined");
     }
 
+    /**
+     * Show the game as returned by an action of this view.
+     */
+    private void showSnapshot(OnlineGameSnapshot newSnapshot) {
+        snapshot = newSnapshot;
+        refreshBoard();
+    }
+
+    /**
+     * Pick up the game after a rematch request or decline; served from the
+     * session's shared snapshot when it has viewers.
+     */
+    private void reloadSnapshot() {
+        snapshot = gameService.getSnapshot(snapshot.getSessionId()).orElse(snapshot);
+    }
+
     private void updateRematchUI() {
         if (isSpectator || rematchControls == null) {
             return;
         }
 
-        boolean gameOver = gameLogic.isGameOver();
+        GameSessionState state = snapshot.getSession();
+        boolean gameOver = snapshot.isGameOver();
         rematchControls.setVisible(gameOver);
 
         if (!gameOver) {
             return;
         }
 
-        boolean hasPendingRequest = session.hasPendingRematchRequest();
-        Player requestedBy = session.getRematchRequestedBy();
-        boolean iRequestedIt = hasPendingRequest && requestedBy != null
-                && requestedBy.getId().equals(currentPlayer.getId());
+        boolean hasPendingRequest = state.hasPendingRematchRequest();
+        Long requestedById = state.getRematchRequestedById();
+        boolean iRequestedIt = hasPendingRequest && requestedById.equals(currentPlayer.getId());
 
         if (!hasPendingRequest) {
             // No pending request - show "Request Rematch" button
@@ -622,7 +624,7 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
             requestRematchBtn.setVisible(false);
             acceptRematchBtn.setVisible(true);
             declineRematchBtn.setVisible(true);
-            rematchStatus.setText(requestedBy.getUsername() + " wants a rematch!");
+            rematchStatus.setText(state.getUsername(state.getPlayerColor(requestedById)) + " wants a rematch!");
         }
     }
 
@@ -630,7 +632,7 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
     protected void onAttach(AttachEvent attachEvent) {
         super.onAttach(attachEvent);
 
-        if (session == null) {
+        if (snapshot == null) {
             return;
         }
 
@@ -638,16 +640,16 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
 
         // Mark player as connected
         if (!isSpectator) {
-            gameService.setPlayerConnected(session.getId(), currentPlayer, true);
+            gameService.setPlayerConnected(snapshot.getSessionId(), currentPlayer, true);
         }
 
         // Register for game updates
-        gameRegistration = gameBroadcaster.register(session.getId(), update -> {
+        gameRegistration = gameBroadcaster.register(snapshot.getSessionId(), update -> {
             ui.access(() -> handleGameUpdate(update));
         });
 
         // Register for chat updates
-        chatRegistration = chatBroadcaster.register(session.getId(), update -> {
+        chatRegistration = chatBroadcaster.register(snapshot.getSessionId(), update -> {
             ui.access(() -> addChatUpdate(update));
         });
     }
@@ -665,18 +667,24 @@ public class OnlineGameView extends VerticalLayout implements HasUrlParameter<Lo
         }
 
         // Mark player as disconnected
-        if (!isSpectator && session != null) {
-            gameService.setPlayerConnected(session.getId(), currentPlayer, false);
+        if (!isSpectator && snapshot != null) {
+            gameService.setPlayerConnected(snapshot.getSessionId(), currentPlayer, false);
         }
     }
 
     private void handleGameUpdate(GameUpdate update) {
-        // Reload session from database
-        session = gameService.findById(session.getId()).orElse(session);
-        gameLogic = gameService.reconstructGame(session);
-
-        clearSelection();
-        refreshBoard();
+        // The snapshot is shared by every viewer of the session; the mover
+        // already shows it (and may have a multi-jump piece selected)
+        OnlineGameSnapshot published = update.getSnapshot();
+        if (published == null && update.getType() == GameUpdate.UpdateType.SESSION_UPDATED) {
+            // Resync after falling behind, with no shared snapshot held for the session
+            published = gameService.getSnapshot(snapshot.getSessionId()).orElse(snapshot);
+        }
+        if (published != null && published != snapshot) {
+            snapshot = published;
+            clearSelection();
+            refreshBoard();
+        }
 
         // Show notification for significant events
         switch (update.getType()) {
@@ -1,8 +1,10 @@
 package com.dame.ui;
 
+import com.dame.dto.HeadToHeadDTO;
 import com.dame.entity.MatchResult;
 import com.dame.entity.Player;
 import com.dame.entity.PlayerStats;
+import com.dame.service.HeadToHeadService;
 import com.dame.service.LeaderboardService;
 import com.dame.service.PlayerService;
 import com.dame.service.PlayerStatsService;
@@ -20,6 +22,10 @@ import jakarta.annotation.security.PermitAll;
 
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
 
 @Route(value = "profile", layout = MainLayout.class)
 @PageTitle("Profile | Checkers")
@@ -29,13 +35,16 @@ public class ProfileView extends VerticalLayout {
     private final PlayerService playerService;
     private final PlayerStatsService statsService;
     private final LeaderboardService leaderboardService;
+    private final HeadToHeadService headToHeadService;
 
     public ProfileView(PlayerService playerService,
             PlayerStatsService statsService,
-            LeaderboardService leaderboardService) {
+            LeaderboardService leaderboardService,
+            HeadToHeadService headToHeadService) {
         this.playerService = playerService;
         this.statsService = statsService;
         this.leaderboardService = leaderboardService;
+        this.headToHeadService = headToHeadService;
 
         addClassName("profile-view");
         setSizeFull();
@@ -56,11 +65,15 @@ public class ProfileView extends VerticalLayout {
         // Stats card
         Div statsCard = createStatsCard(player);
 
-        // Recent matches
-        H3 matchesTitle = new H3("Recent Matches");
+        // Match history
+        H3 matchesTitle = new H3("Match History");
         Grid<MatchResult> matchesGrid = createMatchesGrid(player);
 
-        add(title, infoCard, statsCard, matchesTitle, matchesGrid);
+        // Records against recent opponents
+        H3 rivalsTitle = new H3("Head-to-Head");
+        Grid<HeadToHeadDTO> rivalsGrid = createRivalsGrid(player);
+
+        add(title, infoCard, statsCard, rivalsTitle, rivalsGrid, matchesTitle, matchesGrid);
     }
 
     private Div createInfoCard(Player player) {
@@ -93,6 +106,7 @@ public class ProfileView extends VerticalLayout {
         statsRow.setJustifyContentMode(JustifyContentMode.AROUND);
 
         statsRow.add(
+                createStatBox("Rating", String.valueOf(stats.getRating()), "stat-rating"),
                 createStatBox("Wins", String.valueOf(stats.getTotalWins()), "stat-wins"),
                 createStatBox("Losses", String.valueOf(stats.getTotalLosses()), "stat-losses"),
                 createStatBox("Draws", String.valueOf(stats.getTotalDraws()), "stat-draws"),
@@ -120,6 +134,42 @@ public class ProfileView extends VerticalLayout {
         return box;
     }
 
+    private Grid<HeadToHeadDTO> createRivalsGrid(Player player) {
+        Grid<HeadToHeadDTO> grid = new Grid<>(HeadToHeadDTO.class, false);
+        grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES, GridVariant.LUMO_COMPACT);
+        grid.setAllRowsVisible(true);
+
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
+
+        grid.addColumn(HeadToHeadDTO::getOpponentUsername)
+                .setHeader("Opponent")
+                .setFlexGrow(1);
+
+        grid.addColumn(HeadToHeadDTO::getWins)
+                .setHeader("Wins")
+                .setWidth("80px")
+                .setFlexGrow(0);
+
+        grid.addColumn(HeadToHeadDTO::getLosses)
+                .setHeader("Losses")
+                .setWidth("80px")
+                .setFlexGrow(0);
+
+        grid.addColumn(HeadToHeadDTO::getDraws)
+                .setHeader("Draws")
+                .setWidth("80px")
+                .setFlexGrow(0);
+
+        grid.addColumn(record -> record.getLastPlayedAt().format(formatter))
+                .setHeader("Last Played")
+                .setWidth("130px")
+                .setFlexGrow(0);
+
+        grid.setItems(headToHeadService.getRecentOpponents(player, 5));
+
+        return grid;
+    }
+
     private Grid<MatchResult> createMatchesGrid(Player player) {
         Grid<MatchResult> grid = new Grid<>(MatchResult.class, false);
         grid.addThemeVariants(GridVariant.LUMO_ROW_STRIPES, GridVariant.LUMO_COMPACT);
@@ -133,7 +183,7 @@ public class ProfileView extends VerticalLayout {
                 .setFlexGrow(0);
 
         grid.addColumn(match -> {
-            if (match.getWinner() == null) {
+            if (match.isDraw()) {
                 return "Draw";
             }
             return match.getWinner().getId().equals(player.getId()) ? "Won" : "Lost";
@@ -144,7 +194,7 @@ public class ProfileView extends VerticalLayout {
 
         grid.addColumn(match -> {
             if (match.getWinner() == null) {
-                return "-";
+                return "-"; // Draw recorded before both players were kept
             }
             if (match.getWinner().getId().equals(player.getId())) {
                 return match.getLoser().getUsername();
@@ -165,10 +215,30 @@ public class ProfileView extends VerticalLayout {
                 .setWidth("100px")
                 .setFlexGrow(0);
 
-        // Load recent matches
-        List<MatchResult> recentMatches = leaderboardService.getRecentMatches(player, 10);
-        grid.setItems(recentMatches);
+        // Fetched page by page as the user scrolls (size unknown until the end)
+        NavigableMap<Integer, MatchResult> lastRowBefore = new TreeMap<>();
+        grid.setItems(query -> fetchMatches(player, lastRowBefore, query.getOffset(), query.getLimit()));
 
         return grid;
     }
+
+    /**
+     * Fetch rows [offset, offset + limit) of a player's history. Each page continues
+     * from the last row of a page already fetched (keyset); the grid asks for pages
+     * in order, so that is normally the row just before {@code offset}.
+     *
+     * @param lastRowBefore for each offset reached so far, the row just before it
+     */
+    private Stream<MatchResult> fetchMatches(Player player, NavigableMap<Integer, MatchResult> lastRowBefore,
+                                             int offset, int limit) {
+        Map.Entry<Integer, MatchResult> start = lastRowBefore.floorEntry(offset);
+        int from = start != null ? start.getKey() : 0;
+        MatchResult after = start != null ? start.getValue() : null;
+
+        List<MatchResult> rows = leaderboardService.getMatchHistory(player, after, offset - from + limit);
+        if (!rows.isEmpty()) {
+            lastRowBefore.put(from + rows.size(), rows.get(rows.size() - 1));
+        }
+        return rows.stream().skip(offset - from);
+    }
 }
@@ -0,0 +1,105 @@
+-- Baseline schema, matching what Hibernate created for the H2 development
+-- database (ddl-auto: create-drop). Kept in step with the PostgreSQL scripts.
+
+CREATE TABLE players (
+    id              BIGINT PRIMARY KEY,
+    username        VARCHAR(255) NOT NULL UNIQUE,
+    password_hash   VARCHAR(255) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    last_login_at   TIMESTAMP(6),
+    is_ai           BOOLEAN      NOT NULL
+);
+
+CREATE TABLE player_stats (
+    id                  BIGINT PRIMARY KEY,
+    player_id           BIGINT  NOT NULL UNIQUE REFERENCES players (id),
+    total_wins          INTEGER NOT NULL,
+    total_losses        INTEGER NOT NULL,
+    total_draws         INTEGER NOT NULL,
+    current_win_streak  INTEGER NOT NULL,
+    best_win_streak     INTEGER NOT NULL,
+    matches_played      INTEGER NOT NULL,
+    rating              INTEGER DEFAULT 1500 NOT NULL
+);
+
+CREATE TABLE online_game_sessions (
+    id                          BIGINT PRIMARY KEY,
+    session_code                VARCHAR(255) NOT NULL UNIQUE,
+    white_player_id             BIGINT REFERENCES players (id),
+    black_player_id             BIGINT REFERENCES players (id),
+    status                      ENUM ('WAITING', 'IN_PROGRESS', 'COMPLETED', 'ABANDONED') NOT NULL,
+    board_state_json            CHARACTER VARYING,
+    current_turn                VARCHAR(255) NOT NULL,
+    game_state                  ENUM ('IN_PROGRESS', 'WHITE_WINS', 'BLACK_WINS', 'DRAW') NOT NULL,
+    multi_jump_position_json    CHARACTER VARYING,
+    white_wins                  INTEGER      NOT NULL,
+    black_wins                  INTEGER      NOT NULL,
+    games_played                INTEGER      NOT NULL,
+    created_at                  TIMESTAMP(6) NOT NULL,
+    last_move_at                TIMESTAMP(6),
+    completed_at                TIMESTAMP(6),
+    white_connected             BOOLEAN      NOT NULL,
+    black_connected             BOOLEAN      NOT NULL,
+    rematch_requested_by_id     BIGINT REFERENCES players (id),
+    rematch_requested_at        TIMESTAMP(6)
+);
+
+CREATE TABLE match_results (
+    id              BIGINT PRIMARY KEY,
+    winner_id       BIGINT REFERENCES players (id),
+    loser_id        BIGINT REFERENCES players (id),
+    outcome         ENUM ('WIN', 'FORFEIT', 'DRAW') NOT NULL,
+    winner_score    INTEGER      NOT NULL,
+    loser_score     INTEGER      NOT NULL,
+    played_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE chat_messages (
+    id                  BIGINT PRIMARY KEY,
+    game_session_id     BIGINT       NOT NULL REFERENCES online_game_sessions (id),
+    sender_id           BIGINT       NOT NULL REFERENCES players (id),
+    content             VARCHAR(500) NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    system_message      BOOLEAN      NOT NULL
+);
+
+CREATE INDEX idx_chat_session_id ON chat_messages (game_session_id);
+CREATE INDEX idx_chat_created_at ON chat_messages (created_at);
+
+CREATE TABLE game_challenges (
+    id                  BIGINT PRIMARY KEY,
+    challenger_id       BIGINT       NOT NULL REFERENCES players (id),
+    challenged_id       BIGINT       NOT NULL REFERENCES players (id),
+    status              ENUM ('PENDING', 'ACCEPTED', 'DECLINED', 'EXPIRED', 'CANCELLED') NOT NULL,
+    message             VARCHAR(200),
+    created_at          TIMESTAMP(6) NOT NULL,
+    expires_at          TIMESTAMP(6) NOT NULL,
+    responded_at        TIMESTAMP(6),
+    game_session_id     BIGINT UNIQUE REFERENCES online_game_sessions (id)
+);
+
+CREATE TABLE matchmaking_entries (
+    id                  BIGINT PRIMARY KEY,
+    player_id           BIGINT       NOT NULL REFERENCES players (id),
+    joined_at           TIMESTAMP(6) NOT NULL,
+    rating              INTEGER DEFAULT 1500 NOT NULL,
+    active              BOOLEAN      NOT NULL,
+    matched_session_id  BIGINT REFERENCES online_game_sessions (id),
+    matched_at          TIMESTAMP(6)
+);
+
+CREATE INDEX idx_matchmaking_active ON matchmaking_entries (active);
+CREATE INDEX idx_matchmaking_joined_at ON matchmaking_entries (joined_at);
+
+CREATE TABLE head_to_head (
+    id              BIGINT PRIMARY KEY,
+    player1_id      BIGINT       NOT NULL REFERENCES players (id),
+    player2_id      BIGINT       NOT NULL REFERENCES players (id),
+    player1_wins    INTEGER      NOT NULL,
+    player2_wins    INTEGER      NOT NULL,
+    draws           INTEGER      NOT NULL,
+    last_played_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_head_to_head_pair UNIQUE (player1_id, player2_id)
+);
+
+CREATE INDEX idx_head_to_head_player2 ON head_to_head (player2_id);
@@ -0,0 +1,12 @@
+-- Entity IDs come from sequences instead of IDENTITY columns, so Hibernate
+-- can assign IDs before inserting and send inserts in JDBC batches.
+-- INCREMENT BY matches allocationSize (50) for Hibernate's pooled optimizer.
+
+CREATE SEQUENCE players_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE player_stats_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE online_game_sessions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE match_results_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE chat_messages_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE game_challenges_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE matchmaking_entries_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE head_to_head_seq START WITH 1 INCREMENT BY 50;
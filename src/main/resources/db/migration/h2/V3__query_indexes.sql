@@ -0,0 +1,32 @@
+-- Indexes for the repository queries on tables that grow with play.
+-- QueryPlanTest checks every query against these with EXPLAIN.
+--
+-- H2 has no partial indexes (see the PostgreSQL script for those) and cannot
+-- combine two indexes for an OR across columns: (white OR black) and
+-- (challenger OR challenged) queries use the status-led indexes here.
+
+-- Sessions: player lookups by status, spectatable games by last move
+CREATE INDEX idx_sessions_white_status ON online_game_sessions (white_player_id, status);
+CREATE INDEX idx_sessions_black_status ON online_game_sessions (black_player_id, status);
+CREATE INDEX idx_sessions_status_last_move ON online_game_sessions (status, last_move_at);
+
+-- Matchmaking: waiting players in join order
+DROP INDEX idx_matchmaking_active;
+DROP INDEX idx_matchmaking_joined_at;
+CREATE INDEX idx_matchmaking_active_joined_at ON matchmaking_entries (active, joined_at);
+
+-- Challenges: expiry sweep, and each player's challenges by status
+CREATE INDEX idx_challenges_status_expires ON game_challenges (status, expires_at);
+CREATE INDEX idx_challenges_challenger ON game_challenges (challenger_id, status, created_at);
+CREATE INDEX idx_challenges_challenged ON game_challenges (challenged_id, status, created_at);
+
+-- Chat: a session's messages in order, and messages after a known ID
+DROP INDEX idx_chat_session_id;
+DROP INDEX idx_chat_created_at;
+CREATE INDEX idx_chat_session_created ON chat_messages (game_session_id, created_at);
+CREATE INDEX idx_chat_session_id ON chat_messages (game_session_id, id);
+
+-- Match history: per-player pages (newest first) and the rating replay
+CREATE INDEX idx_match_results_winner ON match_results (winner_id, played_at DESC, id DESC);
+CREATE INDEX idx_match_results_loser ON match_results (loser_id, played_at DESC, id DESC);
+CREATE INDEX idx_match_results_played_at ON match_results (played_at, id);
@@ -0,0 +1,112 @@
+-- Baseline schema, as previously created by Hibernate (ddl-auto: update).
+--
+-- Databases that predate Flyway are baselined at version 0, so this script
+-- also runs against them: every statement is a no-op for objects that exist,
+-- and columns added since a database was created are filled in.
+
+CREATE TABLE IF NOT EXISTS players (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username        VARCHAR(255) NOT NULL UNIQUE,
+    password_hash   VARCHAR(255) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    last_login_at   TIMESTAMP(6),
+    is_ai           BOOLEAN      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS player_stats (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    player_id           BIGINT  NOT NULL UNIQUE REFERENCES players (id),
+    total_wins          INTEGER NOT NULL,
+    total_losses        INTEGER NOT NULL,
+    total_draws         INTEGER NOT NULL,
+    current_win_streak  INTEGER NOT NULL,
+    best_win_streak     INTEGER NOT NULL,
+    matches_played      INTEGER NOT NULL,
+    rating              INTEGER DEFAULT 1500 NOT NULL
+);
+
+ALTER TABLE player_stats ADD COLUMN IF NOT EXISTS rating INTEGER DEFAULT 1500 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS online_game_sessions (
+    id                          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    session_code                VARCHAR(255) NOT NULL UNIQUE,
+    white_player_id             BIGINT REFERENCES players (id),
+    black_player_id             BIGINT REFERENCES players (id),
+    status                      VARCHAR(255) NOT NULL,
+    board_state_json            TEXT,
+    current_turn                VARCHAR(255) NOT NULL,
+    game_state                  VARCHAR(255) NOT NULL,
+    multi_jump_position_json    TEXT,
+    white_wins                  INTEGER      NOT NULL,
+    black_wins                  INTEGER      NOT NULL,
+    games_played                INTEGER      NOT NULL,
+    created_at                  TIMESTAMP(6) NOT NULL,
+    last_move_at                TIMESTAMP(6),
+    completed_at                TIMESTAMP(6),
+    white_connected             BOOLEAN      NOT NULL,
+    black_connected             BOOLEAN      NOT NULL,
+    rematch_requested_by_id     BIGINT REFERENCES players (id),
+    rematch_requested_at        TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS match_results (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    winner_id       BIGINT REFERENCES players (id),
+    loser_id        BIGINT REFERENCES players (id),
+    outcome         VARCHAR(255) NOT NULL,
+    winner_score    INTEGER      NOT NULL,
+    loser_score     INTEGER      NOT NULL,
+    played_at       TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS chat_messages (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    game_session_id     BIGINT       NOT NULL REFERENCES online_game_sessions (id),
+    sender_id           BIGINT       NOT NULL REFERENCES players (id),
+    content             VARCHAR(500) NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    system_message      BOOLEAN      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_chat_session_id ON chat_messages (game_session_id);
+CREATE INDEX IF NOT EXISTS idx_chat_created_at ON chat_messages (created_at);
+
+CREATE TABLE IF NOT EXISTS game_challenges (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    challenger_id       BIGINT       NOT NULL REFERENCES players (id),
+    challenged_id       BIGINT       NOT NULL REFERENCES players (id),
+    status              VARCHAR(255) NOT NULL,
+    message             VARCHAR(200),
+    created_at          TIMESTAMP(6) NOT NULL,
+    expires_at          TIMESTAMP(6) NOT NULL,
+    responded_at        TIMESTAMP(6),
+    game_session_id     BIGINT UNIQUE REFERENCES online_game_sessions (id)
+);
+
+CREATE TABLE IF NOT EXISTS matchmaking_entries (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    player_id           BIGINT       NOT NULL REFERENCES players (id),
+    joined_at           TIMESTAMP(6) NOT NULL,
+    rating              INTEGER DEFAULT 1500 NOT NULL,
+    active              BOOLEAN      NOT NULL,
+    matched_session_id  BIGINT REFERENCES online_game_sessions (id),
+    matched_at          TIMESTAMP(6)
+);
+
+ALTER TABLE matchmaking_entries ADD COLUMN IF NOT EXISTS rating INTEGER DEFAULT 1500 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_matchmaking_active ON matchmaking_entries (active);
+CREATE INDEX IF NOT EXISTS idx_matchmaking_joined_at ON matchmaking_entries (joined_at);
+
+CREATE TABLE IF NOT EXISTS head_to_head (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    player1_id      BIGINT       NOT NULL REFERENCES players (id),
+    player2_id      BIGINT       NOT NULL REFERENCES players (id),
+    player1_wins    INTEGER      NOT NULL,
+    player2_wins    INTEGER      NOT NULL,
+    draws           INTEGER      NOT NULL,
+    last_played_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_head_to_head_pair UNIQUE (player1_id, player2_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_head_to_head_player2 ON head_to_head (player2_id);
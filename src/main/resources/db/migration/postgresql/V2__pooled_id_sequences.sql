@@ -0,0 +1,38 @@
+-- Entity IDs come from sequences instead of IDENTITY columns, so Hibernate
+-- can assign IDs before inserting and send inserts in JDBC batches.
+--
+-- INCREMENT BY matches allocationSize (50): Hibernate's pooled optimizer
+-- takes one nextval per 50 IDs. Each sequence starts past the highest
+-- existing ID; the first IDs handed out are MAX(id) + 1 onwards.
+
+CREATE SEQUENCE IF NOT EXISTS players_seq INCREMENT BY 50;
+SELECT setval('players_seq', GREATEST((SELECT MAX(id) FROM players), 1));
+ALTER TABLE players ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS player_stats_seq INCREMENT BY 50;
+SELECT setval('player_stats_seq', GREATEST((SELECT MAX(id) FROM player_stats), 1));
+ALTER TABLE player_stats ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS online_game_sessions_seq INCREMENT BY 50;
+SELECT setval('online_game_sessions_seq', GREATEST((SELECT MAX(id) FROM online_game_sessions), 1));
+ALTER TABLE online_game_sessions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS match_results_seq INCREMENT BY 50;
+SELECT setval('match_results_seq', GREATEST((SELECT MAX(id) FROM match_results), 1));
+ALTER TABLE match_results ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS chat_messages_seq INCREMENT BY 50;
+SELECT setval('chat_messages_seq', GREATEST((SELECT MAX(id) FROM chat_messages), 1));
+ALTER TABLE chat_messages ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS game_challenges_seq INCREMENT BY 50;
+SELECT setval('game_challenges_seq', GREATEST((SELECT MAX(id) FROM game_challenges), 1));
+ALTER TABLE game_challenges ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS matchmaking_entries_seq INCREMENT BY 50;
+SELECT setval('matchmaking_entries_seq', GREATEST((SELECT MAX(id) FROM matchmaking_entries), 1));
+ALTER TABLE matchmaking_entries ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS head_to_head_seq INCREMENT BY 50;
+SELECT setval('head_to_head_seq', GREATEST((SELECT MAX(id) FROM head_to_head), 1));
+ALTER TABLE head_to_head ALTER COLUMN id DROP IDENTITY IF EXISTS;
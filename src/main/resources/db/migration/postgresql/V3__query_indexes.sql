@@ -0,0 +1,39 @@
+-- Indexes for the repository queries on tables that grow with play.
+-- QueryPlanTest checks every query against the H2 version of this script.
+--
+-- Queries on (white OR black) and (challenger OR challenged) are served by one
+-- index per player column, combined with a BitmapOr. Partial indexes cover only
+-- the rows a query can match: waiting matchmaking entries and pending
+-- challenges are a small slice of tables that otherwise only grow.
+
+-- Sessions: player lookups by status, spectatable games by last move
+CREATE INDEX IF NOT EXISTS idx_sessions_white_status ON online_game_sessions (white_player_id, status);
+CREATE INDEX IF NOT EXISTS idx_sessions_black_status ON online_game_sessions (black_player_id, status);
+CREATE INDEX IF NOT EXISTS idx_sessions_status_last_move ON online_game_sessions (status, last_move_at);
+
+-- Matchmaking: waiting players in join order, and a player's waiting entry
+DROP INDEX IF EXISTS idx_matchmaking_active;
+DROP INDEX IF EXISTS idx_matchmaking_joined_at;
+CREATE INDEX IF NOT EXISTS idx_matchmaking_waiting ON matchmaking_entries (joined_at) WHERE active;
+CREATE INDEX IF NOT EXISTS idx_matchmaking_waiting_player ON matchmaking_entries (player_id) WHERE active;
+
+-- Challenges: expiry sweep over pending challenges, and each player's
+-- challenges by status
+CREATE INDEX IF NOT EXISTS idx_challenges_pending_expires ON game_challenges (expires_at)
+    WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_challenges_challenger ON game_challenges (challenger_id, status, created_at);
+CREATE INDEX IF NOT EXISTS idx_challenges_challenged ON game_challenges (challenged_id, status, created_at);
+
+-- Chat: a session's messages in order, and messages after a known ID
+DROP INDEX IF EXISTS idx_chat_session_id;
+DROP INDEX IF EXISTS idx_chat_created_at;
+CREATE INDEX IF NOT EXISTS idx_chat_session_created ON chat_messages (game_session_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_chat_session_id ON chat_messages (game_session_id, id);
+
+-- Match history: per-player pages (newest first) and the rating replay
+CREATE INDEX IF NOT EXISTS idx_match_results_winner ON match_results (winner_id, played_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_match_results_loser ON match_results (loser_id, played_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_match_results_played_at ON match_results (played_at, id);
+
+-- head_to_head needs nothing new: uk_head_to_head_pair leads with player1_id
+-- and idx_head_to_head_player2 covers the other side
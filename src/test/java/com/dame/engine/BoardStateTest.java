@@ -0,0 +1,125 @@
+package com.dame.engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardStateTest {
+
+    @Nested
+    @DisplayName("Conversion")
+    class Conversion {
+
+        @Test
+        @DisplayName("should round-trip a board")
+        void shouldRoundTrip() {
+            Board board = new Board();
+            board.setupInitialPosition();
+            board.set(4, 3, new Piece(Player.WHITE, PieceType.KING));
+
+            Board restored = BoardState.of(board).toBoard();
+
+            assertThat(restored.toString()).isEqualTo(board.toString());
+            assertThat(restored.get(4, 3).isKing()).isTrue();
+        }
+
+        @Test
+        @DisplayName("initial state should match the standard setup")
+        void initialMatchesSetup() {
+            Board board = new Board();
+            board.setupInitialPosition();
+
+            assertThat(BoardState.INITIAL).isEqualTo(BoardState.of(board));
+            assertThat(BoardState.INITIAL.countPieces(Player.WHITE)).isEqualTo(12);
+        }
+
+        @Test
+        @DisplayName("should not change when the source board changes")
+        void shouldBeIndependentOfBoard() {
+            Board board = new Board();
+            board.setupInitialPosition();
+            BoardState state = BoardState.of(board);
+
+            board.remove(5, 0);
+
+            assertThat(state.ownerAt(5, 0)).isEqualTo(Player.WHITE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Derivation")
+    class Derivation {
+
+        @Test
+        @DisplayName("withMove should move the piece and leave the original untouched")
+        void withMoveShouldDerive() {
+            BoardState before = BoardState.INITIAL;
+
+            BoardState after = before.withMove(new Move(5, 0, 4, 1));
+
+            assertThat(after.ownerAt(5, 0)).isNull();
+            assertThat(after.ownerAt(4, 1)).isEqualTo(Player.WHITE);
+            assertThat(before.ownerAt(5, 0)).isEqualTo(Player.WHITE);
+        }
+
+        @Test
+        @DisplayName("withMove should remove captured pieces")
+        void withMoveShouldCapture() {
+            Board board = new Board();
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+
+            BoardState after = BoardState.of(board).withMove(new Move(new Position(5, 0), new Position(1, 4),
+                    List.of(new Position(4, 1), new Position(2, 3))));
+
+            assertThat(after.countPieces(Player.BLACK)).isEqualTo(0);
+            assertThat(after.ownerAt(1, 4)).isEqualTo(Player.WHITE);
+        }
+
+        @Test
+        @DisplayName("changedSquares should mark only the squares a move touched")
+        void changedSquaresShouldMarkMove() {
+            Board board = new Board();
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(0, 7, new Piece(Player.BLACK));
+            BoardState before = BoardState.of(board);
+
+            BoardState after = before.withMove(new Move(new Position(5, 0), new Position(3, 2),
+                    List.of(new Position(4, 1))));
+
+            long expected = (1L << (5 * 8)) | (1L << (4 * 8 + 1)) | (1L << (3 * 8 + 2));
+            assertThat(before.changedSquares(after)).isEqualTo(expected);
+            assertThat(after.changedSquares(before)).isEqualTo(expected);
+            assertThat(after.changedSquares(after)).isZero();
+        }
+
+        @Test
+        @DisplayName("withMove should promote a man reaching the back row")
+        void withMoveShouldPromote() {
+            Board board = new Board();
+            board.set(1, 2, new Piece(Player.WHITE));
+
+            BoardState after = BoardState.of(board).withMove(new Move(1, 2, 0, 1));
+
+            assertThat(after.isKingAt(0, 1)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should match the engine after applying the same move")
+        void shouldMatchEngine() {
+            GameLogic game = new GameLogic();
+            BoardState before = BoardState.of(game.getBoard());
+            Move move = game.getValidMoves().get(0);
+
+            game.applyMove(move);
+
+            assertThat(before.withMove(move)).isEqualTo(BoardState.of(game.getBoard()));
+        }
+    }
+}
@@ -101,6 +101,57 @@ class BoardTest {
         }
     }
 
+    @Nested
+    @DisplayName("Piece Index")
+    class PieceIndex {
+
+        @Test
+        @DisplayName("should track piece positions through set, move and remove")
+        void shouldTrackPiecePositions() {
+            board.set(5, 2, new Piece(Player.WHITE));
+            board.set(2, 3, new Piece(Player.BLACK));
+
+            board.movePiece(new Position(5, 2), new Position(4, 3));
+            assertThat(board.getPiecePositions(Player.WHITE)).containsExactly(new Position(4, 3));
+
+            board.remove(2, 3);
+            assertThat(board.getPiecePositions(Player.BLACK)).isEmpty();
+            assertThat(board.getOccupancy(Player.BLACK)).isEqualTo(0L);
+        }
+
+        @Test
+        @DisplayName("should update index when a piece is replaced by an opponent's")
+        void shouldUpdateIndexOnReplace() {
+            board.set(3, 4, new Piece(Player.WHITE));
+            board.set(3, 4, new Piece(Player.BLACK));
+
+            assertThat(board.countPieces(Player.WHITE)).isEqualTo(0);
+            assertThat(board.countPieces(Player.BLACK)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should list positions in row-major order")
+        void shouldListInRowMajorOrder() {
+            board.setupInitialPosition();
+
+            assertThat(board.getPiecePositions(Player.WHITE)).hasSize(12);
+            assertThat(board.getPiecePositions(Player.WHITE).get(0)).isEqualTo(new Position(5, 0));
+            assertThat(board.getPiecePositions(Player.BLACK).get(11)).isEqualTo(new Position(2, 7));
+        }
+
+        @Test
+        @DisplayName("copy should carry the index")
+        void copyShouldCarryIndex() {
+            board.setupInitialPosition();
+            Board copy = board.copy();
+
+            board.remove(0, 1);
+
+            assertThat(copy.countPieces(Player.BLACK)).isEqualTo(12);
+            assertThat(board.countPieces(Player.BLACK)).isEqualTo(11);
+        }
+    }
+
     @Nested
     @DisplayName("Boundary Checks")
     class BoundaryChecks {
@@ -0,0 +1,132 @@
+package com.dame.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaptureTreeTest {
+
+    private Board board;
+    private MoveCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+        calculator = new MoveCalculator(board);
+    }
+
+    @Nested
+    @DisplayName("Tree Shape")
+    class TreeShape {
+
+        @Test
+        @DisplayName("piece without captures has an empty tree")
+        void noCapturesGivesEmptyTree() {
+            board.set(5, 2, new Piece(Player.WHITE));
+
+            CaptureTree tree = calculator.getCaptureTree(new Position(5, 2));
+
+            assertThat(tree.isEmpty()).isTrue();
+            assertThat(tree.toMoves()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("multi-jump shares its first hop")
+        void multiJumpSharesPrefix() {
+            // White man jumps (4,1) to (3,2), then can take (2,1) or (2,3)
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+
+            CaptureTree tree = calculator.getCaptureTree(new Position(5, 0));
+
+            assertThat(tree.getRoot().getChildren()).hasSize(1);
+            CaptureTree.Node firstHop = tree.getRoot().getChildren().get(0);
+            assertThat(firstHop.getLanding()).isEqualTo(new Position(3, 2));
+            assertThat(firstHop.getChildren()).hasSize(2);
+            assertThat(tree.toMoves()).hasSize(2);
+            assertThat(tree.toMoves()).allMatch(m -> m.getCaptureCount() == 2);
+        }
+
+        @Test
+        @DisplayName("flying king branches on every landing square")
+        void kingBranchesOnLandings() {
+            board.set(7, 0, new Piece(Player.WHITE, PieceType.KING));
+            board.set(4, 3, new Piece(Player.BLACK));
+
+            CaptureTree tree = calculator.getCaptureTree(new Position(7, 0));
+
+            // Landings (3,4), (2,5), (1,6), (0,7)
+            assertThat(tree.getRoot().getChildren()).hasSize(4);
+            assertThat(tree.getRoot().getChildren()).allMatch(n -> n.getCaptured().equals(new Position(4, 3)));
+        }
+
+        @Test
+        @DisplayName("search leaves the board unchanged")
+        void searchRestoresBoard() {
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+            String before = board.toString();
+
+            calculator.getCaptureTree(new Position(5, 0));
+
+            assertThat(board.toString()).isEqualTo(before);
+        }
+    }
+
+    @Nested
+    @DisplayName("Path Lookup")
+    class PathLookup {
+
+        @Test
+        @DisplayName("find prefers the complete sequence")
+        void findPrefersLeaf() {
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+
+            CaptureTree tree = calculator.getCaptureTree(new Position(5, 0));
+            CaptureTree.Node end = tree.find(new Position(1, 4), List.of());
+
+            assertThat(end).isNotNull();
+            assertThat(end.isLeaf()).isTrue();
+            assertThat(end.getCaptures()).hasSize(2);
+            assertThat(end.toMove()).isEqualTo(tree.toMoves().get(0));
+        }
+
+        @Test
+        @DisplayName("find returns the inner hop for a partial move")
+        void findReturnsInnerHop() {
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+
+            CaptureTree tree = calculator.getCaptureTree(new Position(5, 0));
+            CaptureTree.Node hop = tree.find(new Position(3, 2), List.of());
+
+            assertThat(hop).isNotNull();
+            assertThat(hop.isLeaf()).isFalse();
+            assertThat(hop.toMoves()).hasSize(1);
+            assertThat(hop.toMoves().get(0).getStart()).isEqualTo(new Position(3, 2));
+        }
+
+        @Test
+        @DisplayName("find rejects captures that do not match the path")
+        void findRejectsWrongCaptures() {
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+
+            CaptureTree tree = calculator.getCaptureTree(new Position(5, 0));
+
+            assertThat(tree.find(new Position(3, 2), List.of(new Position(4, 3)))).isNull();
+            assertThat(tree.find(new Position(3, 2), List.of(new Position(4, 1)))).isNotNull();
+        }
+    }
+}
@@ -201,6 +201,127 @@ class GameLogicTest {
                 assertThat(game.getCurrentPlayer()).isEqualTo(Player.WHITE);
             }
         }
+
+        @Test
+        @DisplayName("should accept a multi-jump one hop at a time")
+        void shouldAcceptHopByHop() {
+            Board board = game.getBoard();
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    board.remove(r, c);
+                }
+            }
+
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+            board.set(0, 7, new Piece(Player.BLACK)); // Keep game going
+
+            // First hop only: lands on an inner node of the capture tree
+            boolean turnEnded = game.applyMove(new Move(new Position(5, 0), new Position(3, 2)));
+
+            assertThat(turnEnded).isFalse();
+            assertThat(game.isInMultiJump()).isTrue();
+            assertThat(game.getMultiJumpPosition()).isEqualTo(new Position(3, 2));
+            assertThat(board.get(4, 1)).isNull();
+
+            // Second hop completes the sequence
+            turnEnded = game.applyMove(new Move(new Position(3, 2), new Position(1, 4)));
+
+            assertThat(turnEnded).isTrue();
+            assertThat(game.isInMultiJump()).isFalse();
+            assertThat(game.getCurrentPlayer()).isEqualTo(Player.BLACK);
+            assertThat(board.get(2, 3)).isNull();
+        }
+
+        @Test
+        @DisplayName("a king should keep jumping while captures remain")
+        void kingMustContinueSequence() {
+            Board board = game.getBoard();
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    board.remove(r, c);
+                }
+            }
+
+            board.set(5, 0, new Piece(Player.WHITE, PieceType.KING));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+            board.set(0, 1, new Piece(Player.BLACK)); // Keep game going
+
+            // 3,2 is an inner hop: capturing 2,3 next is mandatory
+            boolean turnEnded = game.applyMove(new Move(new Position(5, 0), new Position(3, 2)));
+
+            assertThat(turnEnded).isFalse();
+            assertThat(game.isInMultiJump()).isTrue();
+            assertThat(game.getMultiJumpPosition()).isEqualTo(new Position(3, 2));
+            assertThat(game.getCurrentPlayer()).isEqualTo(Player.WHITE);
+            assertThat(board.get(2, 3)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should offer only continuations of the started sequence")
+        void shouldOfferContinuationsOnly() {
+            Board board = game.getBoard();
+            for (int r = 0; r < 8; r++) {
+                for (int c = 0; c < 8; c++) {
+                    board.remove(r, c);
+                }
+            }
+
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+
+            game.applyMove(new Move(new Position(5, 0), new Position(3, 2)));
+
+            List<Move> continuations = game.getValidMoves();
+            assertThat(continuations).hasSize(2);
+            assertThat(continuations).allMatch(m -> m.getStart().equals(new Position(3, 2)));
+            assertThat(continuations).allMatch(m -> m.getCaptureCount() == 1);
+
+            // A move that is not a continuation is rejected and the jump stays pending
+            assertThat(game.applyMove(new Move(new Position(3, 2), new Position(2, 3)))).isFalse();
+            assertThat(game.getMultiJumpPosition()).isEqualTo(new Position(3, 2));
+        }
+
+        @Test
+        @DisplayName("makeMove should report rejection, continuation and turn end")
+        void makeMoveShouldReportOutcome() {
+            Board board = new Board();
+            board.set(5, 0, new Piece(Player.WHITE));
+            board.set(4, 1, new Piece(Player.BLACK));
+            board.set(2, 3, new Piece(Player.BLACK));
+            board.set(0, 7, new Piece(Player.BLACK));
+            game.restoreState(board, Player.WHITE, GameState.IN_PROGRESS, null);
+
+            // Captures are mandatory, so a plain step is rejected and nothing changes
+            assertThat(game.makeMove(new Move(5, 0, 4, 1))).isEqualTo(MoveOutcome.REJECTED);
+            assertThat(game.getBoard().get(5, 0)).isNotNull();
+            assertThat(game.canUndo()).isFalse();
+
+            assertThat(game.makeMove(new Move(new Position(5, 0), new Position(3, 2))))
+                    .isEqualTo(MoveOutcome.JUMP_CONTINUES);
+            assertThat(game.makeMove(new Move(new Position(3, 2), new Position(1, 4))))
+                    .isEqualTo(MoveOutcome.TURN_ENDED);
+            assertThat(game.getCurrentPlayer()).isEqualTo(Player.BLACK);
+        }
+
+        @Test
+        @DisplayName("should continue a multi-jump restored from a saved state")
+        void shouldContinueRestoredMultiJump() {
+            Board board = new Board();
+            board.set(3, 2, new Piece(Player.WHITE));
+            board.set(2, 3, new Piece(Player.BLACK));
+            board.set(0, 7, new Piece(Player.BLACK));
+
+            game.restoreState(board, Player.WHITE, GameState.IN_PROGRESS, new Position(3, 2));
+
+            assertThat(game.getValidMoves()).hasSize(1);
+            assertThat(game.applyMove(new Move(new Position(3, 2), new Position(1, 4)))).isTrue();
+            assertThat(game.getCurrentPlayer()).isEqualTo(Player.BLACK);
+        }
     }
 
     @Nested
@@ -0,0 +1,238 @@
+package com.dame.repository;
+
+import com.dame.engine.GameState;
+import com.dame.entity.ChallengeStatus;
+import com.dame.entity.MatchResult;
+import com.dame.entity.OnlineGameSession;
+import com.dame.entity.OnlineGameStatus;
+import com.dame.entity.Player;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs EXPLAIN on the SQL of every repository query and fails if a table that
+ * grows with play is read with a full table scan.
+ *
+ * <p>The schema is built by the Flyway migrations for H2. Each query is run
+ * once so Hibernate's SQL can be captured, then explained with its parameters
+ * unbound: H2 picks a plan from the conditions, not the values, and prices a
+ * table as if it held rows even when it is empty. Queries that read a whole
+ * table on purpose (startup rebuilds) are not checked. One deliberately
+ * unindexed query makes sure a scan is actually caught.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.dame.repository.QueryPlanTest$RecordingInspector")
+class QueryPlanTest {
+
+    /** Tables that grow with every game played */
+    private static final Set<String> LARGE_TABLES = Set.of(
+            "ONLINE_GAME_SESSIONS", "MATCH_RESULTS", "CHAT_MESSAGES",
+            "GAME_CHALLENGES", "MATCHMAKING_ENTRIES", "HEAD_TO_HEAD");
+
+    /** H2 marks a full scan with a comment such as {@code PUBLIC.MATCH_RESULTS.tableScan} */
+    private static final Pattern TABLE_SCAN =
+            Pattern.compile("/\\*\\s*PUBLIC\\.\"?(\\w+)\"?\\.tableScan", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Records every SQL statement Hibernate prepares.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private OnlineGameSessionRepository sessionRepository;
+
+    @Autowired
+    private MatchmakingEntryRepository matchmakingRepository;
+
+    @Autowired
+    private GameChallengeRepository challengeRepository;
+
+    @Autowired
+    private ChatMessageRepository chatRepository;
+
+    @Autowired
+    private MatchResultRepository matchResultRepository;
+
+    @Autowired
+    private HeadToHeadRepository headToHeadRepository;
+
+    private Player alice;
+    private Player bob;
+    private OnlineGameSession session;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(new Player("alice", "hash"));
+        bob = entityManager.persist(new Player("bob", "hash"));
+
+        session = new OnlineGameSession();
+        session.setSessionCode("PLAN01");
+        session.setWhitePlayer(alice);
+        session.setBlackPlayer(bob);
+        entityManager.persist(session);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("session queries use indexes")
+    void sessionQueries() {
+        assertNoLargeTableScan(() -> sessionRepository.findBySessionCode("PLAN01"));
+        assertNoLargeTableScan(() -> sessionRepository.findStateById(session.getId()));
+        assertNoLargeTableScan(() -> sessionRepository.findByPlayerAndStatusIn(
+                alice, List.of(OnlineGameStatus.WAITING, OnlineGameStatus.IN_PROGRESS)));
+        assertNoLargeTableScan(() -> sessionRepository.findSpectatable(OnlineGameStatus.IN_PROGRESS, GameState.IN_PROGRESS));
+        assertNoLargeTableScan(() -> sessionRepository.findByStatusOrderByCreatedAtAsc(OnlineGameStatus.WAITING));
+        assertNoLargeTableScan(() -> sessionRepository.countByPlayerAndStatus(alice, OnlineGameStatus.IN_PROGRESS, GameState.IN_PROGRESS));
+    }
+
+    @Test
+    @DisplayName("matchmaking queries use indexes")
+    void matchmakingQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        assertNoLargeTableScan(() -> matchmakingRepository.findByPlayerAndActiveTrue(alice));
+        assertNoLargeTableScan(() -> matchmakingRepository.existsByPlayerAndActiveTrue(alice));
+        assertNoLargeTableScan(() -> matchmakingRepository.findByActiveTrueOrderByJoinedAtAsc());
+        assertNoLargeTableScan(() -> matchmakingRepository.markMatched(alice, session, now));
+        assertNoLargeTableScan(() -> matchmakingRepository.deactivateOldEntries(now));
+        assertNoLargeTableScan(() -> matchmakingRepository.countByActiveTrue());
+    }
+
+    @Test
+    @DisplayName("challenge queries use indexes")
+    void challengeQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        assertNoLargeTableScan(() -> challengeRepository.findByChallengedAndStatusOrderByCreatedAtDesc(
+                bob, ChallengeStatus.PENDING));
+        assertNoLargeTableScan(() -> challengeRepository.findByChallengerAndStatusOrderByCreatedAtDesc(
+                alice, ChallengeStatus.PENDING));
+        assertNoLargeTableScan(() -> challengeRepository.findPendingChallenge(alice, bob, ChallengeStatus.PENDING));
+        assertNoLargeTableScan(() -> challengeRepository.existsPendingChallengeBetween(alice, bob));
+        assertNoLargeTableScan(() -> challengeRepository.findChallengedIdsToExpire(now));
+        assertNoLargeTableScan(() -> challengeRepository.expireChallenges(now));
+        assertNoLargeTableScan(() -> challengeRepository.findAllPendingForPlayer(alice));
+    }
+
+    @Test
+    @DisplayName("chat queries use indexes")
+    void chatQueries() {
+        Long sessionId = session.getId();
+        assertNoLargeTableScan(() -> chatRepository.findByGameSessionIdOrderByCreatedAtAsc(sessionId));
+        assertNoLargeTableScan(() -> chatRepository.findRecentMessages(sessionId, PageRequest.of(0, 50)));
+        assertNoLargeTableScan(() -> chatRepository.countByGameSessionId(sessionId));
+        assertNoLargeTableScan(() -> chatRepository.findMessagesAfterId(sessionId, 0L));
+    }
+
+    @Test
+    @DisplayName("match history queries use indexes")
+    void matchResultQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        assertNoLargeTableScan(() -> matchResultRepository.findByPlayer(alice, PageRequest.of(0, 10)));
+        assertNoLargeTableScan(() -> matchResultRepository.findPageByPlayer(alice, PageRequest.of(0, 50)));
+        assertNoLargeTableScan(() -> matchResultRepository.findPageByPlayerBefore(
+                alice, now, Long.MAX_VALUE, PageRequest.of(0, 50)));
+        assertNoLargeTableScan(() -> matchResultRepository.findByWinnerOrderByPlayedAtDesc(alice));
+        assertNoLargeTableScan(() -> matchResultRepository.findByLoserOrderByPlayedAtDesc(alice));
+        assertNoLargeTableScan(() -> matchResultRepository.countWinsByPlayer(alice));
+        assertNoLargeTableScan(() -> matchResultRepository.countLossesByPlayer(alice));
+        assertNoLargeTableScan(() -> {
+            try (Stream<MatchResultRepository.RatedResult> results =
+                         matchResultRepository.streamRatedResultsSince(now.minusDays(30))) {
+                results.count();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("head-to-head queries use indexes")
+    void headToHeadQueries() {
+        assertNoLargeTableScan(() -> headToHeadRepository.findPair(bob.getId(), alice.getId()));
+        assertNoLargeTableScan(() -> headToHeadRepository.findByPlayer(alice, PageRequest.of(0, 5)));
+    }
+
+    @Test
+    @DisplayName("a filter on an unindexed column is reported as a full scan")
+    void detectsTableScan() {
+        assertThatThrownBy(() -> assertNoLargeTableScan(() -> entityManager.getEntityManager()
+                .createQuery("SELECT m FROM MatchResult m WHERE m.winnerScore = :score", MatchResult.class)
+                .setParameter("score", 3)
+                .getResultList()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("full scan of MATCH_RESULTS");
+    }
+
+    /**
+     * Runs a query and checks the plan of every statement it issued.
+     */
+    private void assertNoLargeTableScan(Runnable query) {
+        entityManager.flush();
+        RecordingInspector.statements.clear();
+        query.run();
+
+        List<String> statements = List.copyOf(RecordingInspector.statements);
+        assertThat(statements).as("captured SQL").isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher scan = TABLE_SCAN.matcher(plan);
+            while (scan.find()) {
+                assertThat(LARGE_TABLES)
+                        .as("full scan of %s in plan:%n%s", scan.group(1), plan)
+                        .doesNotContain(scan.group(1).toUpperCase());
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not explain: " + sql, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.dame.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiryWheelTest {
+
+    /** Arbitrary {@link System#nanoTime()} origin; nanoTime values may be negative */
+    private static final long START = -5_000_000_000L;
+
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private static long at(double seconds) {
+        return START + (long) (seconds * SECOND);
+    }
+
+    /** An item with a movable deadline, like a player presence */
+    private static final class Item {
+        final String name;
+        long deadline;
+
+        Item(String name, long deadline) {
+            this.name = name;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final ExpiryWheel<Item> wheel = new ExpiryWheel<>(Duration.ofSeconds(1), Duration.ofSeconds(60), START);
+
+    /** Items visited by the last advance */
+    private List<Item> advanceTo(double seconds) {
+        List<Item> visited = new ArrayList<>();
+        wheel.advance(at(seconds), visited::add);
+        return visited;
+    }
+
+    /**
+     * Advance like the presence sweep: items not yet past their deadline are
+     * filed again, the rest expire.
+     */
+    private List<Item> sweepTo(double seconds) {
+        long now = at(seconds);
+        List<Item> expired = new ArrayList<>();
+        wheel.advance(now, item -> {
+            if (now - item.deadline > 0) {
+                expired.add(item);
+            } else {
+                wheel.schedule(item, item.deadline);
+            }
+        });
+        return expired;
+    }
+
+    @Nested
+    @DisplayName("Tick arithmetic")
+    class Ticks {
+
+        @Test
+        @DisplayName("an item should be visited at the first tick at or after its deadline")
+        void visitedAtDeadlineTick() {
+            Item onTick = new Item("onTick", at(3));
+            Item midTick = new Item("midTick", at(3.2));
+            wheel.schedule(onTick, onTick.deadline);
+            wheel.schedule(midTick, midTick.deadline);
+
+            assertThat(advanceTo(2.99)).isEmpty();
+            assertThat(advanceTo(3)).containsExactly(onTick);
+            assertThat(advanceTo(3.99)).isEmpty();
+            assertThat(advanceTo(4)).containsExactly(midTick);
+            assertThat(wheel.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("a deadline already passed should be filed in the next unvisited slot")
+        void pastDeadline() {
+            advanceTo(10);
+            Item late = new Item("late", at(2));
+            wheel.schedule(late, late.deadline);
+
+            assertThat(advanceTo(10.5)).isEmpty();
+            assertThat(advanceTo(11)).containsExactly(late);
+        }
+
+        @Test
+        @DisplayName("a deadline beyond the horizon should be re-filed until it is due")
+        void beyondHorizon() {
+            Item far = new Item("far", at(150));
+            wheel.schedule(far, far.deadline);
+
+            // Visited once per rotation, re-filed each time
+            assertThat(sweepTo(61)).isEmpty();
+            assertThat(wheel.size()).isEqualTo(1);
+            assertThat(sweepTo(122)).isEmpty();
+            assertThat(sweepTo(150)).isEmpty();
+            assertThat(sweepTo(151)).containsExactly(far);
+        }
+
+        @Test
+        @DisplayName("falling several rotations behind should visit each slot once")
+        void farBehind() {
+            List<Item> items = new ArrayList<>();
+            for (int second = 1; second <= 60; second++) {
+                Item item = new Item("i" + second, at(second));
+                wheel.schedule(item, item.deadline);
+                items.add(item);
+            }
+
+            List<Item> visited = advanceTo(500);
+
+            assertThat(visited).containsExactlyInAnyOrderElementsOf(items);
+            assertThat(wheel.size()).isZero();
+            assertThat(advanceTo(600)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Presence timeout")
+    class Timeout {
+
+        @Test
+        @DisplayName("a heartbeat should move the expiry without touching the wheel")
+        void heartbeatRearms() {
+            Item player = new Item("player", at(60));
+            wheel.schedule(player, player.deadline);
+
+            // Heartbeat at 30s: only the deadline moves
+            player.deadline = at(90);
+
+            assertThat(sweepTo(60)).isEmpty();
+            assertThat(wheel.size()).isEqualTo(1);
+            assertThat(sweepTo(90)).isEmpty();
+            assertThat(sweepTo(91)).containsExactly(player);
+        }
+
+        @Test
+        @DisplayName("a player should still be online exactly at the 60s timeout and expire one tick later")
+        void expiryAtTimeout() {
+            Item player = new Item("player", at(60));
+            wheel.schedule(player, player.deadline);
+
+            assertThat(sweepTo(59)).isEmpty();
+            assertThat(sweepTo(60)).isEmpty();
+            assertThat(sweepTo(60.5)).isEmpty();
+            assertThat(sweepTo(61)).containsExactly(player);
+            assertThat(wheel.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("a sweep every second should expire each player within one tick of their timeout")
+        void steadySweep() {
+            List<Item> players = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                // Logged in at 0.0s, 0.25s, 0.5s, ...
+                Item player = new Item("p" + i, at(60 + i * 0.25));
+                wheel.schedule(player, player.deadline);
+                players.add(player);
+            }
+
+            for (int second = 1; second <= 70; second++) {
+                long now = at(second);
+                for (Item expired : sweepTo(second)) {
+                    assertThat(now - expired.deadline).isPositive().isLessThanOrEqualTo(SECOND);
+                    players.remove(expired);
+                }
+            }
+
+            assertThat(players).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.dame.service;
+
+import com.dame.entity.OnlineGameSession;
+import com.dame.entity.Player;
+import com.dame.repository.OnlineGameSessionRepository;
+import com.dame.service.broadcast.GameSessionBroadcaster;
+import com.dame.service.broadcast.LobbyBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The online players list shows who is playing a round: set once a game or
+ * round is committed, cleared when the round ends or a player leaves.
+ */
+class GamePresenceTest {
+
+    private final OnlinePresenceService presenceService = mock(OnlinePresenceService.class);
+    private final OnlineGameSessionRepository repository = mock(OnlineGameSessionRepository.class);
+
+    private Player white;
+    private Player black;
+    private OnlineGameService gameService;
+
+    @BeforeEach
+    void setUp() {
+        white = player(1L, "alice");
+        black = player(2L, "bob");
+
+        when(repository.save(any())).thenAnswer(invocation -> {
+            OnlineGameSession session = invocation.getArgument(0);
+            if (session.getId() == null) {
+                session.setId(7L);
+            }
+            return session;
+        });
+
+        gameService = new OnlineGameService(repository, new GameSessionBroadcaster(), new LobbyBroadcaster(),
+                presenceService, mock(GameResultRecorder.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Player player(Long id, String username) {
+        Player player = new Player(username, "hash");
+        player.setId(id);
+        return player;
+    }
+
+    @Test
+    @DisplayName("players should only show as in game once the new game is committed")
+    void inGameAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        gameService.createSession(white, black);
+        verify(presenceService, never()).setInGame(anyLong(), anyBoolean());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(presenceService).setInGame(1L, true);
+        verify(presenceService).setInGame(2L, true);
+    }
+
+    @Test
+    @DisplayName("players should show as in game only while a round is played")
+    void followsRounds() {
+        OnlineGameSession session = gameService.createSession(white, black);
+        when(repository.findById(7L)).thenReturn(Optional.of(session));
+
+        gameService.forfeitRound(7L, white);
+        gameService.startNewRound(7L);
+        gameService.forfeitRound(7L, black);
+
+        InOrder order = inOrder(presenceService);
+        order.verify(presenceService).setInGame(1L, true);
+        order.verify(presenceService).setInGame(1L, false);
+        order.verify(presenceService).setInGame(1L, true);
+        order.verify(presenceService).setInGame(1L, false);
+    }
+}
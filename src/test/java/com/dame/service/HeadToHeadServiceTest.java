@@ -0,0 +1,93 @@
+package com.dame.service;
+
+import com.dame.entity.GameOutcome;
+import com.dame.entity.HeadToHead;
+import com.dame.entity.Player;
+import com.dame.repository.HeadToHeadRepository;
+import com.dame.repository.MatchResultRepository;
+import com.dame.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HeadToHeadServiceTest {
+
+    private static final LocalDateTime PLAYED_AT = LocalDateTime.of(2026, 5, 1, 20, 0);
+
+    private final HeadToHeadRepository headToHeadRepository = mock(HeadToHeadRepository.class);
+    private final PlayerRepository playerRepository = mock(PlayerRepository.class);
+
+    private HeadToHeadService service;
+
+    @BeforeEach
+    void setUp() {
+        when(headToHeadRepository.findPair(anyLong(), anyLong())).thenReturn(Optional.empty());
+        when(playerRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Player player = new Player("p" + invocation.getArgument(0), "hash");
+            player.setId(invocation.getArgument(0));
+            return player;
+        });
+
+        service = new HeadToHeadService(headToHeadRepository, mock(MatchResultRepository.class), playerRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<HeadToHead> saved() {
+        ArgumentCaptor<Iterable<HeadToHead>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(headToHeadRepository).saveAll(captor.capture());
+        List<HeadToHead> records = new ArrayList<>();
+        captor.getValue().forEach(records::add);
+        return records;
+    }
+
+    @Test
+    @DisplayName("games of a new pair in one batch should add up in a single record")
+    void newPairInOneBatch() {
+        service.recordResults(List.of(
+                new GameResult(1L, 2L, GameOutcome.WIN, 1, 0, PLAYED_AT),
+                new GameResult(2L, 1L, GameOutcome.FORFEIT, 1, 1, PLAYED_AT.plusMinutes(5)),
+                new GameResult(3L, 1L, GameOutcome.WIN, 1, 0, PLAYED_AT.plusMinutes(6)),
+                new GameResult(1L, 2L, GameOutcome.DRAW, 1, 1, PLAYED_AT.plusMinutes(9))));
+
+        verify(headToHeadRepository, times(2)).findPair(anyLong(), anyLong());
+
+        List<HeadToHead> records = saved();
+        assertThat(records).hasSize(2);
+        HeadToHead pair = records.stream()
+                .filter(record -> record.getPlayer2().getId() == 2L)
+                .findFirst().orElseThrow();
+        assertThat(pair.getPlayer1().getId()).isEqualTo(1L);
+        assertThat(pair.getWinsFor(1L)).isEqualTo(1);
+        assertThat(pair.getWinsFor(2L)).isEqualTo(1);
+        assertThat(pair.getDraws()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("an existing record should be updated rather than replaced")
+    void existingPair() {
+        Player one = playerRepository.getReferenceById(1L);
+        Player two = playerRepository.getReferenceById(2L);
+        HeadToHead existing = new HeadToHead(two, one);
+        existing.recordResult(2L, PLAYED_AT.minusDays(1));
+        when(headToHeadRepository.findPair(1L, 2L)).thenReturn(Optional.of(existing));
+
+        service.recordResults(List.of(new GameResult(1L, 2L, GameOutcome.WIN, 1, 0, PLAYED_AT)));
+
+        assertThat(saved()).containsExactly(existing);
+        assertThat(existing.getWinsFor(1L)).isEqualTo(1);
+        assertThat(existing.getWinsFor(2L)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.dame.service;
+
+import com.dame.service.LeaderboardIndex.RankedPlayer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardIndexTest {
+
+    private static RankedPlayer player(long id, int rating, int wins, int losses, int draws) {
+        int played = wins + losses + draws;
+        return new RankedPlayer(id, "p" + id, rating, wins, losses, draws,
+                played == 0 ? 0 : (double) wins / played, 0, 0, played);
+    }
+
+    private static RankedPlayer player(long id, int rating, int wins) {
+        return player(id, rating, wins, 1, 0);
+    }
+
+    @Nested
+    @DisplayName("Ranks and pages")
+    class RanksAndPages {
+
+        private final LeaderboardIndex index = new LeaderboardIndex();
+
+        @Test
+        @DisplayName("should rank by rating, then wins, then player ID")
+        void order() {
+            index.put(player(1, 1500, 3));
+            index.put(player(2, 1800, 0));
+            index.put(player(3, 1500, 7));
+            index.put(player(4, 1500, 3));
+            index.put(player(5, 1400, 9));
+
+            assertThat(index.page(0, 10)).extracting(RankedPlayer::playerId).containsExactly(2L, 3L, 1L, 4L, 5L);
+            assertThat(index.rankOf(2L)).isEqualTo(1);
+            assertThat(index.rankOf(4L)).isEqualTo(4);
+            assertThat(index.rankOf(5L)).isEqualTo(5);
+            assertThat(index.size()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("should move a re-rated player and drop one with no games")
+        void reRank() {
+            index.put(player(1, 1600, 1));
+            index.put(player(2, 1500, 1));
+            index.put(player(3, 1400, 1));
+
+            index.put(player(3, 1700, 2));
+            assertThat(index.rankOf(3L)).isEqualTo(1);
+            assertThat(index.rankOf(1L)).isEqualTo(2);
+            assertThat(index.get(3L).rating()).isEqualTo(1700);
+
+            index.put(player(1, 1500, 0, 0, 0));
+            assertThat(index.rankOf(1L)).isEqualTo(-1);
+            assertThat(index.get(1L)).isNull();
+            assertThat(index.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should page from any offset and stop at the end")
+        void pages() {
+            for (long id = 1; id <= 10; id++) {
+                index.put(player(id, 2000 - (int) id * 10, 1));
+            }
+
+            assertThat(index.page(0, 3)).extracting(RankedPlayer::playerId).containsExactly(1L, 2L, 3L);
+            assertThat(index.page(4, 3)).extracting(RankedPlayer::playerId).containsExactly(5L, 6L, 7L);
+            assertThat(index.page(8, 5)).extracting(RankedPlayer::playerId).containsExactly(9L, 10L);
+            assertThat(index.page(10, 5)).isEmpty();
+            assertThat(index.page(20, 5)).isEmpty();
+            assertThat(index.page(3, 0)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should replace every entry at once")
+        void replaceAll() {
+            index.put(player(1, 1500, 1));
+            index.put(player(2, 1600, 1));
+
+            index.replaceAll(List.of(player(3, 1400, 1), player(2, 1300, 1), player(4, 1200, 0, 0, 0)));
+
+            assertThat(index.page(0, 10)).extracting(RankedPlayer::playerId).containsExactly(3L, 2L);
+            assertThat(index.rankOf(1L)).isEqualTo(-1);
+            assertThat(index.rankOf(4L)).isEqualTo(-1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Against a sorted list")
+    class Oracle {
+
+        @Test
+        @DisplayName("should match a sorted list after random updates")
+        void leaderboardOrder() {
+            checkRandomUpdates(new LeaderboardIndex(), LeaderboardIndex.LEADERBOARD_ORDER, 11);
+        }
+
+        @Test
+        @DisplayName("should match a sorted list in results order")
+        void resultsOrder() {
+            checkRandomUpdates(new LeaderboardIndex(LeaderboardIndex.RESULTS_ORDER), LeaderboardIndex.RESULTS_ORDER, 12);
+        }
+
+        private void checkRandomUpdates(LeaderboardIndex index, Comparator<RankedPlayer> order, long seed) {
+            Random random = new Random(seed);
+            Map<Long, RankedPlayer> expected = new HashMap<>();
+
+            for (int step = 0; step < 3000; step++) {
+                if (step == 1500) {
+                    // Rebuild from a fresh set, as at startup
+                    List<RankedPlayer> players = new ArrayList<>();
+                    for (long id = 1; id <= 150; id++) {
+                        players.add(randomPlayer(random, id));
+                    }
+                    index.replaceAll(players);
+                    expected.clear();
+                    players.stream().filter(RankedPlayer::isRanked).forEach(p -> expected.put(p.playerId(), p));
+                } else {
+                    // Narrow ranges so ties on rating and wins are common
+                    RankedPlayer player = randomPlayer(random, 1 + random.nextInt(200));
+                    index.put(player);
+                    if (player.isRanked()) {
+                        expected.put(player.playerId(), player);
+                    } else {
+                        expected.remove(player.playerId());
+                    }
+                }
+
+                if (step % 50 == 0) {
+                    assertMatches(index, expected, order, random);
+                }
+            }
+            assertMatches(index, expected, order, random);
+        }
+
+        private RankedPlayer randomPlayer(Random random, long id) {
+            // One in ten has no games and is unranked
+            if (random.nextInt(10) == 0) {
+                return player(id, 1500, 0, 0, 0);
+            }
+            return player(id, 1450 + random.nextInt(20) * 5, random.nextInt(6), random.nextInt(4), random.nextInt(3));
+        }
+
+        private void assertMatches(LeaderboardIndex index, Map<Long, RankedPlayer> expected,
+                                   Comparator<RankedPlayer> order, Random random) {
+            List<RankedPlayer> sorted = new ArrayList<>(expected.values());
+            sorted.sort(order);
+
+            assertThat(index.size()).isEqualTo(sorted.size());
+            assertThat(index.page(0, Integer.MAX_VALUE)).isEqualTo(sorted);
+            for (int i = 0; i < sorted.size(); i++) {
+                assertThat(index.rankOf(sorted.get(i).playerId())).isEqualTo(i + 1);
+            }
+            for (long id = 1; id <= 200; id++) {
+                if (!expected.containsKey(id)) {
+                    assertThat(index.rankOf(id)).isEqualTo(-1);
+                }
+            }
+            for (int i = 0; i < 10; i++) {
+                int offset = random.nextInt(sorted.size() + 5);
+                int limit = random.nextInt(30);
+                List<RankedPlayer> slice = sorted.subList(Math.min(offset, sorted.size()),
+                        Math.min(offset + limit, sorted.size()));
+                assertThat(index.page(offset, limit)).isEqualTo(slice);
+            }
+        }
+    }
+}
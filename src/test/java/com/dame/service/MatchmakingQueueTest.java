@@ -0,0 +1,299 @@
+package com.dame.service;
+
+import com.dame.entity.Player;
+import com.dame.service.MatchmakingQueue.JoinResult;
+import com.dame.service.MatchmakingQueue.Pairing;
+import com.dame.service.MatchmakingQueue.QueuedPlayer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchmakingQueueTest {
+
+    private static final long NOW = 1_000_000_000_000L;
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final MatchmakingQueue queue = new MatchmakingQueue();
+
+    private long nextId = 1;
+
+    /** A player with the given rating who has waited the given number of seconds at {@link #NOW} */
+    private QueuedPlayer waiting(int rating, long waitedSeconds) {
+        Player player = new Player("p" + nextId, "hash");
+        player.setId(nextId++);
+        return new QueuedPlayer(player, rating, NOW - waitedSeconds * SECOND);
+    }
+
+    private QueuedPlayer queued(int rating, long waitedSeconds) {
+        QueuedPlayer player = waiting(rating, waitedSeconds);
+        queue.requeue(player);
+        return player;
+    }
+
+    private static List<Integer> ratings(Pairing pairing) {
+        return List.of(pairing.first().rating(), pairing.second().rating());
+    }
+
+    @Nested
+    @DisplayName("Rating window")
+    class Window {
+
+        @Test
+        @DisplayName("should widen by 10 per second from 100 up to 800")
+        void widens() {
+            QueuedPlayer player = waiting(1200, 0);
+            long joined = player.joinedAtNanos();
+
+            assertThat(player.window(joined)).isEqualTo(100);
+            assertThat(player.window(joined + SECOND - 1)).isEqualTo(100);
+            assertThat(player.window(joined + 30 * SECOND)).isEqualTo(400);
+            assertThat(player.window(joined + 70 * SECOND)).isEqualTo(800);
+            assertThat(player.window(joined + 3600 * SECOND)).isEqualTo(800);
+            // Clock read before the join
+            assertThat(player.window(joined - SECOND)).isEqualTo(100);
+        }
+    }
+
+    @Nested
+    @DisplayName("joinOrMatch")
+    class JoinOrMatch {
+
+        @Test
+        @DisplayName("should pair the joiner with the closest-rated compatible player")
+        void closest() {
+            queued(1150, 0);
+            QueuedPlayer above = queued(1230, 0);
+            queued(1290, 0);
+
+            JoinResult result = queue.joinOrMatch(waiting(1200, 0), NOW);
+
+            assertThat(result.opponent()).isEqualTo(above);
+            assertThat(queue.size()).isEqualTo(2);
+            assertThat(queue.contains(above.playerId())).isFalse();
+        }
+
+        @Test
+        @DisplayName("should skip a closer player whose own window is still too narrow")
+        void skipsNarrowWindow() {
+            queued(1400, 0);                           // window 100
+            QueuedPlayer patient = queued(1500, 30);   // window 400
+
+            // Recovered joiner who has already waited 30s (window 400)
+            JoinResult result = queue.joinOrMatch(waiting(1200, 30), NOW);
+
+            assertThat(result.opponent()).isEqualTo(patient);
+            assertThat(queue.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should require the gap to fit both windows")
+        void asymmetricWindows() {
+            QueuedPlayer patient = queued(1200, 30);   // window 400
+            QueuedPlayer joiner = waiting(1450, 0);    // window 100
+
+            JoinResult result = queue.joinOrMatch(joiner, NOW);
+
+            assertThat(result.matched()).isFalse();
+            assertThat(queue.contains(patient.playerId())).isTrue();
+            assertThat(queue.contains(joiner.playerId())).isTrue();
+
+            // After 15s the joiner accepts a 250 gap; the longer wait plays first
+            List<Pairing> pairings = queue.pairAll(NOW + 15 * SECOND);
+            assertThat(pairings).containsExactly(new Pairing(patient, joiner));
+        }
+
+        @Test
+        @DisplayName("should leave the queue unchanged for a player already waiting")
+        void alreadyQueued() {
+            QueuedPlayer player = queued(1200, 0);
+
+            JoinResult result = queue.joinOrMatch(player, NOW);
+
+            assertThat(result.alreadyQueued()).isTrue();
+            assertThat(result.matched()).isFalse();
+            assertThat(queue.size()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("pairAll")
+    class PairAll {
+
+        @Test
+        @DisplayName("should pair 1260 with 1300 in the documented example")
+        void documentedExample() {
+            queued(1200, 0);
+            queued(1260, 0);
+            queued(1300, 0);
+            queued(1900, 0);
+
+            List<Pairing> pairings = queue.pairAll(NOW);
+
+            assertThat(pairings).hasSize(1);
+            assertThat(ratings(pairings.get(0))).containsExactlyInAnyOrder(1260, 1300);
+            assertThat(queue.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should prefer more matches over a smaller total gap")
+        void moreMatchesFirst() {
+            queued(1000, 0);
+            queued(1060, 0);
+            queued(1100, 0);
+            queued(1160, 0);
+
+            List<Pairing> pairings = queue.pairAll(NOW);
+
+            assertThat(pairings).hasSize(2);
+            assertThat(queue.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should pair across a newcomer whose window is still narrow")
+        void acrossNewcomer() {
+            QueuedPlayer low = queued(1000, 70);       // window 800
+            QueuedPlayer newcomer = queued(1150, 0);   // window 100
+            QueuedPlayer high = queued(1500, 70);      // window 800
+
+            List<Pairing> pairings = queue.pairAll(NOW);
+
+            assertThat(pairings).hasSize(1);
+            assertThat(List.of(pairings.get(0).first(), pairings.get(0).second()))
+                    .containsExactlyInAnyOrder(low, high);
+            assertThat(queue.contains(newcomer.playerId())).isTrue();
+            assertThat(queue.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should match a brute-force optimum on random queues")
+        void matchesOracle() {
+            Random random = new Random(42);
+            for (int round = 0; round < 500; round++) {
+                // With one window the best pairs are always neighbours
+                long waited = random.nextInt(40);
+                checkAgainstOracle(random, 2 + random.nextInt(7), () -> waited);
+            }
+        }
+
+        @Test
+        @DisplayName("should match a brute-force optimum when windows differ")
+        void matchesOracleMixedWindows() {
+            Random random = new Random(43);
+            for (int round = 0; round < 500; round++) {
+                // Small enough that every pair is within the look-ahead
+                checkAgainstOracle(random, 2 + random.nextInt(MatchmakingQueue.LOOK_AHEAD),
+                        () -> random.nextInt(80));
+            }
+        }
+
+        private void checkAgainstOracle(Random random, int n, LongSupplier waitedSeconds) {
+            MatchmakingQueue fresh = new MatchmakingQueue();
+            List<QueuedPlayer> players = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                QueuedPlayer player = waiting(1000 + random.nextInt(600), waitedSeconds.getAsLong());
+                players.add(player);
+                fresh.requeue(player);
+            }
+
+            List<Pairing> pairings = fresh.pairAll(NOW);
+
+            long[] best = bestMatching(players, new boolean[n], NOW);
+            long gap = pairings.stream()
+                    .mapToLong(p -> Math.abs(p.first().rating() - p.second().rating()))
+                    .sum();
+            assertThat(pairings).hasSize((int) best[0]);
+            assertThat(gap).isEqualTo(best[1]);
+            assertThat(fresh.size()).isEqualTo(n - 2 * pairings.size());
+            for (Pairing pairing : pairings) {
+                int pairGap = Math.abs(pairing.first().rating() - pairing.second().rating());
+                assertThat(pairGap).isLessThanOrEqualTo(pairing.first().window(NOW));
+                assertThat(pairGap).isLessThanOrEqualTo(pairing.second().window(NOW));
+            }
+        }
+
+        /**
+         * @return {most pairs, least total gap} over every matching of the unused players
+         */
+        private long[] bestMatching(List<QueuedPlayer> players, boolean[] used, long now) {
+            int first = 0;
+            while (first < players.size() && used[first]) {
+                first++;
+            }
+            if (first >= players.size() - 1) {
+                return new long[]{0, 0};
+            }
+
+            used[first] = true;
+            long[] best = bestMatching(players, used, now); // first stays unpaired
+            QueuedPlayer a = players.get(first);
+            for (int other = first + 1; other < players.size(); other++) {
+                QueuedPlayer b = players.get(other);
+                int gap = Math.abs(a.rating() - b.rating());
+                if (used[other] || gap > a.window(now) || gap > b.window(now)) {
+                    continue;
+                }
+                used[other] = true;
+                long[] rest = bestMatching(players, used, now);
+                used[other] = false;
+                long pairs = rest[0] + 1;
+                long total = rest[1] + gap;
+                if (pairs > best[0] || (pairs == best[0] && total < best[1])) {
+                    best = new long[]{pairs, total};
+                }
+            }
+            used[first] = false;
+            return best;
+        }
+
+        @Test
+        @DisplayName("should pair a few thousand waiting players in about a millisecond")
+        void fewThousandPlayers() {
+            Random random = new Random(7);
+            long fastest = Long.MAX_VALUE;
+            int paired = 0;
+            for (int run = 0; run < 20; run++) {
+                MatchmakingQueue large = new MatchmakingQueue();
+                for (int i = 0; i < 5000; i++) {
+                    large.requeue(waiting(800 + random.nextInt(1600), random.nextInt(60)));
+                }
+
+                long start = System.nanoTime();
+                paired = large.pairAll(NOW).size();
+                fastest = Math.min(fastest, System.nanoTime() - start);
+            }
+
+            assertThat(paired).isGreaterThan(2000);
+            // Generous bound so a loaded build machine does not fail the test
+            assertThat(fastest).isLessThan(10_000_000L);
+        }
+    }
+
+    @Nested
+    @DisplayName("removeJoinedBefore")
+    class RemoveJoinedBefore {
+
+        @Test
+        @DisplayName("should remove only players who joined before the cutoff")
+        void removesStale() {
+            QueuedPlayer stale = queued(1200, 1800);
+            QueuedPlayer atCutoff = queued(1500, 1000);
+            QueuedPlayer fresh = queued(1800, 10);
+
+            List<QueuedPlayer> removed = queue.removeJoinedBefore(NOW - 1000 * SECOND);
+
+            assertThat(removed).containsExactly(stale);
+            assertThat(queue.contains(stale.playerId())).isFalse();
+            assertThat(queue.contains(atCutoff.playerId())).isTrue();
+            assertThat(queue.contains(fresh.playerId())).isTrue();
+            assertThat(queue.remove(stale.playerId())).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.dame.service;
+
+import com.dame.dto.MoveDTO;
+import com.dame.dto.MoveResult;
+import com.dame.engine.BoardStateSerializer;
+import com.dame.engine.GameLogic;
+import com.dame.engine.Move;
+import com.dame.entity.OnlineGameSession;
+import com.dame.entity.OnlineGameStatus;
+import com.dame.entity.Player;
+import com.dame.repository.OnlineGameSessionRepository;
+import com.dame.service.broadcast.GameSessionBroadcaster;
+import com.dame.service.broadcast.LobbyBroadcaster;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Moves start from the session's last broadcast snapshot while it still shows
+ * the stored position, and from the stored board otherwise.
+ */
+class MoveFromSnapshotTest {
+
+    private static final Long SESSION_ID = 9L;
+
+    private final GameSessionBroadcaster broadcaster = new GameSessionBroadcaster();
+
+    private Player white;
+    private Player black;
+    private OnlineGameSession session;
+    private OnlineGameService gameService;
+    private Registration viewer;
+
+    @BeforeEach
+    void setUp() {
+        white = player(1L, "alice");
+        black = player(2L, "bob");
+
+        session = new OnlineGameSession();
+        session.setId(SESSION_ID);
+        session.setWhitePlayer(white);
+        session.setBlackPlayer(black);
+        session.setStatus(OnlineGameStatus.IN_PROGRESS);
+
+        OnlineGameSessionRepository repository = mock(OnlineGameSessionRepository.class);
+        when(repository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        gameService = new OnlineGameService(repository, broadcaster, new LobbyBroadcaster(),
+                mock(OnlinePresenceService.class), mock(GameResultRecorder.class));
+
+        // A watched session keeps its latest snapshot
+        viewer = broadcaster.register(SESSION_ID, update -> { });
+        gameService.startNewRound(SESSION_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        viewer.remove();
+    }
+
+    private static Player player(Long id, String username) {
+        Player player = new Player(username, "hash");
+        player.setId(id);
+        return player;
+    }
+
+    private static Move firstMove(GameLogic game) {
+        return game.getValidMoves().get(0);
+    }
+
+    @Test
+    @DisplayName("moves should continue from the cached snapshot while it matches the row")
+    void fromSnapshot() {
+        GameLogic expected = new GameLogic();
+
+        for (int i = 0; i < 6; i++) {
+            Move move = firstMove(expected);
+            Player mover = expected.getCurrentPlayer() == com.dame.engine.Player.WHITE ? white : black;
+
+            MoveResult result = gameService.applyMove(SESSION_ID, mover, MoveDTO.fromMove(move));
+            expected.applyMove(move);
+
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(broadcaster.getLatestSnapshot(SESSION_ID)).containsSame(result.getSnapshot());
+        }
+
+        assertThat(session.getBoardStateJson()).isEqualTo(BoardStateSerializer.serialize(expected.getBoard()));
+        assertThat(session.getCurrentTurn()).isEqualTo(expected.getCurrentPlayer().name());
+    }
+
+    @Test
+    @DisplayName("a row changed behind the snapshot's back should be read from the stored board")
+    void staleSnapshot() {
+        // The row moves on without a broadcast: white has already played
+        GameLogic row = new GameLogic();
+        row.applyMove(firstMove(row));
+        session.setBoardStateJson(BoardStateSerializer.serialize(row.getBoard()));
+        session.setCurrentTurn(row.getCurrentPlayer().name());
+
+        // Only legal in the stored position, where black is to move
+        Move reply = firstMove(row);
+        MoveResult result = gameService.applyMove(SESSION_ID, black, MoveDTO.fromMove(reply));
+
+        assertThat(result.isSuccess()).isTrue();
+        row.applyMove(reply);
+        assertThat(session.getBoardStateJson()).isEqualTo(BoardStateSerializer.serialize(row.getBoard()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.dame.service;
+
+import com.dame.entity.GameOutcome;
+import com.dame.entity.Player;
+import com.dame.entity.PlayerStats;
+import com.dame.repository.MatchResultRepository;
+import com.dame.repository.MatchResultRepository.RatedResult;
+import com.dame.repository.PlayerRepository;
+import com.dame.repository.PlayerStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rating replay: {@link PlayerStatsService#recomputeRatings()} over a known history.
+ */
+class PlayerStatsServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final PlayerStatsRepository statsRepository = mock(PlayerStatsRepository.class);
+    private final MatchResultRepository matchResultRepository = mock(MatchResultRepository.class);
+
+    private PlayerStatsService service;
+    private List<PlayerStats> allStats;
+    private Map<Long, PlayerStats> statsById;
+
+    private record Result(Long getWinnerId, Long getLoserId, GameOutcome getOutcome, LocalDateTime getPlayedAt)
+            implements RatedResult {
+    }
+
+    @BeforeEach
+    void setUp() {
+        allStats = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            Player player = new Player("p" + id, "hash");
+            player.setId(id);
+            allStats.add(new PlayerStats(player));
+        }
+        statsById = allStats.stream().collect(Collectors.toMap(stats -> stats.getPlayer().getId(), Function.identity()));
+
+        when(statsRepository.findAllWithPlayer()).thenReturn(allStats);
+        when(statsRepository.findAllWithPlayerByPlayerIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(statsById::get).collect(Collectors.toList());
+        });
+
+        service = new PlayerStatsService(statsRepository, matchResultRepository,
+                mock(OnlinePresenceService.class), mock(LeaderboardService.class),
+                mock(HeadToHeadService.class), mock(PlayerRepository.class), false);
+    }
+
+    private int rating(long playerId) {
+        return statsById.get(playerId).getRating();
+    }
+
+    @Test
+    @DisplayName("should replay a known history to known ratings")
+    void knownHistory() {
+        List<RatedResult> history = List.of(
+                new Result(1L, 2L, GameOutcome.WIN, START),
+                new Result(1L, 3L, GameOutcome.FORFEIT, START.plusMinutes(1)),
+                new Result(2L, 3L, GameOutcome.DRAW, START.plusMinutes(2)),
+                new Result(3L, 1L, GameOutcome.WIN, START.plusMinutes(3)));
+        when(matchResultRepository.streamRatedResults()).thenAnswer(invocation -> history.stream());
+        // A rating with no games behind it goes back to the default
+        statsById.get(4L).setRating(1234);
+
+        int rated = service.recomputeRatings();
+
+        assertThat(rated).isEqualTo(3);
+        assertThat(rating(1)).isEqualTo(1516);
+        assertThat(rating(2)).isEqualTo(1480);
+        assertThat(rating(3)).isEqualTo(1504);
+        assertThat(rating(4)).isEqualTo(PlayerStats.DEFAULT_RATING);
+    }
+
+    @Test
+    @DisplayName("should reproduce the ratings recorded game by game")
+    void matchesIncrementalRecording() {
+        Random random = new Random(3);
+        List<RatedResult> history = new ArrayList<>();
+        // Long enough for several players to leave the provisional K
+        for (int game = 0; game < 300; game++) {
+            long winner = 1 + random.nextInt(6);
+            long loser = 1 + (winner + random.nextInt(5)) % 6;
+            GameOutcome outcome = GameOutcome.values()[random.nextInt(GameOutcome.values().length)];
+            LocalDateTime playedAt = START.plusMinutes(game);
+
+            service.recordResults(List.of(new GameResult(winner, loser, outcome, 3, 1, playedAt)));
+            history.add(new Result(winner, loser, outcome, playedAt));
+        }
+        Map<Long, Integer> recorded = allStats.stream()
+                .collect(Collectors.toMap(stats -> stats.getPlayer().getId(), PlayerStats::getRating));
+        assertThat(allStats).anyMatch(stats -> stats.getMatchesPlayed() > EloRating.PROVISIONAL_GAMES);
+
+        allStats.forEach(stats -> stats.setRating(PlayerStats.DEFAULT_RATING));
+        when(matchResultRepository.streamRatedResults()).thenAnswer(invocation -> history.stream());
+        service.recomputeRatings();
+
+        for (PlayerStats stats : allStats) {
+            assertThat(stats.getRating()).isEqualTo(recorded.get(stats.getPlayer().getId()));
+        }
+    }
+}
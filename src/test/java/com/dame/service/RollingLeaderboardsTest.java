@@ -0,0 +1,151 @@
+package com.dame.service;
+
+import com.dame.service.LeaderboardIndex.RankedPlayer;
+import com.dame.service.LeaderboardService.Window;
+import com.dame.service.RollingLeaderboards.Label;
+import com.dame.service.RollingLeaderboards.Tally;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollingLeaderboardsTest {
+
+    private static final LocalDate DAY_0 = LocalDate.of(2026, 3, 1);
+
+    private static final Tally WIN = new Tally(1, 0, 0);
+    private static final Tally LOSS = new Tally(0, 1, 0);
+    private static final Tally DRAW = new Tally(0, 0, 1);
+
+    private final RollingLeaderboards boards = new RollingLeaderboards(DAY_0);
+
+    private void record(int day, long playerId, Tally result) {
+        boards.record(DAY_0.plusDays(day), playerId, new Label("p" + playerId, 1500), result);
+    }
+
+    private int rank(Window window, int day, long playerId) {
+        return boards.rankOf(window, DAY_0.plusDays(day), playerId);
+    }
+
+    private int size(Window window, int day) {
+        return boards.size(window, DAY_0.plusDays(day));
+    }
+
+    @Nested
+    @DisplayName("Per-window rank")
+    class PerWindowRank {
+
+        @Test
+        @DisplayName("each window should rank only the results inside it")
+        void ranksPerWindow() {
+            // Player 1 won a lot three weeks ago, player 2 last week, player 3 today
+            for (int i = 0; i < 5; i++) {
+                record(-20, 1, WIN);
+            }
+            for (int i = 0; i < 3; i++) {
+                record(-3, 2, WIN);
+            }
+            record(0, 3, WIN);
+            record(0, 1, LOSS);
+
+            assertThat(rank(Window.MONTH, 0, 1)).isEqualTo(1);
+            assertThat(rank(Window.MONTH, 0, 2)).isEqualTo(2);
+            assertThat(rank(Window.MONTH, 0, 3)).isEqualTo(3);
+
+            assertThat(rank(Window.WEEK, 0, 2)).isEqualTo(1);
+            assertThat(rank(Window.WEEK, 0, 3)).isEqualTo(2);
+            assertThat(rank(Window.WEEK, 0, 1)).isEqualTo(3);
+
+            assertThat(rank(Window.DAY, 0, 3)).isEqualTo(1);
+            assertThat(rank(Window.DAY, 0, 1)).isEqualTo(2);
+            assertThat(rank(Window.DAY, 0, 2)).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("should total a player's results across the days of a window")
+        void totals() {
+            record(-6, 1, WIN);
+            record(-2, 1, DRAW);
+            record(0, 1, LOSS);
+
+            RankedPlayer week = boards.page(Window.WEEK, DAY_0, 0, 1).get(0);
+            assertThat(week.wins()).isEqualTo(1);
+            assertThat(week.draws()).isEqualTo(1);
+            assertThat(week.losses()).isEqualTo(1);
+            assertThat(week.matchesPlayed()).isEqualTo(3);
+
+            RankedPlayer day = boards.page(Window.DAY, DAY_0, 0, 1).get(0);
+            assertThat(day.matchesPlayed()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("a result recorded after midnight should count on the day it was played")
+        void lateResult() {
+            boards.advanceTo(DAY_0.plusDays(1));
+            record(0, 1, WIN);
+
+            assertThat(rank(Window.DAY, 1, 1)).isEqualTo(-1);
+            assertThat(rank(Window.WEEK, 1, 1)).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bucket expiry")
+    class Expiry {
+
+        @Test
+        @DisplayName("results should leave each window when its last day passes")
+        void leavesWindows() {
+            record(0, 1, WIN);
+
+            assertThat(size(Window.DAY, 0)).isEqualTo(1);
+            assertThat(size(Window.DAY, 1)).isZero();
+            assertThat(size(Window.WEEK, 6)).isEqualTo(1);
+            assertThat(size(Window.WEEK, 7)).isZero();
+            assertThat(size(Window.MONTH, 29)).isEqualTo(1);
+            assertThat(size(Window.MONTH, 30)).isZero();
+            assertThat(rank(Window.MONTH, 30, 1)).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("a jump of many days should expire every bucket passed over")
+        void jump() {
+            for (int day = 0; day < 10; day++) {
+                record(day, day + 1, WIN);
+                record(day, 100, LOSS);
+            }
+
+            // Day 12: the week covers days 6..12, so players 7..10 and four losses of player 100 remain
+            assertThat(size(Window.WEEK, 12)).isEqualTo(5);
+            assertThat(boards.page(Window.WEEK, DAY_0.plusDays(12), 4, 1).get(0).losses()).isEqualTo(4);
+            assertThat(size(Window.MONTH, 12)).isEqualTo(11);
+
+            assertThat(size(Window.MONTH, 100)).isZero();
+            assertThat(size(Window.WEEK, 100)).isZero();
+        }
+
+        @Test
+        @DisplayName("results older than the longest window should be ignored")
+        void tooOld() {
+            boards.advanceTo(DAY_0.plusDays(40));
+            record(5, 1, WIN);
+            record(11, 2, WIN);
+
+            assertThat(size(Window.MONTH, 40)).isEqualTo(1);
+            assertThat(rank(Window.MONTH, 40, 2)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("an earlier date should not roll the windows back")
+        void earlierDateIgnored() {
+            record(0, 1, WIN);
+            boards.advanceTo(DAY_0.plusDays(2));
+
+            assertThat(size(Window.DAY, 0)).isZero();
+            assertThat(size(Window.WEEK, 0)).isEqualTo(1);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.dame.service;
+
+import com.dame.dto.LobbyUpdate;
+import com.dame.dto.SpectateGameDTO;
+import com.dame.entity.OnlineGameSession;
+import com.dame.entity.OnlineGameStatus;
+import com.dame.entity.Player;
+import com.dame.repository.OnlineGameSessionRepository;
+import com.dame.service.broadcast.GameSessionBroadcaster;
+import com.dame.service.broadcast.LobbyBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Follows a game through the lobby's watch list: the deltas broadcast on the
+ * SPECTATABLE_GAMES topic are applied the way a lobby view applies them.
+ */
+class SpectatableGamesTest {
+
+    private static final Long SESSION_ID = 7L;
+
+    private final LobbyBroadcaster lobbyBroadcaster = new LobbyBroadcaster();
+    private final Map<Long, SpectateGameDTO> watchList = new LinkedHashMap<>();
+    private long appliedVersion;
+
+    private Player white;
+    private Player black;
+    private OnlineGameSession session;
+    private OnlineGameService gameService;
+
+    @BeforeEach
+    void setUp() {
+        white = player(1L, "alice");
+        black = player(2L, "bob");
+
+        session = new OnlineGameSession();
+        session.setId(SESSION_ID);
+        session.setSessionCode("GAME-TEST01");
+        session.setWhitePlayer(white);
+        session.setBlackPlayer(black);
+        session.setStatus(OnlineGameStatus.IN_PROGRESS);
+
+        OnlineGameSessionRepository repository = mock(OnlineGameSessionRepository.class);
+        when(repository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        gameService = new OnlineGameService(repository, new GameSessionBroadcaster(), lobbyBroadcaster,
+                mock(OnlinePresenceService.class), mock(GameResultRecorder.class));
+    }
+
+    private static Player player(Long id, String username) {
+        Player player = new Player(username, "hash");
+        player.setId(id);
+        return player;
+    }
+
+    /**
+     * Apply the topic's new deltas to the local watch list, as LobbyView does.
+     */
+    private Map<Long, SpectateGameDTO> catchUp() {
+        List<LobbyUpdate> updates = lobbyBroadcaster
+                .getUpdatesSince(LobbyUpdate.Topic.SPECTATABLE_GAMES, appliedVersion)
+                .orElseThrow();
+        for (LobbyUpdate update : updates) {
+            switch (update.getType()) {
+                case SPECTATABLE_GAMES_CHANGED -> update.getSpectatableGames()
+                        .forEach(game -> watchList.put(game.getSessionId(), game));
+                case SPECTATABLE_GAME_REMOVED -> watchList.remove(update.getSessionId());
+                default -> {
+                }
+            }
+            appliedVersion = update.getVersion();
+        }
+        return watchList;
+    }
+
+    @Test
+    @DisplayName("a game should leave the watch list when its round ends and return with the next round")
+    void roundTrip() {
+        gameService.startNewRound(SESSION_ID);
+        assertThat(catchUp()).containsOnlyKeys(SESSION_ID);
+
+        gameService.forfeitRound(SESSION_ID, white);
+        assertThat(catchUp()).isEmpty();
+
+        gameService.startNewRound(SESSION_ID);
+        assertThat(catchUp()).containsOnlyKeys(SESSION_ID);
+        assertThat(watchList.get(SESSION_ID).getScoreDisplay()).isEqualTo("0 - 1");
+
+        gameService.forfeitRound(SESSION_ID, black);
+        assertThat(catchUp()).isEmpty();
+        assertThat(session.getWhiteWins()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.dame.service.broadcast;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListenerQueueTest {
+
+    /** Updates starting with "S" carry the latest state; everything else is a discrete event */
+    private static boolean isState(String update) {
+        return update.startsWith("S");
+    }
+
+    private final List<Runnable> drains = new ArrayList<>();
+    private final List<String> delivered = new ArrayList<>();
+
+    private ListenerQueue<String> queue;
+
+    @BeforeEach
+    void setUp() {
+        // The listener is stalled until the test runs the drain task
+        queue = new ListenerQueue<>(delivered::add, 3, drains::add, ListenerQueueTest::isState, () -> "RESYNC");
+    }
+
+    private void deliver() {
+        List<Runnable> tasks = List.copyOf(drains);
+        drains.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("discrete events should survive a flood of state updates")
+    void eventsSurviveStateFlood() {
+        queue.offer("FORFEIT");
+        queue.offer("S1");
+        queue.offer("REMATCH");
+        for (int i = 2; i <= 100; i++) {
+            queue.offer("S" + i);
+        }
+        queue.offer("NEW_ROUND");
+
+        deliver();
+
+        assertThat(delivered).containsExactly("FORFEIT", "REMATCH", "S100", "NEW_ROUND");
+        assertThat(queue.getCoalescedCount()).isEqualTo(99);
+        assertThat(queue.getResyncCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("a full queue of events should not evict any of them for a state update")
+    void fullQueueKeepsEvents() {
+        queue.offer("E1");
+        queue.offer("E2");
+        queue.offer("E3");
+        queue.offer("S1");
+        queue.offer("S2");
+
+        deliver();
+
+        assertThat(delivered).containsExactly("E1", "E2", "E3", "S2");
+        assertThat(queue.getResyncCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("a listener too far behind should be resynced instead of losing events")
+    void overflowResyncs() {
+        queue.offer("E1");
+        queue.offer("S1");
+        queue.offer("E2");
+        queue.offer("E3");
+        queue.offer("E4");
+
+        deliver();
+
+        assertThat(delivered).containsExactly("RESYNC", "E4");
+        assertThat(queue.getResyncCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("delivered events should free capacity")
+    void deliveryFreesCapacity() {
+        for (int round = 0; round < 5; round++) {
+            queue.offer("E" + round + "a");
+            queue.offer("E" + round + "b");
+            queue.offer("E" + round + "c");
+            deliver();
+        }
+
+        assertThat(delivered).hasSize(15).doesNotContain("RESYNC");
+        assertThat(queue.size()).isZero();
+    }
+}